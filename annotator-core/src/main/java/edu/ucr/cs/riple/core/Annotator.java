@@ -64,11 +64,17 @@ public class Annotator {
 
   /** Starts the annotating process consist of preprocess followed by the "annotate" phase. */
   public void start() {
-    preprocess();
-    long timer = context.log.startTimer();
-    annotate();
-    context.log.stopTimerAndCapture(timer);
-    Utility.writeLog(context);
+    try {
+      preprocess();
+      long timer = context.log.startTimer();
+      annotate();
+      context.log.stopTimerAndCapture(timer);
+      Utility.writeLog(context);
+    } finally {
+      if (context.buildDaemon != null) {
+        context.buildDaemon.close();
+      }
+    }
   }
 
   /**
@@ -30,6 +30,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import edu.ucr.cs.riple.core.evaluators.graph.ColoringStrategy;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.util.JsonParser;
 import edu.ucr.cs.riple.core.util.Utility;
@@ -177,6 +178,90 @@ public class Config {
   /** Language level to use when parsing Java code. Defaults to Java 17. */
   public final ParserConfiguration.LanguageLevel languageLevel;
 
+  /**
+   * Path to a javac argument file containing all arguments to compile the target module. If set,
+   * target module is compiled in-process with the same warm compiler for all builds instead of
+   * running {@link #buildCommand}. The build command is still used for the initial scanner run. If
+   * not set, value is {@code null}.
+   */
+  public final Path inProcessCompilationArguments;
+
+  /**
+   * If activated, builds after injecting a group of fixes only recompile the source files
+   * containing the fixes and the potentially impacted regions, against the class output of the
+   * latest full build. Requires in-process compilation.
+   */
+  public final boolean incrementalRecompilation;
+
+  /**
+   * Number of isolated workspaces used to evaluate non-conflicting groups of fixes concurrently in
+   * the parallel processor. Workspaces are only created if the value is greater than 1.
+   */
+  public final int parallelWorkers;
+
+  /**
+   * Root directory of the target module sources which is replicated for each worker. If not set,
+   * value is {@code null}.
+   */
+  public final Path workerSourceRoot;
+
+  /**
+   * Command to build the target module in a worker workspace. Occurrences of {@code %WORKSPACE%},
+   * {@code %CHECKER_CONFIG%} and {@code %SCANNER_CONFIG%} are replaced with the workspace root and
+   * the paths to the checker and scanner config files of the worker. If not set, value is {@code
+   * null}.
+   */
+  public final String workerBuildCommand;
+
+  /**
+   * Command to start a long-lived build daemon. If set, all builds of the target module and
+   * downstream dependencies are submitted to the daemon instead of running the build commands in a
+   * new process. See {@link edu.ucr.cs.riple.core.util.BuildDaemon} for the protocol. If not set,
+   * value is {@code null}.
+   */
+  public final String buildDaemonCommand;
+
+  /**
+   * Directory of the on-disk cache of target module build outputs keyed by the injected
+   * annotations. Cannot be used with {@link #incrementalRecompilation}. Entries are reused across
+   * runs only with {@link #inProcessCompilationArguments}, where dependencies of the build are
+   * known. If not set, value is {@code null} and the build cache is deactivated.
+   */
+  public final Path buildCacheDirectory;
+
+  /** Maximum total size of the build cache in megabytes. Defaults to 1024. */
+  public final long buildCacheSizeLimit;
+
+  /**
+   * Directory of binary snapshots of registries built from scanner outputs. Snapshots are reused
+   * across runs while scanner outputs (and sources for field registries) are unchanged. If not set,
+   * value is {@code null} and registries are always built from scanner outputs.
+   */
+  public final Path registrySnapshotDirectory;
+
+  /**
+   * Maximum total size in megabytes of the source files which parsed compilation unit trees are
+   * cached for. Defaults to 64, zero disables the cache.
+   */
+  public final long parserCacheSizeLimit;
+
+  /** Strategy to color the conflict graph into groups of fixes. Defaults to greedy. */
+  public final ColoringStrategy coloringStrategy;
+
+  /**
+   * Time limit in milliseconds for improving the coloring of each conflict graph with iterated
+   * greedy passes. Defaults to 0, where no improvement is performed.
+   */
+  public final long coloringImprovementTimeLimit;
+
+  /**
+   * Directory of scanner outputs partitioned by source file, kept across runs. If set, only source
+   * files changed since the previous run, or depending on a changed source file, are scanned again
+   * and outputs of other source files are reused. If not set, value is {@code null} and all source
+   * files are scanned.
+   */
+  public final Path incrementalScanningDirectory;
+
   /**
    * Builds context from command line arguments.
    *
@@ -382,6 +467,128 @@ public class Config {
     languageLevelOption.setRequired(false);
     options.addOption(languageLevelOption);
 
+    // In-process compilation
+    Option inProcessCompilationOption =
+        new Option(
+            "ipc",
+            "in-process-compilation",
+            true,
+            "Path to a javac argument file containing all arguments to compile the target module, activates compiling the target module in-process instead of running the build command");
+    inProcessCompilationOption.setRequired(false);
+    options.addOption(inProcessCompilationOption);
+
+    // Incremental recompilation
+    Option incrementalRecompilationOption =
+        new Option(
+            "irc",
+            "incremental-recompilation",
+            false,
+            "Recompiles only source files affected by injected fixes against the class output of the latest full build, requires in-process compilation");
+    incrementalRecompilationOption.setRequired(false);
+    options.addOption(incrementalRecompilationOption);
+
+    // Parallel workers
+    Option parallelWorkersOption =
+        new Option(
+            "pw",
+            "parallel-workers",
+            true,
+            "Number of isolated workspaces to evaluate non-conflicting groups of fixes concurrently, requires worker source root and worker build command");
+    parallelWorkersOption.setRequired(false);
+    options.addOption(parallelWorkersOption);
+    Option workerSourceRootOption =
+        new Option(
+            "wsr",
+            "worker-source-root",
+            true,
+            "Root directory of the target module sources which is copied for each worker");
+    workerSourceRootOption.setRequired(false);
+    options.addOption(workerSourceRootOption);
+    Option workerBuildCommandOption =
+        new Option(
+            "wbc",
+            "worker-build-command",
+            true,
+            "Command to build the target module in a worker workspace, %WORKSPACE%, %CHECKER_CONFIG% and %SCANNER_CONFIG% are replaced with values of the worker");
+    workerBuildCommandOption.setRequired(false);
+    options.addOption(workerBuildCommandOption);
+
+    // Build daemon
+    Option buildDaemonCommandOption =
+        new Option(
+            "bdc",
+            "build-daemon-command",
+            true,
+            "Command to start a long-lived build daemon, all build commands are submitted to the daemon as requests instead of running in a new process");
+    buildDaemonCommandOption.setRequired(false);
+    options.addOption(buildDaemonCommandOption);
+
+    // Build cache
+    Option buildCacheDirectoryOption =
+        new Option(
+            "bcd",
+            "build-cache-dir",
+            true,
+            "Directory of the on-disk cache of target module build outputs keyed by the injected annotations, activates the build cache");
+    buildCacheDirectoryOption.setRequired(false);
+    options.addOption(buildCacheDirectoryOption);
+    Option buildCacheSizeOption =
+        new Option(
+            "bcs",
+            "build-cache-size",
+            true,
+            "Maximum total size of the build cache in megabytes, defaults to 1024");
+    buildCacheSizeOption.setRequired(false);
+    options.addOption(buildCacheSizeOption);
+
+    // Registry snapshots
+    Option registrySnapshotDirectoryOption =
+        new Option(
+            "rsd",
+            "registry-snapshot-dir",
+            true,
+            "Directory of binary snapshots of registries built from scanner outputs, snapshots are reused across runs while scanner outputs are unchanged");
+    registrySnapshotDirectoryOption.setRequired(false);
+    options.addOption(registrySnapshotDirectoryOption);
+
+    // Parser cache
+    Option parserCacheSizeOption =
+        new Option(
+            "pcs",
+            "parser-cache-size",
+            true,
+            "Maximum total size in megabytes of the source files which parsed trees are cached for, defaults to 64");
+    parserCacheSizeOption.setRequired(false);
+    options.addOption(parserCacheSizeOption);
+
+    // Coloring strategy
+    Option coloringStrategyOption =
+        new Option(
+            "cs",
+            "coloring-strategy",
+            true,
+            "Strategy to color the conflict graph into groups of fixes, can be [greedy|largest_first|dsatur], defaults to greedy");
+    coloringStrategyOption.setRequired(false);
+    options.addOption(coloringStrategyOption);
+    Option coloringImprovementTimeOption =
+        new Option(
+            "cit",
+            "coloring-improvement-time",
+            true,
+            "Time limit in milliseconds for improving the coloring of each conflict graph with iterated greedy passes, defaults to 0 (disabled)");
+    coloringImprovementTimeOption.setRequired(false);
+    options.addOption(coloringImprovementTimeOption);
+
+    // Incremental scanning
+    Option incrementalScanningDirectoryOption =
+        new Option(
+            "isd",
+            "incremental-scanning-dir",
+            true,
+            "Directory of scanner outputs partitioned by source file, only source files changed since the previous run are scanned again");
+    incrementalScanningDirectoryOption.setRequired(false);
+    options.addOption(incrementalScanningDirectoryOption);
+
     HelpFormatter formatter = new HelpFormatter();
     CommandLineParser parser = new DefaultParser();
     CommandLine cmd;
@@ -488,6 +695,52 @@ public class Config {
         !cmd.hasOption(nonnullAnnotationsOption)
             ? ImmutableSet.of()
             : ImmutableSet.copyOf(cmd.getOptionValue(nonnullAnnotationsOption).split(","));
+    this.inProcessCompilationArguments =
+        cmd.hasOption(inProcessCompilationOption)
+            ? Paths.get(cmd.getOptionValue(inProcessCompilationOption))
+            : null;
+    this.incrementalRecompilation = cmd.hasOption(incrementalRecompilationOption);
+    Preconditions.checkArgument(
+        !this.incrementalRecompilation || this.inProcessCompilationArguments != null,
+        "Incremental recompilation requires in-process compilation (--in-process-compilation).");
+    this.parallelWorkers = Integer.parseInt(cmd.getOptionValue(parallelWorkersOption, "1"));
+    this.workerSourceRoot =
+        cmd.hasOption(workerSourceRootOption)
+            ? Paths.get(cmd.getOptionValue(workerSourceRootOption))
+            : null;
+    this.workerBuildCommand = cmd.getOptionValue(workerBuildCommandOption);
+    Preconditions.checkArgument(
+        this.parallelWorkers <= 1
+            || (this.workerSourceRoot != null && this.workerBuildCommand != null),
+        "Parallel workers require worker source root (--worker-source-root) and worker build command (--worker-build-command).");
+    this.buildDaemonCommand = cmd.getOptionValue(buildDaemonCommandOption);
+    this.buildCacheDirectory =
+        cmd.hasOption(buildCacheDirectoryOption)
+            ? Paths.get(cmd.getOptionValue(buildCacheDirectoryOption))
+            : null;
+    this.buildCacheSizeLimit = Long.parseLong(cmd.getOptionValue(buildCacheSizeOption, "1024"));
+    Preconditions.checkArgument(
+        this.buildCacheDirectory == null || !this.incrementalRecompilation,
+        "Build cache (--build-cache-dir) cannot be used with incremental recompilation, since outputs of partial builds depend on the latest full build.");
+    Preconditions.checkArgument(
+        this.parallelWorkers <= 1
+            || (this.inProcessCompilationArguments == null
+                && this.buildDaemonCommand == null
+                && this.buildCacheDirectory == null),
+        "Parallel workers (--parallel-workers) build workspaces with the worker build command and cannot be used with in-process compilation (--in-process-compilation), build daemon (--build-daemon-command) or build cache (--build-cache-dir).");
+    this.registrySnapshotDirectory =
+        cmd.hasOption(registrySnapshotDirectoryOption)
+            ? Paths.get(cmd.getOptionValue(registrySnapshotDirectoryOption))
+            : null;
+    this.parserCacheSizeLimit = Long.parseLong(cmd.getOptionValue(parserCacheSizeOption, "64"));
+    this.coloringStrategy =
+        ColoringStrategy.parse(cmd.getOptionValue(coloringStrategyOption, "greedy"));
+    this.coloringImprovementTimeLimit =
+        Long.parseLong(cmd.getOptionValue(coloringImprovementTimeOption, "0"));
+    this.incrementalScanningDirectory =
+        cmd.hasOption(incrementalScanningDirectoryOption)
+            ? Paths.get(cmd.getOptionValue(incrementalScanningDirectoryOption))
+            : null;
   }
 
   /**
@@ -602,6 +855,64 @@ public class Config {
                 .getArrayValueFromKey(
                     "ANNOTATION:NONNULL", json -> json.get("NONNULL").getAsString())
                 .orElse(List.of()));
+    String inProcessCompilationArgumentsString =
+        parser.getValueFromKey("IN_PROCESS_COMPILATION_ARGUMENTS").orElse("").getAsString();
+    this.inProcessCompilationArguments =
+        inProcessCompilationArgumentsString.isEmpty()
+            ? null
+            : Paths.get(inProcessCompilationArgumentsString);
+    this.incrementalRecompilation =
+        parser.getValueFromKey("INCREMENTAL_RECOMPILATION").orElse(false).getAsBoolean();
+    Preconditions.checkArgument(
+        !this.incrementalRecompilation || this.inProcessCompilationArguments != null,
+        "Incremental recompilation requires in-process compilation (IN_PROCESS_COMPILATION_ARGUMENTS).");
+    this.parallelWorkers = parser.getValueFromKey("PARALLEL_WORKERS").orElse(1).getAsInt();
+    String workerSourceRootString =
+        parser.getValueFromKey("WORKER_SOURCE_ROOT").orElse("").getAsString();
+    this.workerSourceRoot =
+        workerSourceRootString.isEmpty() ? null : Paths.get(workerSourceRootString);
+    String workerBuildCommandString =
+        parser.getValueFromKey("WORKER_BUILD_COMMAND").orElse("").getAsString();
+    this.workerBuildCommand = workerBuildCommandString.isEmpty() ? null : workerBuildCommandString;
+    Preconditions.checkArgument(
+        this.parallelWorkers <= 1
+            || (this.workerSourceRoot != null && this.workerBuildCommand != null),
+        "Parallel workers require worker source root (WORKER_SOURCE_ROOT) and worker build command (WORKER_BUILD_COMMAND).");
+    String buildDaemonCommandString =
+        parser.getValueFromKey("BUILD_DAEMON_COMMAND").orElse("").getAsString();
+    this.buildDaemonCommand = buildDaemonCommandString.isEmpty() ? null : buildDaemonCommandString;
+    String buildCacheDirectoryString =
+        parser.getValueFromKey("BUILD_CACHE_DIR").orElse("").getAsString();
+    this.buildCacheDirectory =
+        buildCacheDirectoryString.isEmpty() ? null : Paths.get(buildCacheDirectoryString);
+    this.buildCacheSizeLimit = parser.getValueFromKey("BUILD_CACHE_SIZE").orElse(1024).getAsLong();
+    Preconditions.checkArgument(
+        this.buildCacheDirectory == null || !this.incrementalRecompilation,
+        "Build cache (BUILD_CACHE_DIR) cannot be used with incremental recompilation, since outputs of partial builds depend on the latest full build.");
+    Preconditions.checkArgument(
+        this.parallelWorkers <= 1
+            || (this.inProcessCompilationArguments == null
+                && this.buildDaemonCommand == null
+                && this.buildCacheDirectory == null),
+        "Parallel workers (PARALLEL_WORKERS) build workspaces with the worker build command and cannot be used with in-process compilation (IN_PROCESS_COMPILATION_ARGUMENTS), build daemon (BUILD_DAEMON_COMMAND) or build cache (BUILD_CACHE_DIR).");
+    String registrySnapshotDirectoryString =
+        parser.getValueFromKey("REGISTRY_SNAPSHOT_DIR").orElse("").getAsString();
+    this.registrySnapshotDirectory =
+        registrySnapshotDirectoryString.isEmpty()
+            ? null
+            : Paths.get(registrySnapshotDirectoryString);
+    this.parserCacheSizeLimit = parser.getValueFromKey("PARSER_CACHE_SIZE").orElse(64).getAsLong();
+    this.coloringStrategy =
+        ColoringStrategy.parse(
+            parser.getValueFromKey("COLORING_STRATEGY").orElse("greedy").getAsString());
+    this.coloringImprovementTimeLimit =
+        parser.getValueFromKey("COLORING_IMPROVEMENT_TIME").orElse(0).getAsLong();
+    String incrementalScanningDirectoryString =
+        parser.getValueFromKey("INCREMENTAL_SCANNING_DIR").orElse("").getAsString();
+    this.incrementalScanningDirectory =
+        incrementalScanningDirectoryString.isEmpty()
+            ? null
+            : Paths.get(incrementalScanningDirectoryString);
   }
 
   /**
@@ -660,6 +971,19 @@ public class Config {
     public int depth = 1;
     public String checker;
     public ParserConfiguration.LanguageLevel languageLevel;
+    public Path inProcessCompilationArguments;
+    public boolean incrementalRecompilation = false;
+    public int parallelWorkers = 1;
+    public Path workerSourceRoot;
+    public String workerBuildCommand;
+    public String buildDaemonCommand;
+    public Path buildCacheDirectory;
+    public long buildCacheSizeLimit = 1024;
+    public Path registrySnapshotDirectory;
+    public long parserCacheSizeLimit = 64;
+    public ColoringStrategy coloringStrategy = ColoringStrategy.GREEDY;
+    public long coloringImprovementTimeLimit = 0;
+    public Path incrementalScanningDirectory;
 
     public void write(Path path) {
       Preconditions.checkNotNull(
@@ -692,6 +1016,34 @@ public class Config {
       json.addProperty("SUPPRESS_REMAINING_ERRORS", suppressRemainingErrors);
       json.addProperty("INFERENCE_ACTIVATION", inferenceActivated);
       json.addProperty("LANGUAGE_LEVEL", languageLevel.name().split("_")[1]);
+      if (inProcessCompilationArguments != null) {
+        json.addProperty(
+            "IN_PROCESS_COMPILATION_ARGUMENTS", inProcessCompilationArguments.toString());
+      }
+      json.addProperty("INCREMENTAL_RECOMPILATION", incrementalRecompilation);
+      json.addProperty("PARALLEL_WORKERS", parallelWorkers);
+      if (workerSourceRoot != null) {
+        json.addProperty("WORKER_SOURCE_ROOT", workerSourceRoot.toString());
+      }
+      if (workerBuildCommand != null) {
+        json.addProperty("WORKER_BUILD_COMMAND", workerBuildCommand);
+      }
+      if (buildDaemonCommand != null) {
+        json.addProperty("BUILD_DAEMON_COMMAND", buildDaemonCommand);
+      }
+      if (buildCacheDirectory != null) {
+        json.addProperty("BUILD_CACHE_DIR", buildCacheDirectory.toString());
+      }
+      json.addProperty("BUILD_CACHE_SIZE", buildCacheSizeLimit);
+      if (registrySnapshotDirectory != null) {
+        json.addProperty("REGISTRY_SNAPSHOT_DIR", registrySnapshotDirectory.toString());
+      }
+      json.addProperty("PARSER_CACHE_SIZE", parserCacheSizeLimit);
+      json.addProperty("COLORING_STRATEGY", coloringStrategy.name().toLowerCase());
+      json.addProperty("COLORING_IMPROVEMENT_TIME", coloringImprovementTimeLimit);
+      if (incrementalScanningDirectory != null) {
+        json.addProperty("INCREMENTAL_SCANNING_DIR", incrementalScanningDirectory.toString());
+      }
       JsonArray configPathsJson = new JsonArray();
       configPaths.forEach(
           info -> {
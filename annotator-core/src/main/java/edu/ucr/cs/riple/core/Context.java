@@ -24,21 +24,30 @@
 
 package edu.ucr.cs.riple.core;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.cache.BuildCache;
 import edu.ucr.cs.riple.core.checkers.Checker;
 import edu.ucr.cs.riple.core.checkers.CheckerBaseClass;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.CompilerRunner;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.InProcessCompilerRunner;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.WorkspacePool;
 import edu.ucr.cs.riple.core.injectors.AnnotationInjector;
 import edu.ucr.cs.riple.core.injectors.PhysicalInjector;
 import edu.ucr.cs.riple.core.log.Log;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.index.Error;
+import edu.ucr.cs.riple.core.util.BuildDaemon;
+import edu.ucr.cs.riple.core.util.Utility;
+import edu.ucr.cs.riple.injector.CompilationUnitCache;
 import edu.ucr.cs.riple.injector.offsets.FileOffsetStore;
-import edu.ucr.cs.riple.injector.offsets.OffsetChange;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 /**
  * Context class for Annotator. This class encapsulates all the code structure information all APIs
@@ -53,6 +62,12 @@ public class Context {
   /** Log instance. Responsible for logging all the information about the build time and count. */
   public final Log log;
 
+  /**
+   * Cache of parsed compilation unit trees of source files, shared by registries and injectors of
+   * all modules.
+   */
+  public final CompilationUnitCache parserCache;
+
   /** Handler for computing the original offset of reported errors with existing changes. */
   public final OffsetHandler offsetHandler;
 
@@ -68,11 +83,41 @@ public class Context {
   /** Sets of context path information for all downstream dependencies. */
   public final ImmutableSet<ModuleConfiguration> downstreamConfigurations;
 
+  /**
+   * Long-lived build daemon which all builds are submitted to. Only created if {@link
+   * Config#buildDaemonCommand} is set, otherwise {@code null}.
+   */
+  @Nullable public final BuildDaemon buildDaemon;
+
+  /**
+   * Cache of target module build outputs. Only created if {@link Config#buildCacheDirectory} is
+   * set, otherwise {@code null}.
+   */
+  @Nullable public final BuildCache buildCache;
+
   /** Checker instance. Used to execute checker specific tasks. */
   public final Checker<? extends Error> checker;
 
   public final AnnotationInjector injector;
 
+  /**
+   * Compiler runner for the target module. Compiles the target module in-process if {@link
+   * Config#inProcessCompilationArguments} is set, otherwise runs {@link Config#buildCommand}.
+   */
+  public final CompilerRunner targetCompilerRunner;
+
+  /**
+   * Pool of isolated workspaces of the target module to evaluate groups of fixes concurrently.
+   * Created on first use, see {@link #getWorkspacePool()}.
+   */
+  @Nullable private WorkspacePool workspacePool;
+
+  /**
+   * Sequence number of the latest build, incremented after each build. Used to detect whether
+   * outputs of a build are already deserialized.
+   */
+  private final AtomicLong buildSequence = new AtomicLong();
+
   /**
    * Builds context from command line arguments.
    *
@@ -83,12 +128,56 @@ public class Context {
     this.offsetHandler = new OffsetHandler();
     this.downstreamConfigurations = config.downstreamConfigurations;
     this.log = new Log();
+    // Parser cache must be created before the first registry which parses source files.
+    this.parserCache = new CompilationUnitCache(config.parserCacheSizeLimit * 1024 * 1024);
     this.targetConfiguration = config.target;
     this.checker = CheckerBaseClass.getCheckerByName(config.checkerName, this);
+    // Build daemon must be started before the first build which happens in target module info
+    // initialization.
+    this.buildDaemon = config.buildDaemonCommand == null ? null : new BuildDaemon(config);
     this.targetModuleInfo = new ModuleInfo(this, config.target, config.buildCommand);
     // Checker compatibility check must be after target module info is initialized.
     this.checker.verifyCheckerCompatibility();
+    // Build cache must be created before any change is applied on the target module sources.
+    this.buildCache = config.buildCacheDirectory == null ? null : new BuildCache(this);
     this.injector = new PhysicalInjector(this);
+    this.targetCompilerRunner =
+        config.inProcessCompilationArguments == null
+            ? () -> Utility.build(this, config.buildCommand)
+            : new InProcessCompilerRunner(this, config.inProcessCompilationArguments);
+  }
+
+  /**
+   * Returns the pool of workspaces to evaluate groups of fixes concurrently. The pool is created on
+   * the first call, since copying the sources into workspaces is only worth it if groups are
+   * evaluated.
+   *
+   * @return Pool of workspaces.
+   * @throws IllegalStateException if {@link Config#parallelWorkers} is not greater than 1.
+   */
+  public synchronized WorkspacePool getWorkspacePool() {
+    Preconditions.checkState(
+        config.parallelWorkers > 1, "Workspaces are only created for parallel workers.");
+    if (workspacePool == null) {
+      // Workers share the scanner config of the target module, which is deactivated once the
+      // target module info is created.
+      workspacePool = new WorkspacePool(this);
+    }
+    return workspacePool;
+  }
+
+  /**
+   * Returns the sequence number of the latest build.
+   *
+   * @return Sequence number of the latest build.
+   */
+  public long getBuildSequence() {
+    return buildSequence.get();
+  }
+
+  /** Records that a build has finished and its outputs might have changed. */
+  public void recordBuild() {
+    buildSequence.incrementAndGet();
   }
 
   /**
@@ -110,6 +199,26 @@ public class Context {
       this.contents = new HashMap<>();
     }
 
+    /**
+     * Creates a copy of this handler. Changes on the copy are not reflected on this instance.
+     *
+     * @return A new handler with the same offset changes.
+     */
+    public OffsetHandler copy() {
+      OffsetHandler copy = new OffsetHandler();
+      contents.forEach((path, store) -> copy.contents.put(path, store.copy(path)));
+      return copy;
+    }
+
+    /**
+     * Returns the paths to all source files which have been modified.
+     *
+     * @return Immutable set of paths to modified files.
+     */
+    public ImmutableSet<Path> getModifiedFiles() {
+      return ImmutableSet.copyOf(contents.keySet());
+    }
+
     /**
      * Gets the original offset according to existing offset changes.
      *
@@ -121,7 +230,46 @@ public class Context {
       if (!contents.containsKey(path)) {
         return offset;
       }
-      return OffsetChange.getOriginalOffset(offset, contents.get(path).getOffsetChanges());
+      return contents.get(path).getOriginalOffset(offset);
+    }
+
+    /**
+     * Returns copies of the offset stores of the given files. Files without any offset change are
+     * not included. Changes on the returned stores are not reflected on this instance.
+     *
+     * @param paths Paths to source files.
+     * @return Map of paths to copies of their offset stores.
+     */
+    public Map<Path, FileOffsetStore> getOffsetStores(Set<Path> paths) {
+      Map<Path, FileOffsetStore> stores = new HashMap<>();
+      paths.forEach(
+          path -> {
+            FileOffsetStore store = contents.get(path);
+            if (store != null) {
+              stores.put(path, store.copy(path));
+            }
+          });
+      return stores;
+    }
+
+    /**
+     * Restores the offset stores of the given files to the given stores, which are retrieved by
+     * {@link #getOffsetStores(Set)}. Offset changes of the given files which are not in the given
+     * stores are discarded.
+     *
+     * @param paths Paths to source files.
+     * @param stores Map of paths to offset stores to restore.
+     */
+    public void restoreOffsetStores(Set<Path> paths, Map<Path, FileOffsetStore> stores) {
+      paths.forEach(
+          path -> {
+            FileOffsetStore store = stores.get(path);
+            if (store == null) {
+              contents.remove(path);
+            } else {
+              contents.put(path, store.copy(path));
+            }
+          });
     }
 
     /**
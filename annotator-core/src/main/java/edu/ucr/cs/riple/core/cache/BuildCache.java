@@ -0,0 +1,451 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.cache;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import edu.ucr.cs.riple.core.Context;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.InProcessCompilerRunner;
+import edu.ucr.cs.riple.core.module.ModuleConfiguration;
+import edu.ucr.cs.riple.injector.changes.ASTChange;
+import edu.ucr.cs.riple.injector.changes.AddSingleElementAnnotation;
+import edu.ucr.cs.riple.injector.changes.AnnotationChange;
+import edu.ucr.cs.riple.injector.changes.TypeUseAnnotationChange;
+import edu.ucr.cs.riple.injector.location.LocationToJsonVisitor;
+import edu.ucr.cs.riple.scanner.Serializer;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of target module build outputs keyed by the state of the sources. The key of a
+ * build is a stable hash of the pristine sources of the target module, the build configuration,
+ * the dependencies of the build and the exact set of annotations injected at the time of the build.
+ * On a hit, checker outputs (e.g. {@code errors.tsv}) are restored in the output directories of the
+ * target module and the build is skipped.
+ *
+ * <p>Dependencies of the build are only known with in-process compilation, where the key includes
+ * the javac argument file, the class path and processor path entries (including the checker and
+ * scanner jars), build files in directories containing the sources, the running JDK and Annotator
+ * itself. In that case entries are reused across iterations and across runs on unchanged sources
+ * and dependencies. Otherwise, the key includes an identifier of the current run and entries are
+ * only reused across iterations of the same run.
+ *
+ * <p>Each entry is a directory in the cache directory named by its key, containing a directory per
+ * module configuration. The total size of entries is bounded by {@link
+ * edu.ucr.cs.riple.core.Config#buildCacheSizeLimit}, and least recently used entries are evicted
+ * first, where the last modified time of an entry directory is its last use.
+ */
+public class BuildCache {
+
+  /** Outputs of the scanner, which are not modified by builds and not stored in entries. */
+  private static final ImmutableSet<String> SCANNER_OUTPUTS =
+      ImmutableSet.of(
+          Serializer.FIELD_IMPACTED_REGION_FILE_NAME,
+          Serializer.METHOD_IMPACTED_REGION_FILE_NAME,
+          Serializer.METHOD_RECORD_FILE_NAME,
+          Serializer.CLASS_RECORD_FILE_NAME,
+          Serializer.NON_NULL_ELEMENTS_FILE_NAME);
+
+  /**
+   * Options of javac argument files followed by a list of paths, whose entries are dependencies of
+   * the build.
+   */
+  private static final ImmutableSet<String> PATH_OPTIONS =
+      ImmutableSet.of(
+          "-cp",
+          "-classpath",
+          "--class-path",
+          "-processorpath",
+          "--processor-path",
+          "-p",
+          "--module-path",
+          "--processor-module-path",
+          "-bootclasspath",
+          "--boot-class-path");
+
+  /** Build files, which can change the dependencies or the configuration of the build. */
+  private static final ImmutableSet<String> BUILD_FILES =
+      ImmutableSet.of(
+          "build.gradle",
+          "build.gradle.kts",
+          "settings.gradle",
+          "settings.gradle.kts",
+          "gradle.properties",
+          "pom.xml");
+
+  /** Annotator context. */
+  private final Context context;
+
+  /** Directory where entries are stored. */
+  private final Path directory;
+
+  /** Maximum total size of entries in bytes. */
+  private final long sizeLimit;
+
+  /** Hash of the pristine sources of the target module and the build configuration. */
+  private final String baseHash;
+
+  /** Keys of annotation changes currently injected on the target module. */
+  private final Multiset<String> injected;
+
+  /**
+   * Creates the cache. Must be created before any change is applied on the target module sources.
+   *
+   * @param context Annotator context.
+   */
+  public BuildCache(Context context) {
+    this.context = context;
+    this.directory = context.config.buildCacheDirectory;
+    this.sizeLimit = context.config.buildCacheSizeLimit * 1024 * 1024;
+    this.injected = HashMultiset.create();
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not create build cache directory: " + directory, e);
+    }
+    this.baseHash = computeBaseHash();
+  }
+
+  /**
+   * Builds the target module with the given build unless outputs of a build on the same state of
+   * sources are cached. Outputs of a performed build are stored in the cache.
+   *
+   * @param build Build of the target module.
+   */
+  public void build(Runnable build) {
+    String key = computeKey();
+    Path entry = directory.resolve(key);
+    if (restore(entry)) {
+      context.log.incrementBuildCacheHit();
+      return;
+    }
+    context.log.incrementBuildCacheMiss();
+    build.run();
+    store(entry);
+    evict();
+  }
+
+  /**
+   * Records the given changes as injected on the target module.
+   *
+   * @param changes Injected changes.
+   */
+  public synchronized void recordInjectedChanges(Set<? extends ASTChange> changes) {
+    changes.forEach(change -> injected.add(keyOf(change)));
+  }
+
+  /**
+   * Records the given changes as removed from the target module.
+   *
+   * @param changes Removed changes.
+   */
+  public synchronized void recordRemovedChanges(Set<? extends ASTChange> changes) {
+    changes.forEach(change -> injected.remove(keyOf(change)));
+  }
+
+  /**
+   * Computes the key of a build on the current state of the target module sources.
+   *
+   * @return Key in hex format.
+   */
+  private synchronized String computeKey() {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(baseHash, StandardCharsets.UTF_8);
+    injected.entrySet().stream()
+        .map(entry -> entry.getElement() + "\t" + entry.getCount())
+        .sorted()
+        .forEach(key -> hasher.putString(key, StandardCharsets.UTF_8).putChar('\n'));
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Computes a key identifying the given change, which is identical for an annotation addition and
+   * its reverse.
+   *
+   * @param change Given change.
+   * @return Key of the change.
+   */
+  private static String keyOf(ASTChange change) {
+    if (!(change instanceof AnnotationChange)) {
+      return change.getClass().getName() + "\t" + change;
+    }
+    AnnotationChange annotationChange = (AnnotationChange) change;
+    StringBuilder key =
+        new StringBuilder(annotationChange.annotationName.fullName)
+            .append('\t')
+            .append(change.getLocation().accept(new LocationToJsonVisitor(), null));
+    if (change instanceof TypeUseAnnotationChange) {
+      key.append('\t').append(((TypeUseAnnotationChange) change).getTypeIndex());
+    }
+    if (change instanceof AddSingleElementAnnotation) {
+      key.append('\t').append(((AddSingleElementAnnotation) change).getArgument());
+    }
+    return key.toString();
+  }
+
+  /**
+   * Computes the hash of the pristine sources of the target module, the build configuration and
+   * the dependencies of the build.
+   *
+   * @return Hash in hex format.
+   */
+  private String computeBaseHash() {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(context.config.checkerName, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(context.config.nullableAnnot, StandardCharsets.UTF_8).putChar('\n');
+    hasher.putString(context.config.buildCommand, StandardCharsets.UTF_8).putChar('\n');
+    List<Path> sources =
+        context.targetModuleInfo.getSourceFiles().stream().sorted().collect(Collectors.toList());
+    for (Path source : sources) {
+      hasher.putString(source.toString(), StandardCharsets.UTF_8).putChar('\n');
+      try {
+        hasher.putBytes(Files.readAllBytes(source));
+      } catch (IOException e) {
+        // Source file is not accessible, only its path contributes to the hash.
+        hasher.putInt(-1);
+      }
+    }
+    Path argumentsFile = context.config.inProcessCompilationArguments;
+    if (argumentsFile == null) {
+      // Dependencies of the build are unknown, entries are only reused within this run.
+      hasher.putString(UUID.randomUUID().toString(), StandardCharsets.UTF_8);
+      return hasher.hash().toString();
+    }
+    hasher.putString(System.getProperty("java.version"), StandardCharsets.UTF_8).putChar('\n');
+    CodeSource annotator = BuildCache.class.getProtectionDomain().getCodeSource();
+    if (annotator != null) {
+      try {
+        hashStamp(hasher, Paths.get(annotator.getLocation().toURI()));
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        hasher.putString(annotator.getLocation().toString(), StandardCharsets.UTF_8);
+      }
+    }
+    List<String> arguments = InProcessCompilerRunner.readArgumentsFile(argumentsFile);
+    for (int i = 0; i < arguments.size(); i++) {
+      String argument = arguments.get(i);
+      hasher.putString(argument, StandardCharsets.UTF_8).putChar('\n');
+      if (PATH_OPTIONS.contains(argument) && i < arguments.size() - 1) {
+        Splitter.on(File.pathSeparator)
+            .omitEmptyStrings()
+            .split(arguments.get(i + 1))
+            .forEach(entry -> hashStamp(hasher, Paths.get(entry)));
+      }
+    }
+    Set<Path> directories = new TreeSet<>();
+    for (Path source : sources) {
+      for (Path dir = source.toAbsolutePath().getParent(); dir != null; dir = dir.getParent()) {
+        if (!directories.add(dir)) {
+          break;
+        }
+      }
+    }
+    for (Path dir : directories) {
+      for (String name : BUILD_FILES) {
+        Path buildFile = dir.resolve(name);
+        if (Files.isRegularFile(buildFile)) {
+          hasher.putString(buildFile.toString(), StandardCharsets.UTF_8).putChar('\n');
+          try {
+            hasher.putBytes(Files.readAllBytes(buildFile));
+          } catch (IOException e) {
+            hasher.putInt(-1);
+          }
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Hashes the path, size and last modified time of the given file, or of all files in the given
+   * directory. Contents of dependencies are not read, since class path entries can be large.
+   *
+   * @param hasher Hasher to update.
+   * @param path Given file or directory.
+   */
+  private static void hashStamp(Hasher hasher, Path path) {
+    hasher.putString(path.toString(), StandardCharsets.UTF_8).putChar('\n');
+    try (Stream<Path> files = Files.walk(path)) {
+      for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+        hasher.putString(file.toString(), StandardCharsets.UTF_8).putChar('\n');
+        hasher.putLong(Files.size(file));
+        hasher.putLong(Files.getLastModifiedTime(file).toMillis());
+      }
+    } catch (IOException | UncheckedIOException e) {
+      // Entry does not exist or is not accessible, only its path contributes to the hash.
+      hasher.putInt(-1);
+    }
+  }
+
+  /**
+   * Restores outputs stored in the given entry in the output directories of the target module.
+   *
+   * @param entry Entry directory.
+   * @return true, if the entry exists and its outputs are restored.
+   */
+  private boolean restore(Path entry) {
+    if (!Files.isDirectory(entry)) {
+      return false;
+    }
+    try {
+      for (ModuleConfiguration configuration : context.targetModuleInfo.getModuleConfigurations()) {
+        Path stored = entry.resolve(String.valueOf(configuration.id));
+        for (Path file : listFiles(stored)) {
+          Files.copy(
+              file,
+              configuration.dir.resolve(file.getFileName()),
+              StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return true;
+    } catch (IOException e) {
+      // Entry is evicted or corrupted, the build is performed.
+      return false;
+    }
+  }
+
+  /**
+   * Stores outputs of the latest build in the given entry. Entries are first written in a
+   * temporary directory and then moved to the entry, so that concurrent runs sharing the cache
+   * directory never observe incomplete entries.
+   *
+   * @param entry Entry directory.
+   */
+  private void store(Path entry) {
+    Path temp = directory.resolve(".tmp-" + UUID.randomUUID());
+    try {
+      for (ModuleConfiguration configuration : context.targetModuleInfo.getModuleConfigurations()) {
+        Path stored = Files.createDirectories(temp.resolve(String.valueOf(configuration.id)));
+        for (Path file : listFiles(configuration.dir)) {
+          if (!SCANNER_OUTPUTS.contains(file.getFileName().toString())) {
+            Files.copy(file, stored.resolve(file.getFileName()));
+          }
+        }
+      }
+      Files.move(temp, entry);
+    } catch (FileAlreadyExistsException e) {
+      // Stored by a concurrent run.
+      deleteDirectory(temp);
+    } catch (IOException e) {
+      deleteDirectory(temp);
+      throw new RuntimeException("Could not store build outputs in cache at: " + entry, e);
+    }
+  }
+
+  /** Evicts least recently used entries until the total size of entries is within the limit. */
+  private void evict() {
+    try (Stream<Path> entries = Files.list(directory)) {
+      List<Path> sorted =
+          entries
+              .filter(path -> !path.getFileName().toString().startsWith("."))
+              .sorted(Comparator.comparing(BuildCache::lastModifiedTime).reversed())
+              .collect(Collectors.toList());
+      long total = 0;
+      for (Path entry : sorted) {
+        total += size(entry);
+        if (total > sizeLimit) {
+          deleteDirectory(entry);
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Could not evict entries of build cache at: " + directory, e);
+    }
+  }
+
+  /**
+   * Lists regular files directly located in the given directory.
+   *
+   * @param dir Given directory.
+   * @return List of regular files.
+   * @throws IOException if the directory cannot be read.
+   */
+  private static List<Path> listFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Returns the last modified time of the given path, or the epoch if it cannot be read.
+   *
+   * @param path Given path.
+   * @return Last modified time.
+   */
+  private static FileTime lastModifiedTime(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  /**
+   * Computes the total size of files in the given directory.
+   *
+   * @param dir Given directory.
+   * @return Total size in bytes.
+   * @throws IOException if the directory cannot be read.
+   */
+  private static long size(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+    }
+  }
+
+  /**
+   * Deletes the given directory and all its contents, failures are ignored as another run sharing
+   * the cache directory might delete the same directory.
+   *
+   * @param dir Directory to delete.
+   */
+  private static void deleteDirectory(Path dir) {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    } catch (IOException ignored) {
+      // Already deleted.
+    }
+  }
+}
@@ -25,10 +25,15 @@
 package edu.ucr.cs.riple.core.checkers;
 
 import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.index.Error;
+import edu.ucr.cs.riple.core.registries.region.Region;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a checker that is running on the target module.
@@ -38,13 +43,54 @@ import java.util.Set;
 public interface Checker<T extends Error> {
 
   /**
-   * Deserializes errors reported by the checker from the output using the given context.
+   * Deserializes errors reported by the checker from the output using the given context. Each call
+   * reads the output again, consumers of the latest build output should use {@link
+   * #getErrorSnapshot(ModuleInfo)} instead.
    *
    * @param module Module where the checker reports errors.
    * @return Set of errors reported by the checker.
    */
   Set<T> deserializeErrors(ModuleInfo module);
 
+  /**
+   * Returns the errors reported by the checker on the given module in the output of the latest
+   * build. The output is deserialized only on the first request after each build, and the same
+   * snapshot is returned to all later requests until the next build.
+   *
+   * @param module Module where the checker reports errors.
+   * @return Snapshot of errors reported by the checker in the latest build.
+   */
+  ErrorSnapshot<T> getErrorSnapshot(ModuleInfo module);
+
+  /**
+   * Deserializes errors reported by the checker on the given module which are enclosed by the given
+   * regions. Errors in other regions are skipped before they are deserialized, and are only
+   * counted.
+   *
+   * @param module Module where the checker reports errors.
+   * @param regions Regions of interest.
+   * @param errors Collection which deserialized errors are added to.
+   * @return Number of skipped errors.
+   */
+  int deserializeErrors(ModuleInfo module, Set<Region> regions, Collection<? super T> errors);
+
+  /**
+   * Deserializes errors reported by the checker on the given module from the output of a build in
+   * an isolated copy of the module sources.
+   *
+   * @param module Module where the checker reports errors.
+   * @param outputDirectory Directory where the checker serialized its output.
+   * @param offsetHandler Handler of the offset changes made on the copy of the module sources.
+   * @param pathResolver Resolver of the path of a source file in the module from the path of its
+   *     copy.
+   * @return Set of errors reported by the checker.
+   */
+  Set<T> deserializeErrors(
+      ModuleInfo module,
+      Path outputDirectory,
+      Context.OffsetHandler offsetHandler,
+      UnaryOperator<Path> pathResolver);
+
   /** Suppresses remaining errors reported by the checker. */
   void suppressRemainingErrors();
 
@@ -64,4 +110,22 @@ public interface Checker<T extends Error> {
    *     build.
    */
   void prepareConfigFilesForBuild(ImmutableSet<ModuleConfiguration> configurations);
+
+  /**
+   * Saves the errors serialized by the latest full build of the given module. Saved errors are used
+   * to complete the output of following partial builds in {@link #mergePartialBuildErrors}.
+   *
+   * @param module Module which is fully built.
+   */
+  void saveFullBuildErrors(ModuleInfo module);
+
+  /**
+   * Completes the errors serialized by a partial build of the given module, which only recompiled
+   * the given source files. Errors saved from the latest full build which are reported in other
+   * source files are added to the output of the partial build.
+   *
+   * @param module Module which is partially built.
+   * @param recompiledFiles Source files recompiled in the partial build.
+   */
+  void mergePartialBuildErrors(ModuleInfo module, ImmutableSet<Path> recompiledFiles);
 }
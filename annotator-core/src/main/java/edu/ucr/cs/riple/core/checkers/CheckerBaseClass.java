@@ -24,12 +24,16 @@
 
 package edu.ucr.cs.riple.core.checkers;
 
+import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.Config;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.checkers.nullaway.NullAway;
+import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.index.Error;
 import edu.ucr.cs.riple.injector.location.OnField;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 /** Base class for all checker representations. */
@@ -41,9 +45,25 @@ public abstract class CheckerBaseClass<T extends Error> implements Checker<T> {
   /** Annotator context. */
   protected final Context context;
 
+  /** Latest error snapshot of each module, keyed by the configurations of the module. */
+  private final Map<ImmutableSet<ModuleConfiguration>, ErrorSnapshot<T>> snapshots;
+
   public CheckerBaseClass(Context context) {
     this.context = context;
     this.config = context.config;
+    this.snapshots = new HashMap<>();
+  }
+
+  @Override
+  public synchronized ErrorSnapshot<T> getErrorSnapshot(ModuleInfo module) {
+    long buildSequence = context.getBuildSequence();
+    ImmutableSet<ModuleConfiguration> key = module.getModuleConfigurations();
+    ErrorSnapshot<T> snapshot = snapshots.get(key);
+    if (snapshot == null || snapshot.getBuildSequence() != buildSequence) {
+      snapshot = new ErrorSnapshot<>(buildSequence, ImmutableSet.copyOf(deserializeErrors(module)));
+      snapshots.put(key, snapshot);
+    }
+    return snapshot;
   }
 
   /**
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.checkers;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.registries.index.Error;
+import edu.ucr.cs.riple.core.registries.index.Fix;
+
+/**
+ * Errors reported by the checker on a module in the output of a single build. Snapshots are created
+ * by {@link Checker#getErrorSnapshot} once per build, and are shared by all consumers of the build
+ * output, so that the output of each build is deserialized only once.
+ *
+ * @param <T> Type of errors reported by the checker.
+ */
+public class ErrorSnapshot<T extends Error> {
+
+  /**
+   * Sequence number of the build which produced the errors, see {@link
+   * edu.ucr.cs.riple.core.Context#getBuildSequence()}.
+   */
+  private final long buildSequence;
+
+  /** Errors reported in the build output. */
+  private final ImmutableSet<T> errors;
+
+  /** Resolving fixes of the errors, computed on first request. */
+  private final Supplier<ImmutableSet<Fix>> resolvingFixes;
+
+  public ErrorSnapshot(long buildSequence, ImmutableSet<T> errors) {
+    this.buildSequence = buildSequence;
+    this.errors = errors;
+    this.resolvingFixes = Suppliers.memoize(() -> Error.getResolvingFixesOfErrors(errors));
+  }
+
+  /**
+   * Getter for the sequence number of the build which produced the errors.
+   *
+   * @return Sequence number of the build.
+   */
+  public long getBuildSequence() {
+    return buildSequence;
+  }
+
+  /**
+   * Getter for the errors reported in the build output.
+   *
+   * @return Immutable set of errors.
+   */
+  public ImmutableSet<T> getErrors() {
+    return errors;
+  }
+
+  /**
+   * Returns the set of resolving fixes of all errors in this snapshot.
+   *
+   * @return Immutable set of resolving fixes.
+   */
+  public ImmutableSet<Fix> getResolvingFixes() {
+    return resolvingFixes.get();
+  }
+}
@@ -25,6 +25,7 @@
 package edu.ucr.cs.riple.core.checkers.nullaway;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.checkers.CheckerBaseClass;
@@ -48,11 +49,18 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /** Represents <a href="https://github.com/uber/NullAway">NullAway</a> checker in Annotator. */
 public class NullAway extends CheckerBaseClass<NullAwayError> {
@@ -65,56 +73,171 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
   /** Supported version of NullAway serialization. */
   public static final int VERSION = 3;
 
+  /**
+   * Lines of errors files serialized by the latest full build, used to complete the output of
+   * partial builds.
+   */
+  private final Map<Path, ImmutableList<String>> fullBuildErrors;
+
   public NullAway(Context context) {
     super(context);
+    this.fullBuildErrors = new HashMap<>();
   }
 
   @Override
   public Set<NullAwayError> deserializeErrors(ModuleInfo module) {
-    ImmutableSet<Path> paths =
-        module.getModuleConfiguration().stream()
-            .map(configuration -> configuration.dir.resolve("errors.tsv"))
-            .collect(ImmutableSet.toImmutableSet());
     Set<NullAwayError> errors = new HashSet<>();
-    paths.forEach(
-        path -> {
-          try {
-            try (BufferedReader br = Files.newBufferedReader(path, Charset.defaultCharset())) {
-              String line;
-              // Skip header.
-              br.readLine();
-              while ((line = br.readLine()) != null) {
-                errors.add(deserializeErrorFromTSVLine(module, line));
-              }
-            }
-          } catch (IOException e) {
-            throw new RuntimeException("Exception happened in reading errors at: " + path, e);
+    getErrorsFilePaths(module)
+        .forEach(
+            path ->
+                errors.addAll(
+                    deserializeErrorsFile(
+                        module, path, context.offsetHandler, UnaryOperator.identity())));
+    return errors;
+  }
+
+  @Override
+  public Set<NullAwayError> deserializeErrors(
+      ModuleInfo module,
+      Path outputDirectory,
+      Context.OffsetHandler offsetHandler,
+      UnaryOperator<Path> pathResolver) {
+    return deserializeErrorsFile(
+        module, outputDirectory.resolve("errors.tsv"), offsetHandler, pathResolver);
+  }
+
+  @Override
+  public int deserializeErrors(
+      ModuleInfo module, Set<Region> regions, Collection<? super NullAwayError> errors) {
+    Set<String> keys =
+        regions.stream()
+            .map(region -> region.clazz + "\t" + region.member)
+            .collect(Collectors.toSet());
+    int skipped = 0;
+    for (Path path : getErrorsFilePaths(module)) {
+      try (BufferedReader br = Files.newBufferedReader(path, Charset.defaultCharset())) {
+        String line;
+        // Skip header.
+        br.readLine();
+        while ((line = br.readLine()) != null) {
+          String key = getRegionKeyOfErrorInTSVLine(line);
+          if (key != null && !keys.contains(key)) {
+            skipped++;
+            continue;
           }
-        });
+          errors.add(
+              deserializeErrorFromTSVLine(
+                  module, line, context.offsetHandler, UnaryOperator.identity()));
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Exception happened in reading errors at: " + path, e);
+      }
+    }
+    return skipped;
+  }
+
+  /**
+   * Deserializes errors serialized by NullAway in the given errors file.
+   *
+   * @param module Module where NullAway reports errors.
+   * @param path Path to the errors file.
+   * @param offsetHandler Handler to compute the original offset of errors.
+   * @param pathResolver Resolver of the path of source files from the serialized paths.
+   * @return Set of deserialized errors.
+   */
+  private Set<NullAwayError> deserializeErrorsFile(
+      ModuleInfo module,
+      Path path,
+      Context.OffsetHandler offsetHandler,
+      UnaryOperator<Path> pathResolver) {
+    Set<NullAwayError> errors = new HashSet<>();
+    try {
+      try (BufferedReader br = Files.newBufferedReader(path, Charset.defaultCharset())) {
+        String line;
+        // Skip header.
+        br.readLine();
+        while ((line = br.readLine()) != null) {
+          errors.add(deserializeErrorFromTSVLine(module, line, offsetHandler, pathResolver));
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Exception happened in reading errors at: " + path, e);
+    }
     return errors;
   }
 
+  /**
+   * Returns the paths to errors files serialized by NullAway for the given module.
+   *
+   * @param module Module where NullAway reports errors.
+   * @return Immutable set of paths to errors files.
+   */
+  private static ImmutableSet<Path> getErrorsFilePaths(ModuleInfo module) {
+    return module.getModuleConfiguration().stream()
+        .map(configuration -> configuration.dir.resolve("errors.tsv"))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /**
+   * Returns the path to the source file where the error serialized in the given TSV line is
+   * reported.
+   *
+   * @param line Given TSV line.
+   * @return Path to the source file containing the error.
+   */
+  private static Path getSourceFileOfErrorInTSVLine(String line) {
+    return Printer.deserializePath(line.split("\t", 7)[5]);
+  }
+
+  /**
+   * Returns the enclosing class and member columns of the error serialized in the given TSV line
+   * (joined by a tab), without splitting the whole line.
+   *
+   * @param line Given TSV line.
+   * @return Region columns of the error, or {@code null} if the line does not have enough columns.
+   */
+  @Nullable
+  private static String getRegionKeyOfErrorInTSVLine(String line) {
+    int start = line.indexOf('\t', line.indexOf('\t') + 1);
+    if (start < 0) {
+      return null;
+    }
+    int end = line.indexOf('\t', line.indexOf('\t', start + 1) + 1);
+    if (end < 0) {
+      return null;
+    }
+    return line.substring(start + 1, end);
+  }
+
   /**
    * Deserializes an error from a TSV line.
    *
    * @param moduleInfo Module info.
    * @param line Given TSV line.
+   * @param offsetHandler Handler to compute the original offset of the error.
+   * @param pathResolver Resolver of the path of source files from the serialized paths.
    * @return the deserialized error corresponding to the values in the given tsv line.
    */
-  private NullAwayError deserializeErrorFromTSVLine(ModuleInfo moduleInfo, String line) {
-    Context context = moduleInfo.getContext();
+  private NullAwayError deserializeErrorFromTSVLine(
+      ModuleInfo moduleInfo,
+      String line,
+      Context.OffsetHandler offsetHandler,
+      UnaryOperator<Path> pathResolver) {
     String[] values = line.split("\t");
     Preconditions.checkArgument(
         values.length == 12,
         "Expected 12 values to create Error instance in NullAway serialization version 2 but found: "
             + values.length);
     int offset = Integer.parseInt(values[4]);
-    Path path = Printer.deserializePath(values[5]);
+    Path path = resolvePath(Printer.deserializePath(values[5]), pathResolver);
     String errorMessage = values[1];
     String errorType = values[0];
     Region region = new Region(values[2], values[3]);
     Location nonnullTarget =
         Location.createLocationFromArrayInfo(Arrays.copyOfRange(values, 6, 12));
+    if (nonnullTarget != null) {
+      nonnullTarget.path = resolvePath(nonnullTarget.path, pathResolver);
+    }
     if (nonnullTarget == null && errorType.equals(NullAwayError.METHOD_INITIALIZER_ERROR)) {
       Set<AddAnnotation> annotationsOnField =
           computeAddAnnotationInstancesForUninitializedFields(
@@ -123,7 +246,7 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
           errorType,
           errorMessage,
           region,
-          context.offsetHandler.getOriginalOffset(path, offset),
+          offsetHandler.getOriginalOffset(path, offset),
           annotationsOnField,
           moduleInfo);
     }
@@ -143,11 +266,23 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
         errorType,
         errorMessage,
         region,
-        context.offsetHandler.getOriginalOffset(path, offset),
+        offsetHandler.getOriginalOffset(path, offset),
         annotations,
         moduleInfo);
   }
 
+  /**
+   * Resolves the given path with the given resolver.
+   *
+   * @param path Given path, can be {@code null} for elements outside the module.
+   * @param pathResolver Resolver of the path.
+   * @return The resolved path, {@code null} if the given path is {@code null}.
+   */
+  @Nullable
+  private static Path resolvePath(@Nullable Path path, UnaryOperator<Path> pathResolver) {
+    return path == null ? null : pathResolver.apply(path);
+  }
+
   /**
    * Extracts uninitialized field names from the given error message.
    *
@@ -235,7 +370,7 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
   public void suppressRemainingErrors() {
     // Collect regions with remaining errors.
     Utility.buildTarget(context);
-    Set<NullAwayError> remainingErrors = deserializeErrors(context.targetModuleInfo);
+    Set<NullAwayError> remainingErrors = getErrorSnapshot(context.targetModuleInfo).getErrors();
     // Collect all regions for NullUnmarked.
     // For all errors in regions which correspond to a method's body, we can add @NullUnmarked at
     // the method level.
@@ -344,7 +479,7 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
     context.log.updateInjectedAnnotations(result);
     // Collect @NullUnmarked annotations on classes for any remaining error.
     Utility.buildTarget(context);
-    remainingErrors = deserializeErrors(context.targetModuleInfo);
+    remainingErrors = getErrorSnapshot(context.targetModuleInfo).getErrors();
     nullUnMarkedAnnotations =
         remainingErrors.stream()
             .filter(error -> !error.getRegion().isInAnonymousClass())
@@ -366,9 +501,7 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
     // nonnull at all exit paths.
     // Collect uninitialized fields.
     Set<OnField> uninitializedFields =
-        Utility.readErrorsFromOutputDirectory(
-                context, context.targetModuleInfo, NullAwayError.class)
-            .stream()
+        getErrorSnapshot(context.targetModuleInfo).getErrors().stream()
             .filter(e -> e.messageType.equals("FIELD_NO_INIT"))
             .flatMap(Error::getResolvingFixesStream)
             .filter(Fix::isOnField)
@@ -414,6 +547,42 @@ public class NullAway extends CheckerBaseClass<NullAwayError> {
     return new NullAwayError(errorType, errorMessage, region, offset, cleanedAnnotations);
   }
 
+  @Override
+  public void saveFullBuildErrors(ModuleInfo module) {
+    getErrorsFilePaths(module)
+        .forEach(
+            path -> fullBuildErrors.put(path, ImmutableList.copyOf(Utility.readFileLines(path))));
+  }
+
+  @Override
+  public void mergePartialBuildErrors(ModuleInfo module, ImmutableSet<Path> recompiledFiles) {
+    for (Path path : getErrorsFilePaths(module)) {
+      ImmutableList<String> previous = fullBuildErrors.get(path);
+      Preconditions.checkState(
+          previous != null && !previous.isEmpty(),
+          "No errors saved from a full build to merge partial build errors at: " + path);
+      List<String> merged = new ArrayList<>(Utility.readFileLines(path));
+      if (merged.isEmpty()) {
+        // Header.
+        merged.add(previous.get(0));
+      }
+      // Errors of all files analyzed in the partial build are already in the output.
+      Set<Path> updatedFiles = new HashSet<>(recompiledFiles);
+      merged.stream()
+          .skip(1)
+          .forEach(line -> updatedFiles.add(getSourceFileOfErrorInTSVLine(line)));
+      previous.stream()
+          .skip(1)
+          .filter(line -> !updatedFiles.contains(getSourceFileOfErrorInTSVLine(line)))
+          .forEach(merged::add);
+      try {
+        Files.write(path, merged, Charset.defaultCharset());
+      } catch (IOException e) {
+        throw new RuntimeException("Exception happened in writing errors at: " + path, e);
+      }
+    }
+  }
+
   @Override
   public void verifyCheckerCompatibility() {
     Path pathToSerializationVersion =
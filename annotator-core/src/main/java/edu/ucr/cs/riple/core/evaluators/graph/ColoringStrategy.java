@@ -0,0 +1,250 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.evaluators.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Strategies to color the {@link ConflictGraph}. Each color is a group of non-conflicting nodes
+ * which are evaluated with a single build, therefore strategies which use fewer colors require
+ * fewer builds. Graphs are given in compressed sparse row layout, where neighbors of node {@code i}
+ * are stored in {@code neighbors[offsets[i] .. offsets[i + 1])}.
+ */
+public enum ColoringStrategy {
+
+  /** Greedy first-fit coloring of nodes in insertion order. */
+  GREEDY {
+    @Override
+    public int[] color(int[] offsets, int[] neighbors, int size) {
+      return colorInOrder(offsets, neighbors, IntStream.range(0, size).toArray());
+    }
+  },
+
+  /** Welsh-Powell coloring, greedy first-fit coloring of nodes in decreasing order of degree. */
+  LARGEST_FIRST {
+    @Override
+    public int[] color(int[] offsets, int[] neighbors, int size) {
+      int[] order =
+          IntStream.range(0, size)
+              .boxed()
+              .sorted(Comparator.comparingInt((Integer i) -> degree(offsets, i)).reversed())
+              .mapToInt(Integer::intValue)
+              .toArray();
+      return colorInOrder(offsets, neighbors, order);
+    }
+  },
+
+  /**
+   * DSatur coloring, at each step colors the uncolored node with the highest number of distinct
+   * colors among its neighbors, ties are broken by degree.
+   */
+  DSATUR {
+    @Override
+    public int[] color(int[] offsets, int[] neighbors, int size) {
+      int[] colors = new int[size];
+      Arrays.fill(colors, -1);
+      int[] saturation = new int[size];
+      // Colors of neighbors of each node, created on demand.
+      List<BitSet> neighborColors = new ArrayList<>(Collections.nCopies(size, null));
+      TreeSet<Integer> queue =
+          new TreeSet<>(
+              Comparator.comparingInt((Integer i) -> -saturation[i])
+                  .thenComparingInt(i -> -degree(offsets, i))
+                  .thenComparingInt(i -> i));
+      for (int i = 0; i < size; i++) {
+        queue.add(i);
+      }
+      while (!queue.isEmpty()) {
+        int u = queue.pollFirst();
+        BitSet used = neighborColors.get(u);
+        int c = used == null ? 0 : used.nextClearBit(0);
+        colors[u] = c;
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+          int w = neighbors[e];
+          if (colors[w] != -1) {
+            continue;
+          }
+          BitSet wColors = neighborColors.get(w);
+          if (wColors == null) {
+            wColors = new BitSet();
+            neighborColors.set(w, wColors);
+          }
+          if (!wColors.get(c)) {
+            queue.remove(w);
+            wColors.set(c);
+            saturation[w]++;
+            queue.add(w);
+          }
+        }
+      }
+      return colors;
+    }
+  };
+
+  /**
+   * Colors the given graph.
+   *
+   * @param offsets Offsets of the adjacency list of each node in {@code neighbors}.
+   * @param neighbors Adjacency lists of all nodes.
+   * @param size Number of nodes.
+   * @return Colors of nodes indexed by node id, colors are consecutive integers starting from 0.
+   */
+  public abstract int[] color(int[] offsets, int[] neighbors, int size);
+
+  /**
+   * Improves the given coloring with iterated greedy passes (Culberson). In each pass, nodes are
+   * recolored with greedy first-fit coloring in an order where nodes of the same color are
+   * consecutive, which never increases the number of colors. Passes continue until the time limit
+   * is reached.
+   *
+   * @param colors Initial coloring, not modified.
+   * @param offsets Offsets of the adjacency list of each node in {@code neighbors}.
+   * @param neighbors Adjacency lists of all nodes.
+   * @param timeLimitMillis Time limit in milliseconds.
+   * @return The coloring with the fewest colors found.
+   */
+  public static int[] improve(int[] colors, int[] offsets, int[] neighbors, long timeLimitMillis) {
+    long deadline = System.currentTimeMillis() + timeLimitMillis;
+    // Fixed seed to keep results reproducible for identical inputs.
+    Random random = new Random(0);
+    int[] best = colors;
+    int[] current = colors;
+    int pass = 0;
+    while (System.currentTimeMillis() < deadline && numberOfColors(best) > 1) {
+      List<List<Integer>> classes = colorClasses(current);
+      switch (pass++ % 3) {
+        case 0:
+          // Reverse order of colors.
+          Collections.reverse(classes);
+          break;
+        case 1:
+          // Largest color classes first.
+          classes.sort(Comparator.comparingInt((List<Integer> c) -> c.size()).reversed());
+          break;
+        default:
+          Collections.shuffle(classes, random);
+      }
+      int[] order = classes.stream().flatMap(List::stream).mapToInt(Integer::intValue).toArray();
+      current = colorInOrder(offsets, neighbors, order);
+      if (numberOfColors(current) < numberOfColors(best)) {
+        best = current;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Parses the strategy from its name, case-insensitive.
+   *
+   * @param name Name of the strategy.
+   * @return The corresponding strategy.
+   */
+  public static ColoringStrategy parse(String name) {
+    for (ColoringStrategy strategy : values()) {
+      if (strategy.name().equalsIgnoreCase(name)) {
+        return strategy;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unrecognized coloring strategy: " + name + " .Can only be [greedy|largest_first|dsatur].");
+  }
+
+  /**
+   * Returns the number of colors in the given coloring.
+   *
+   * @param colors Colors of nodes.
+   * @return Number of colors.
+   */
+  public static int numberOfColors(int[] colors) {
+    return Arrays.stream(colors).max().orElse(-1) + 1;
+  }
+
+  /**
+   * Colors nodes with greedy first-fit coloring in the given order.
+   *
+   * @param offsets Offsets of the adjacency list of each node in {@code neighbors}.
+   * @param neighbors Adjacency lists of all nodes.
+   * @param order Order of nodes to color.
+   * @return Colors of nodes indexed by node id.
+   */
+  private static int[] colorInOrder(int[] offsets, int[] neighbors, int[] order) {
+    int size = order.length;
+    int[] colors = new int[size];
+    Arrays.fill(colors, -1);
+    // Colors used by neighbors of node u are marked with u.
+    int[] unavailable = new int[size];
+    Arrays.fill(unavailable, -1);
+    for (int u : order) {
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int i = neighbors[e];
+        if (colors[i] != -1) {
+          unavailable[colors[i]] = u;
+        }
+      }
+      int cr = 0;
+      while (unavailable[cr] == u) {
+        cr++;
+      }
+      colors[u] = cr;
+    }
+    return colors;
+  }
+
+  /**
+   * Returns node ids grouped by their colors, in increasing order of colors.
+   *
+   * @param colors Colors of nodes.
+   * @return List of color classes.
+   */
+  private static List<List<Integer>> colorClasses(int[] colors) {
+    List<List<Integer>> classes = new ArrayList<>();
+    for (int i = 0; i < numberOfColors(colors); i++) {
+      classes.add(new ArrayList<>());
+    }
+    for (int i = 0; i < colors.length; i++) {
+      classes.get(colors[i]).add(i);
+    }
+    return classes;
+  }
+
+  /**
+   * Returns the degree of the given node.
+   *
+   * @param offsets Offsets of the adjacency list of each node.
+   * @param node Node id.
+   * @return Degree of the node.
+   */
+  private static int degree(int[] offsets, int node) {
+    return offsets[node + 1] - offsets[node];
+  }
+}
@@ -24,16 +24,19 @@
 
 package edu.ucr.cs.riple.core.evaluators.graph;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import edu.ucr.cs.riple.core.registries.index.Fix;
+import edu.ucr.cs.riple.core.registries.region.Region;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -48,14 +51,24 @@ public class ConflictGraph {
 
   /**
    * Groups in this graph, nodes which does not have any conflict in regions will in the same group.
-   * Please note that this is a graph coloring problem, set of groups is calculated using a greedy
-   * algorithm can may not be optimal.
+   * Please note that this is a graph coloring problem, set of groups is calculated using a
+   * heuristic {@link ColoringStrategy} and may not be optimal.
    */
   private final HashMap<Integer, Set<Node>> groups;
 
+  /** Nodes of the latest call to {@link #findGroups}, indexed by {@link Node#id}. */
+  private List<Node> indexedNodes;
+
+  /** Offsets of adjacency lists of {@link #indexedNodes} in {@link #neighbors}. */
+  private int[] offsets;
+
+  /** Adjacency lists of {@link #indexedNodes} in compressed sparse row layout. */
+  private int[] neighbors;
+
   public ConflictGraph() {
     nodes = MultimapBuilder.hashKeys().arrayListValues().build();
     groups = new HashMap<>();
+    clearEdges();
   }
 
   /**
@@ -71,73 +84,99 @@ public class ConflictGraph {
   }
 
   /**
-   * Colors the graph based on edges, no two vertices which there is an edge connecting them will be
-   * in the same group. A greedy algorithm is used to find the solution.
+   * Colors the graph based on edges with {@link ColoringStrategy#GREEDY} strategy.
+   *
+   * @see #findGroups(ColoringStrategy, long)
    */
-  // TODO: Remove SuppressWarnings below later.
-  @SuppressWarnings("JdkObsolete")
   public void findGroups() {
+    findGroups(ColoringStrategy.GREEDY, 0);
+  }
+
+  /**
+   * Colors the graph based on edges, no two vertices which there is an edge connecting them will be
+   * in the same group. The given strategy is used to find the solution, which is optionally
+   * improved with iterated greedy passes within the given time limit.
+   *
+   * <p>Edges are computed from an inverted index of regions to the nodes potentially impacting
+   * them, where regions are interned to integer ids, instead of comparing regions of all pairs of
+   * nodes. Both the index and the adjacency lists are stored in primitive arrays in compressed
+   * sparse row layout, where neighbors of node {@code i} are stored in {@code
+   * neighbors[offsets[i] .. offsets[i + 1])}.
+   *
+   * @param strategy Coloring strategy.
+   * @param improvementTimeLimitMillis Time limit in milliseconds for improving the coloring with
+   *     {@link ColoringStrategy#improve}, no improvement is performed if not positive.
+   */
+  public void findGroups(ColoringStrategy strategy, long improvementTimeLimitMillis) {
     this.groups.clear();
-    Collection<Node> allNodes = nodes.values();
-    int counter = 0;
-    for (Node node : allNodes) {
-      node.id = counter++;
-    }
+    clearEdges();
+    List<Node> allNodes = new ArrayList<>(nodes.values());
     int size = allNodes.size();
-    LinkedList<Integer>[] adj = new LinkedList[size];
-    for (int i = 0; i < size; ++i) {
-      adj[i] = new LinkedList<>();
+    if (size == 0) {
+      return;
     }
+    for (int i = 0; i < size; i++) {
+      allNodes.get(i).id = i;
+    }
+    // Intern regions to ids and count the number of nodes of each region.
+    Map<Region, Integer> regionIds = new HashMap<>();
+    int[] regionCounts = new int[16];
     for (Node node : allNodes) {
-      for (Node other : allNodes) {
-        if (node.equals(other)) {
-          continue;
-        }
-        if (node.hasConflictInRegions(other)) {
-          adj[node.id].add(other.id);
+      for (Region region : node.regions) {
+        int id = regionIds.computeIfAbsent(region, r -> regionIds.size());
+        if (id == regionCounts.length) {
+          regionCounts = Arrays.copyOf(regionCounts, id * 2);
         }
+        regionCounts[id]++;
       }
     }
-    colorGraph(adj, allNodes);
-  }
-
-  /**
-   * Performs the actual coloring.
-   *
-   * @param adj Martic of adjancey.
-   * @param nodes Nodes in the graph.
-   */
-  private void colorGraph(LinkedList<Integer>[] adj, Collection<Node> nodes) {
-    int v = nodes.size();
-    List<Node> allNodes = new ArrayList<>(nodes);
-    int[] result = new int[v];
-    Arrays.fill(result, -1);
-    result[0] = 0;
-    boolean[] available = new boolean[v];
-    Arrays.fill(available, true);
-    for (int u = 1; u < v; u++) {
-      for (int i : adj[u]) {
-        if (result[i] != -1) {
-          available[result[i]] = false;
-        }
+    // Inverted index of region ids to node ids.
+    int regionSize = regionIds.size();
+    int[] regionOffsets = new int[regionSize + 1];
+    for (int r = 0; r < regionSize; r++) {
+      regionOffsets[r + 1] = regionOffsets[r] + regionCounts[r];
+    }
+    int[] regionMembers = new int[regionOffsets[regionSize]];
+    int[] cursor = Arrays.copyOf(regionOffsets, regionSize);
+    for (Node node : allNodes) {
+      for (Region region : node.regions) {
+        int id = regionIds.get(region);
+        regionMembers[cursor[id]++] = node.id;
       }
-      int cr;
-      for (cr = 0; cr < v; cr++) {
-        if (available[cr]) {
-          break;
+    }
+    // Adjacency, neighbors of each node are deduplicated with the last visiting node stamp.
+    int[] offsets = new int[size + 1];
+    int[] neighbors = new int[Math.max(16, regionMembers.length)];
+    int[] stamp = new int[size];
+    Arrays.fill(stamp, -1);
+    int edges = 0;
+    for (Node node : allNodes) {
+      stamp[node.id] = node.id;
+      for (Region region : node.regions) {
+        int id = regionIds.get(region);
+        for (int m = regionOffsets[id]; m < regionOffsets[id + 1]; m++) {
+          int other = regionMembers[m];
+          if (stamp[other] == node.id) {
+            continue;
+          }
+          stamp[other] = node.id;
+          if (edges == neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, edges * 2);
+          }
+          neighbors[edges++] = other;
         }
       }
-      result[u] = cr;
-      Arrays.fill(available, true);
+      offsets[node.id + 1] = edges;
     }
-    for (int i = 0; i < result.length; i++) {
-      if (!groups.containsKey(result[i])) {
-        Set<Node> newList = new HashSet<>();
-        newList.add(allNodes.get(i));
-        groups.put(result[i], newList);
-      } else {
-        groups.get(result[i]).add(allNodes.get(i));
-      }
+    this.indexedNodes = allNodes;
+    this.offsets = offsets;
+    this.neighbors = neighbors;
+    int[] colors = strategy.color(offsets, neighbors, size);
+    if (improvementTimeLimitMillis > 0) {
+      colors = ColoringStrategy.improve(colors, offsets, neighbors, improvementTimeLimitMillis);
+    }
+    for (int i = 0; i < size; i++) {
+      groups.computeIfAbsent(colors[i], k -> new HashSet<>()).add(allNodes.get(i));
     }
   }
 
@@ -150,6 +189,26 @@ public class ConflictGraph {
     return groups.values();
   }
 
+  /**
+   * Returns nodes connected to the given node by an edge, computed in the latest call to {@link
+   * #findGroups}.
+   *
+   * @param node Given node.
+   * @return Neighbors of the node.
+   * @throws IllegalArgumentException if the node was not in the graph in the latest call to {@link
+   *     #findGroups}.
+   */
+  public Set<Node> getNeighbors(Node node) {
+    Preconditions.checkArgument(
+        node.id >= 0 && node.id < indexedNodes.size() && indexedNodes.get(node.id) == node,
+        "Node is not in the graph when groups were computed: " + node);
+    Set<Node> ans = new HashSet<>();
+    for (int i = offsets[node.id]; i < offsets[node.id + 1]; i++) {
+      ans.add(indexedNodes.get(neighbors[i]));
+    }
+    return ans;
+  }
+
   /**
    * Returns all nodes values as stream.
    *
@@ -163,6 +222,14 @@ public class ConflictGraph {
   public void clear() {
     nodes.clear();
     groups.clear();
+    clearEdges();
+  }
+
+  /** Clears edges computed in the latest call to {@link #findGroups}. */
+  private void clearEdges() {
+    indexedNodes = Collections.emptyList();
+    offsets = new int[1];
+    neighbors = new int[0];
   }
 
   /**
@@ -24,6 +24,7 @@
 
 package edu.ucr.cs.riple.core.evaluators.graph.processors;
 
+import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.cache.downstream.DownstreamImpactCache;
 import edu.ucr.cs.riple.core.evaluators.graph.Node;
@@ -33,8 +34,14 @@ import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.index.Error;
 import edu.ucr.cs.riple.core.registries.index.ErrorStore;
 import edu.ucr.cs.riple.core.registries.index.Fix;
+import edu.ucr.cs.riple.core.registries.region.Region;
+import edu.ucr.cs.riple.injector.changes.AddAnnotation;
+import edu.ucr.cs.riple.injector.location.OnClass;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /** Base class for conflict graph processors. */
 public abstract class AbstractConflictGraphProcessor implements ConflictGraphProcessor {
@@ -77,4 +84,58 @@ public abstract class AbstractConflictGraphProcessor implements ConflictGraphPro
         .flatMap(Error::getResolvingFixesStream)
         .collect(Collectors.toSet());
   }
+
+  /**
+   * Reruns the compiler after injecting the given fixes for the given nodes. If incremental
+   * recompilation is activated, only source files containing the injected fixes and the potentially
+   * impacted regions of the nodes are passed as affected files to the compiler runner.
+   *
+   * @param fixes Injected fixes.
+   * @param nodes Nodes which the fixes are injected for.
+   */
+  protected void runCompiler(Set<Fix> fixes, Collection<Node> nodes) {
+    if (!context.config.incrementalRecompilation) {
+      compilerRunner.run();
+      return;
+    }
+    ImmutableSet.Builder<Path> affectedFiles = ImmutableSet.builder();
+    for (Fix fix : fixes) {
+      for (AddAnnotation change : fix.changes) {
+        if (change.getLocation().path == null) {
+          compilerRunner.run();
+          return;
+        }
+        affectedFiles.add(change.getLocation().path);
+      }
+    }
+    for (Node node : nodes) {
+      for (Region region : node.regions) {
+        Path path = getSourceFileOfClass(region.clazz);
+        if (path == null) {
+          // Source file of the region is unknown, the whole module should be rebuilt.
+          compilerRunner.run();
+          return;
+        }
+        affectedFiles.add(path);
+      }
+    }
+    compilerRunner.run(affectedFiles.build());
+  }
+
+  /**
+   * Returns the path to the source file containing the given class.
+   *
+   * @param clazz Flat name of the class.
+   * @return Path to the source file, or {@code null} if the class is not declared in the module.
+   */
+  @Nullable
+  private Path getSourceFileOfClass(String clazz) {
+    OnClass onClass = moduleInfo.getLocationOnClass(clazz);
+    if (onClass == null && clazz.contains("$")) {
+      // Nested, local and anonymous classes are declared in the source file of their top level
+      // class.
+      onClass = moduleInfo.getLocationOnClass(clazz.substring(0, clazz.indexOf('$')));
+    }
+    return onClass == null ? null : onClass.path;
+  }
 }
@@ -24,9 +24,33 @@
 
 package edu.ucr.cs.riple.core.evaluators.graph.processors;
 
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
+
 /** Interface for rerunning the analysis/compiler. */
 public interface CompilerRunner {
 
   /** Runs the analysis/compiler. */
   void run();
+
+  /**
+   * Runs the analysis/compiler on sources with changes which are reverted afterwards, e.g. fixes
+   * under evaluation. Implementations must not use outputs of this run as the base of later runs,
+   * by default the analysis/compiler is run as in {@link #run()}.
+   */
+  default void runOnTemporaryChanges() {
+    run();
+  }
+
+  /**
+   * Runs the analysis/compiler on sources with temporary changes, where changes since the latest
+   * full run can only affect the given source files. Implementations can choose to recompile only
+   * the given source files, by default the analysis/compiler is run as in {@link
+   * #runOnTemporaryChanges()}.
+   *
+   * @param affectedFiles Source files which can be affected by changes since the latest full run.
+   */
+  default void run(ImmutableSet<Path> affectedFiles) {
+    runOnTemporaryChanges();
+  }
 }
@@ -0,0 +1,395 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.evaluators.graph.processors;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.Context;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * {@link CompilerRunner} which compiles the target module inside the running JVM via {@link
+ * JavaCompiler} rather than launching the build command in a new process. The compiler, its file
+ * manager and the class loader used to load compiler plugins (e.g. Error Prone, NullAway and
+ * Annotator Scanner) are created once and reused for all builds, therefore loaded classes and the
+ * JIT state stay warm across builds.
+ *
+ * <p>Compilation arguments are read from a javac argument file which should contain the exact
+ * arguments used to compile the target module, including the class path, the processor path
+ * containing the plugins, the {@code -Xplugin:ErrorProne} flags and the source files. Similar to
+ * javac argument files, arguments are separated by whitespaces and can be quoted with single or
+ * double quotes.
+ *
+ * <p>If incremental recompilation is activated, builds which can only affect a known set of source
+ * files recompile only those files against the class output of the latest full build on the base
+ * state of sources. Class files of partial builds are written to a separate directory to keep the
+ * output of the full build intact, and errors of the partial build are merged with errors of the
+ * latest full build on the base state by the checker. Full builds on sources with temporary
+ * changes do not replace the base state.
+ */
+public class InProcessCompilerRunner implements CompilerRunner {
+
+  /** Diagnostic code of errors reported by Error Prone checkers, e.g. NullAway. */
+  private static final String CHECKER_ERROR_CODE = "compiler.err.error.prone";
+
+  /** Annotator context. */
+  private final Context context;
+
+  /** System java compiler. */
+  private final JavaCompiler compiler;
+
+  /** File manager shared across all compilation tasks. */
+  private final PluginCachingFileManager fileManager;
+
+  /** Compiler options, all arguments in the argument file except source files. */
+  private final ImmutableList<String> options;
+
+  /** Source files of the target module. */
+  private final ImmutableList<Path> sources;
+
+  /**
+   * Normalized absolute paths of source files of the target module, used to verify that affected
+   * files of partial builds belong to the target module.
+   */
+  private final ImmutableSet<Path> normalizedSources;
+
+  /**
+   * Compiler options for partial builds, compiling against the class output of the latest full
+   * build. Empty if incremental recompilation is not activated.
+   */
+  private final ImmutableList<String> partialBuildOptions;
+
+  /**
+   * True if a full build on the base state of sources is done since the creation of this runner,
+   * partial builds can only be done afterwards.
+   */
+  private boolean fullBuildDone;
+
+  /**
+   * Creates an in-process compiler runner for the given javac argument file.
+   *
+   * @param context Annotator context.
+   * @param argumentsFile Path to javac argument file.
+   */
+  public InProcessCompilerRunner(Context context, Path argumentsFile) {
+    this.context = context;
+    this.compiler = ToolProvider.getSystemJavaCompiler();
+    Preconditions.checkNotNull(
+        compiler,
+        "In-process compilation requires Annotator to run on a JDK, no system java compiler found.");
+    ImmutableList.Builder<String> optionsBuilder = ImmutableList.builder();
+    ImmutableList.Builder<Path> sourcesBuilder = ImmutableList.builder();
+    for (String argument : readArgumentsFile(argumentsFile)) {
+      Preconditions.checkArgument(
+          !argument.startsWith("@"),
+          "Nested argument files are not supported in: " + argumentsFile);
+      if (argument.endsWith(".java") && !argument.startsWith("-")) {
+        sourcesBuilder.add(Paths.get(argument));
+      } else {
+        optionsBuilder.add(argument);
+      }
+    }
+    this.options = optionsBuilder.build();
+    this.sources = sourcesBuilder.build();
+    this.normalizedSources =
+        sources.stream()
+            .map(path -> path.toAbsolutePath().normalize())
+            .collect(ImmutableSet.toImmutableSet());
+    this.partialBuildOptions =
+        context.config.incrementalRecompilation
+            ? computePartialBuildOptions(
+                options, context.config.globalDir.resolve("incremental"), argumentsFile)
+            : ImmutableList.of();
+    this.fullBuildDone = false;
+    this.fileManager =
+        new PluginCachingFileManager(
+            compiler.getStandardFileManager(null, null, Charset.defaultCharset()));
+  }
+
+  @Override
+  public void run() {
+    build(sources, options);
+    if (context.config.incrementalRecompilation) {
+      context.checker.saveFullBuildErrors(context.targetModuleInfo);
+      fullBuildDone = true;
+    }
+  }
+
+  @Override
+  public void runOnTemporaryChanges() {
+    build(sources, options);
+  }
+
+  @Override
+  public void run(ImmutableSet<Path> affectedFiles) {
+    if (!context.config.incrementalRecompilation
+        || !fullBuildDone
+        || !affectedFiles.stream()
+            .allMatch(path -> normalizedSources.contains(path.toAbsolutePath().normalize()))) {
+      runOnTemporaryChanges();
+      return;
+    }
+    if (!build(affectedFiles.asList(), partialBuildOptions)) {
+      // Errors of a failed partial build are not complete, e.g. compilation might stop before
+      // running checkers, the whole module is rebuilt instead.
+      runOnTemporaryChanges();
+      return;
+    }
+    context.checker.mergePartialBuildErrors(context.targetModuleInfo, affectedFiles);
+  }
+
+  /**
+   * Builds the given source files with the given options and logs the build time.
+   *
+   * @param files Source files to compile.
+   * @param compilerOptions Compiler options.
+   * @return true, if compilation finished without any error other than errors reported by checkers.
+   */
+  private boolean build(List<Path> files, List<String> compilerOptions) {
+    long timer = context.log.startTimer();
+    boolean success = compile(files, compilerOptions);
+    context.log.stopTimerAndCaptureBuildTime(timer);
+    context.log.incrementBuildRequest();
+    return success;
+  }
+
+  /**
+   * Compiles the given source files with the given options. Errors reported by checkers (e.g.
+   * NullAway) are expected and do not fail the compilation.
+   *
+   * @param files Source files to compile.
+   * @param compilerOptions Compiler options.
+   * @return true, if compilation finished without any error other than errors reported by checkers.
+   */
+  private boolean compile(List<Path> files, List<String> compilerOptions) {
+    PrintWriter out =
+        context.config.redirectBuildOutputToStdErr
+            ? new PrintWriter(System.err, true)
+            : new PrintWriter(Writer.nullWriter());
+    AtomicBoolean failed = new AtomicBoolean(false);
+    DiagnosticListener<JavaFileObject> listener =
+        diagnostic -> {
+          out.println(diagnostic);
+          if (diagnostic.getKind() == Diagnostic.Kind.ERROR
+              && !CHECKER_ERROR_CODE.equals(diagnostic.getCode())) {
+            failed.set(true);
+          }
+        };
+    Iterable<? extends JavaFileObject> units =
+        fileManager.standardFileManager.getJavaFileObjectsFromPaths(files);
+    try {
+      compiler.getTask(out, fileManager, listener, compilerOptions, null, units).call();
+      return !failed.get();
+    } catch (RuntimeException e) {
+      throw new RuntimeException("Exception happened in compiling target module in-process", e);
+    } finally {
+      try {
+        out.flush();
+        fileManager.flush();
+      } catch (IOException ignored) {
+        // Nothing left to flush.
+      }
+    }
+  }
+
+  /**
+   * Computes the compiler options for partial builds from the options of full builds. Class files
+   * and generated sources are redirected to the given directory and the class output of the full
+   * build is prepended to the class path, therefore, classes which are not recompiled are loaded
+   * from the class output of the latest full build.
+   *
+   * @param options Options of full builds.
+   * @param directory Directory to write outputs of partial builds.
+   * @param argumentsFile Path to javac argument file, used in error messages.
+   * @return Compiler options for partial builds.
+   */
+  private static ImmutableList<String> computePartialBuildOptions(
+      List<String> options, Path directory, Path argumentsFile) {
+    String classOutput = null;
+    for (int i = 0; i < options.size() - 1; i++) {
+      if (options.get(i).equals("-d")) {
+        classOutput = options.get(i + 1);
+      }
+    }
+    Preconditions.checkArgument(
+        classOutput != null,
+        "Incremental recompilation requires the class output directory (-d) in: " + argumentsFile);
+    Path classesDirectory = directory.resolve("classes");
+    Path sourcesDirectory = directory.resolve("sources");
+    try {
+      Files.createDirectories(classesDirectory);
+      Files.createDirectories(sourcesDirectory);
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Could not create output directories for incremental recompilation at: " + directory, e);
+    }
+    ImmutableList.Builder<String> builder = ImmutableList.builder();
+    boolean classPathSet = false;
+    for (int i = 0; i < options.size(); i++) {
+      String option = options.get(i);
+      builder.add(option);
+      if (i == options.size() - 1) {
+        break;
+      }
+      switch (option) {
+        case "-d":
+          builder.add(classesDirectory.toString());
+          i++;
+          break;
+        case "-s":
+          builder.add(sourcesDirectory.toString());
+          i++;
+          break;
+        case "-cp":
+        case "-classpath":
+        case "--class-path":
+          builder.add(classOutput + File.pathSeparator + options.get(i + 1));
+          classPathSet = true;
+          i++;
+          break;
+        default:
+          break;
+      }
+    }
+    if (!classPathSet) {
+      builder.add("-classpath", classOutput);
+    }
+    // Do not generate class files for implicitly loaded source files.
+    builder.add("-implicit:none");
+    return builder.build();
+  }
+
+  /**
+   * Reads the arguments in the given javac argument file. Arguments are separated by whitespaces,
+   * and parts of an argument can be enclosed in single or double quotes to include whitespaces.
+   * Within quotes, the backslash character escapes the following character.
+   *
+   * @param path Path to javac argument file.
+   * @return List of arguments.
+   */
+  public static List<String> readArgumentsFile(Path path) {
+    String content;
+    try {
+      content = Files.readString(path, Charset.defaultCharset());
+    } catch (IOException e) {
+      throw new RuntimeException("Exception happened in reading javac argument file: " + path, e);
+    }
+    List<String> arguments = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean inArgument = false;
+    char quote = 0;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        } else if (c == '\\' && i + 1 < content.length()) {
+          current.append(content.charAt(++i));
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+        inArgument = true;
+      } else if (Character.isWhitespace(c)) {
+        if (inArgument) {
+          arguments.add(current.toString());
+          current.setLength(0);
+          inArgument = false;
+        }
+      } else {
+        current.append(c);
+        inArgument = true;
+      }
+    }
+    Preconditions.checkArgument(quote == 0, "Unterminated quote in javac argument file: " + path);
+    if (inArgument) {
+      arguments.add(current.toString());
+    }
+    return arguments;
+  }
+
+  /**
+   * File manager which reuses the class loader of {@link
+   * StandardLocation#ANNOTATION_PROCESSOR_PATH} across compilation tasks, so compiler plugins are
+   * loaded once and stay warm. The class loader is recreated only if the processor path changes.
+   */
+  private static class PluginCachingFileManager
+      extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    /** Underlying standard file manager. */
+    private final StandardJavaFileManager standardFileManager;
+
+    /** Cached class loader for the processor path. */
+    private ClassLoader processorClassLoader;
+
+    /** Processor path which the cached class loader is created for. */
+    private List<File> processorPath;
+
+    private PluginCachingFileManager(StandardJavaFileManager fileManager) {
+      super(fileManager);
+      this.standardFileManager = fileManager;
+    }
+
+    @Override
+    public ClassLoader getClassLoader(JavaFileManager.Location location) {
+      if (!StandardLocation.ANNOTATION_PROCESSOR_PATH.equals(location)) {
+        return super.getClassLoader(location);
+      }
+      Iterable<? extends File> path = standardFileManager.getLocation(location);
+      if (path == null) {
+        return super.getClassLoader(location);
+      }
+      List<File> files = ImmutableList.copyOf(path);
+      if (processorClassLoader == null || !files.equals(processorPath)) {
+        processorClassLoader = super.getClassLoader(location);
+        processorPath = files;
+      }
+      // javac closes the processor class loader at the end of each task if it is closeable, the
+      // cached loader is wrapped to survive across tasks.
+      return new ClassLoader(processorClassLoader) {};
+    }
+  }
+}
@@ -24,26 +24,34 @@
 
 package edu.ucr.cs.riple.core.evaluators.graph.processors;
 
+import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.evaluators.graph.ConflictGraph;
 import edu.ucr.cs.riple.core.evaluators.graph.Node;
 import edu.ucr.cs.riple.core.evaluators.suppliers.Supplier;
 import edu.ucr.cs.riple.core.registries.index.Error;
 import edu.ucr.cs.riple.core.registries.index.Fix;
+import edu.ucr.cs.riple.core.registries.index.Index;
 import edu.ucr.cs.riple.core.registries.index.Result;
 import edu.ucr.cs.riple.core.registries.region.Region;
 import edu.ucr.cs.riple.core.registries.region.RegionRegistry;
 import edu.ucr.cs.riple.core.util.Utility;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import me.tongfei.progressbar.ProgressBar;
 
 /**
  * Parallel processor which computes the impact of nodes in parallel. In this processor,
  * non-conflicting nodes are processed simultaneously. The conflict graph will be used to determine
- * the minimum number of non-conflicting groups using graph coloring techniques.
+ * the minimum number of non-conflicting groups using graph coloring techniques. If workspaces are
+ * used, groups are also evaluated concurrently in isolated workspaces of {@link
+ * Context#getWorkspacePool()}, except groups with changes on files outside the worker source root
+ * which are evaluated on the module sources.
  */
 public class ParallelConflictGraphProcessor extends AbstractConflictGraphProcessor {
 
@@ -53,49 +61,109 @@ public class ParallelConflictGraphProcessor extends AbstractConflictGraphProcess
    */
   private final RegionRegistry regionRegistry;
 
+  /**
+   * If true, groups are evaluated concurrently in workspaces, otherwise groups are evaluated one
+   * after another on the module sources.
+   */
+  private final boolean useWorkspaces;
+
   public ParallelConflictGraphProcessor(Context context, CompilerRunner runner, Supplier supplier) {
+    this(context, runner, supplier, false);
+  }
+
+  public ParallelConflictGraphProcessor(
+      Context context, CompilerRunner runner, Supplier supplier, boolean useWorkspaces) {
     super(context, runner, supplier);
     this.regionRegistry = supplier.getModuleInfo().getRegionRegistry();
+    this.useWorkspaces = useWorkspaces;
   }
 
   @Override
   public void process(ConflictGraph graph) {
     graph.getNodes().forEach(node -> node.reCollectPotentiallyImpactedRegions(regionRegistry));
     // find non-conflicting groups.
-    graph.findGroups();
+    graph.findGroups(
+        context.config.coloringStrategy, context.config.coloringImprovementTimeLimit);
     Collection<Set<Node>> nonConflictingGroups = graph.getGroups();
     System.out.println(
         "Scheduling for: "
             + nonConflictingGroups.size()
             + " builds for: "
             + graph.getNodes().count()
-            + " fixes");
+            + " fixes (coloring strategy: "
+            + context.config.coloringStrategy.name().toLowerCase()
+            + ")");
+    context.log.updateGroupNumber(nonConflictingGroups.size());
     ProgressBar pb = Utility.createProgressBar("Processing", nonConflictingGroups.size());
-    for (Set<Node> group : nonConflictingGroups) {
+    Collection<Set<Node>> inPlaceGroups = nonConflictingGroups;
+    if (useWorkspaces && !nonConflictingGroups.isEmpty()) {
+      WorkspacePool workspacePool = context.getWorkspacePool();
+      // Groups with changes on files outside the worker source root cannot be applied in
+      // isolation, they are evaluated on the module sources after the other groups.
+      Map<Boolean, List<Set<Node>>> partitions =
+          nonConflictingGroups.stream()
+              .collect(
+                  Collectors.partitioningBy(group -> workspacePool.canEvaluate(getFixes(group))));
+      inPlaceGroups = partitions.get(false);
+      workspacePool.evaluate(
+          partitions.get(true),
+          ParallelConflictGraphProcessor::getFixes,
+          (group, errors) -> {
+            pb.step();
+            Index state = errorStore.createState(errors);
+            updateStatus(group, region -> errorStore.compareByRegion(state, region));
+          });
+    }
+    for (Set<Node> group : inPlaceGroups) {
       pb.step();
-      Set<Fix> fixes =
-          group.stream().flatMap(node -> node.tree.stream()).collect(Collectors.toSet());
+      Set<Fix> fixes = getFixes(group);
       injector.injectFixes(fixes);
-      compilerRunner.run();
-      errorStore.saveState();
-      group.forEach(
-          node -> {
-            int localEffect = 0;
-            Set<Error> triggeredErrors = new HashSet<>();
-            for (Region region : node.regions) {
-              Result errorComparisonResult = errorStore.compareByRegion(region);
-              localEffect += errorComparisonResult.size;
-              triggeredErrors.addAll(errorComparisonResult.dif);
-            }
-            node.updateStatus(
-                localEffect,
-                fixes,
-                getTriggeredFixesFromDownstreamErrors(node),
-                triggeredErrors,
-                moduleInfo);
-          });
+      runCompiler(fixes, group);
+      // Only regions of the nodes in the group are queried.
+      errorStore.saveState(
+          group.stream()
+              .flatMap(node -> node.regions.stream())
+              .collect(ImmutableSet.toImmutableSet()));
+      updateStatus(group, errorStore::compareByRegion);
       injector.removeFixes(fixes);
     }
     pb.close();
   }
+
+  /**
+   * Returns all fixes of the nodes in the given group.
+   *
+   * @param group Group of nodes.
+   * @return Set of fixes.
+   */
+  private static Set<Fix> getFixes(Set<Node> group) {
+    return group.stream().flatMap(node -> node.tree.stream()).collect(Collectors.toSet());
+  }
+
+  /**
+   * Updates the status of the nodes in the given group after the fixes of the group are evaluated.
+   *
+   * @param group Evaluated group of nodes.
+   * @param comparator Function which computes the difference of errors in a region with the root
+   *     state after injecting the fixes of the group.
+   */
+  private void updateStatus(Set<Node> group, Function<Region, Result> comparator) {
+    Set<Fix> fixes = getFixes(group);
+    group.forEach(
+        node -> {
+          int localEffect = 0;
+          Set<Error> triggeredErrors = new HashSet<>();
+          for (Region region : node.regions) {
+            Result errorComparisonResult = comparator.apply(region);
+            localEffect += errorComparisonResult.size;
+            triggeredErrors.addAll(errorComparisonResult.dif);
+          }
+          node.updateStatus(
+              localEffect,
+              fixes,
+              getTriggeredFixesFromDownstreamErrors(node),
+              triggeredErrors,
+              moduleInfo);
+        });
+  }
 }
@@ -0,0 +1,344 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.evaluators.graph.processors;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.Context;
+import edu.ucr.cs.riple.core.module.ModuleConfiguration;
+import edu.ucr.cs.riple.core.registries.index.Error;
+import edu.ucr.cs.riple.core.registries.index.Fix;
+import edu.ucr.cs.riple.core.util.Utility;
+import edu.ucr.cs.riple.injector.Injector;
+import edu.ucr.cs.riple.injector.changes.AddAnnotation;
+import edu.ucr.cs.riple.injector.changes.RemoveAnnotation;
+import edu.ucr.cs.riple.injector.offsets.FileOffsetStore;
+import edu.ucr.cs.riple.injector.util.FileUtils;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * An isolated copy of the target module sources. Groups of fixes are injected and evaluated on the
+ * copy, therefore multiple workspaces can evaluate groups concurrently without interfering with
+ * each other or with the original sources. Each workspace has its own checker output directory and
+ * its own {@link Context.OffsetHandler}.
+ *
+ * <p>Source files are hard linked rather than copied, since the injector replaces modified files
+ * instead of rewriting them in place, changes on a source file are not visible in the other links
+ * (see {@link FileUtils#replace(Path, byte[])}). Other files are copied, and version control
+ * metadata and build outputs are skipped. Paths in the checker output are mapped back to the
+ * original sources, so that reported errors are identical to errors reported by a build on the
+ * original sources.
+ */
+public class Workspace {
+
+  /** Names of directories which are not copied into workspaces. */
+  private static final ImmutableSet<String> SKIPPED_DIRECTORIES =
+      ImmutableSet.of(".git", ".hg", ".svn", ".gradle");
+
+  /** Names of build output directories, skipped if located next to a build file. */
+  private static final ImmutableSet<String> BUILD_OUTPUT_DIRECTORIES =
+      ImmutableSet.of("build", "target");
+
+  /** Names of build files of supported build tools. */
+  private static final ImmutableSet<String> BUILD_FILES =
+      ImmutableSet.of("build.gradle", "build.gradle.kts", "pom.xml");
+
+  /** Annotator context. */
+  private final Context context;
+
+  /** Root of the original sources. */
+  private final Path sourceRoot;
+
+  /** Root of the copy of the sources. */
+  private final Path root;
+
+  /** Configuration of the target module in this workspace. */
+  private final ModuleConfiguration configuration;
+
+  /** Command to build the target module in this workspace. */
+  private final String buildCommand;
+
+  /** Injector which applies changes on the copy of the sources. */
+  private final Injector injector;
+
+  /** Number of builds of the target module in this workspace. */
+  private final AtomicLong builds;
+
+  /**
+   * Set of original source files which their copy is modified by this workspace since the latest
+   * synchronization.
+   */
+  private final Set<Path> modifiedFiles;
+
+  /**
+   * Handler for offset changes made on the copy of the sources. Offset changes are stored with the
+   * path to the original source file.
+   */
+  private Context.OffsetHandler offsetHandler;
+
+  /**
+   * Creates a workspace in the given directory and links the target module sources into it.
+   *
+   * @param context Annotator context.
+   * @param directory Directory of the workspace, must not exist.
+   */
+  public Workspace(Context context, Path directory) {
+    this.context = context;
+    this.sourceRoot = context.config.workerSourceRoot.toAbsolutePath().normalize();
+    this.root = directory.resolve("workspace").toAbsolutePath().normalize();
+    this.configuration =
+        new ModuleConfiguration(
+            0,
+            directory,
+            directory.resolve("checker.xml"),
+            context.targetConfiguration.scannerConfig);
+    this.buildCommand =
+        context
+            .config
+            .workerBuildCommand
+            .replace("%WORKSPACE%", root.toString())
+            .replace("%CHECKER_CONFIG%", configuration.checkerConfig.toString())
+            .replace("%SCANNER_CONFIG%", configuration.scannerConfig.toString());
+    this.builds = new AtomicLong();
+    this.injector =
+        new Injector(
+            context.config.languageLevel,
+            this::toWorkspacePath,
+            context.parserCache,
+            builds::get);
+    this.modifiedFiles = new HashSet<>();
+    this.offsetHandler = context.offsetHandler.copy();
+    copySources(directory.toAbsolutePath().normalize());
+    context.checker.prepareConfigFilesForBuild(ImmutableSet.of(configuration));
+  }
+
+  /**
+   * Links the original sources into the workspace, see {@link #link(Path, Path)}.
+   *
+   * @param directory Directory of the workspace, excluded from the copy if it is located inside
+   *     the source root.
+   */
+  private void copySources(Path directory) {
+    Path outputDirectory = context.config.globalDir.toAbsolutePath().normalize();
+    try {
+      Files.walkFileTree(
+          sourceRoot,
+          new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                throws IOException {
+              if (dir.equals(outputDirectory) || dir.equals(directory) || isSkipped(dir)) {
+                return FileVisitResult.SKIP_SUBTREE;
+              }
+              Files.createDirectories(root.resolve(sourceRoot.relativize(dir)));
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                throws IOException {
+              link(file, root.resolve(sourceRoot.relativize(file)));
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      throw new RuntimeException("Could not copy sources at " + sourceRoot + " to: " + root, e);
+    }
+  }
+
+  /**
+   * Checks if the given directory is not copied into workspaces, e.g. version control metadata or
+   * build outputs.
+   *
+   * @param directory Directory in the source root.
+   * @return true, if the directory is skipped.
+   */
+  private static boolean isSkipped(Path directory) {
+    String name = directory.getFileName().toString();
+    if (SKIPPED_DIRECTORIES.contains(name)) {
+      return true;
+    }
+    return BUILD_OUTPUT_DIRECTORIES.contains(name)
+        && BUILD_FILES.stream().anyMatch(file -> Files.exists(directory.resolveSibling(file)));
+  }
+
+  /**
+   * Creates the copy of the given original file in the workspace. Java source files are hard
+   * linked to the original files, other files and source files which cannot be hard linked (e.g.
+   * on a different file store) are copied.
+   *
+   * @param file Original file.
+   * @param copy Path to the copy in the workspace, must not exist.
+   * @throws IOException if the file cannot be copied.
+   */
+  private static void link(Path file, Path copy) throws IOException {
+    if (file.getFileName().toString().endsWith(".java")) {
+      try {
+        Files.createLink(copy, file);
+        return;
+      } catch (IOException | UnsupportedOperationException e) {
+        // Copied instead.
+      }
+    }
+    Files.copy(file, copy, StandardCopyOption.COPY_ATTRIBUTES);
+  }
+
+  /**
+   * Synchronizes the workspace with the original sources. Copies of all files modified in the
+   * original sources or in this workspace are linked to the original files again and the offset
+   * handler is replaced with a copy of the offset handler of the original sources. Must not be
+   * called while the workspace is evaluating fixes.
+   */
+  public void synchronize() {
+    Set<Path> files = new HashSet<>(modifiedFiles);
+    files.addAll(context.offsetHandler.getModifiedFiles());
+    for (Path file : files) {
+      if (!isInSourceRoot(file)) {
+        continue;
+      }
+      try {
+        Path copy = toWorkspacePath(file);
+        Files.deleteIfExists(copy);
+        link(file, copy);
+      } catch (IOException e) {
+        throw new RuntimeException("Could not synchronize workspace file with: " + file, e);
+      }
+    }
+    modifiedFiles.clear();
+    offsetHandler = context.offsetHandler.copy();
+  }
+
+  /**
+   * Checks if all changes of the given fixes are on files located in the source root, only such
+   * fixes can be evaluated in a workspace.
+   *
+   * @param fixes Fixes to check.
+   * @return true, if the given fixes can be evaluated in a workspace.
+   */
+  public boolean canEvaluate(Set<Fix> fixes) {
+    return fixes.stream()
+        .flatMap(fix -> fix.changes.stream())
+        .allMatch(change -> isInSourceRoot(change.getLocation().path));
+  }
+
+  /**
+   * Injects the given fixes, builds the target module and removes the fixes from the workspace.
+   * All changes must be on files located in the source root (see {@link #canEvaluate(Set)}), since
+   * changes on other files cannot be applied in isolation.
+   *
+   * @param fixes Fixes to evaluate.
+   * @return Errors reported by the checker after injecting the fixes.
+   * @throws IllegalArgumentException if a change is on a file outside the source root.
+   */
+  public Set<? extends Error> evaluate(Set<Fix> fixes) {
+    Set<AddAnnotation> changes =
+        fixes.stream().flatMap(fix -> fix.changes.stream()).collect(Collectors.toSet());
+    changes.forEach(
+        change ->
+            Preconditions.checkArgument(
+                isInSourceRoot(change.getLocation().path),
+                "Cannot evaluate change on a file outside the worker source root %s: %s",
+                sourceRoot,
+                change.getLocation().path));
+    updateOffsets(injector.addAnnotations(changes));
+    build();
+    Set<? extends Error> errors =
+        context.checker.deserializeErrors(
+            context.targetModuleInfo, configuration.dir, offsetHandler, this::toSourcePath);
+    Set<RemoveAnnotation> reverse =
+        changes.stream().map(AddAnnotation::getReverse).collect(Collectors.toSet());
+    updateOffsets(injector.removeAnnotations(reverse));
+    return errors;
+  }
+
+  /** Builds the target module in this workspace. */
+  private void build() {
+    long timer = context.log.startTimer();
+    Utility.executeCommand(context.config, buildCommand);
+    builds.incrementAndGet();
+    context.log.stopTimerAndCaptureBuildTime(timer);
+    context.log.incrementBuildRequest();
+  }
+
+  /**
+   * Updates the offset handler of this workspace with the given offset changes made on copies of
+   * the source files.
+   *
+   * @param offsetStores Offset changes made by the injector.
+   */
+  private void updateOffsets(Set<FileOffsetStore> offsetStores) {
+    Set<FileOffsetStore> stores =
+        offsetStores.stream()
+            .map(store -> store.copy(toSourcePath(store.getPath())))
+            .collect(Collectors.toSet());
+    stores.forEach(store -> modifiedFiles.add(store.getPath()));
+    offsetHandler.updateStateWithRecentChanges(stores);
+  }
+
+  /**
+   * Checks if the given path is located in the source root.
+   *
+   * @param path Path to a source file, can be {@code null}.
+   * @return true, if the path is not {@code null} and is located in the source root.
+   */
+  private boolean isInSourceRoot(Path path) {
+    return path != null && path.toAbsolutePath().normalize().startsWith(sourceRoot);
+  }
+
+  /**
+   * Returns the path to the copy of the given original source file.
+   *
+   * @param path Path to a source file located in the source root.
+   * @return Path to the copy of the file in this workspace.
+   */
+  private Path toWorkspacePath(Path path) {
+    return root.resolve(sourceRoot.relativize(path.toAbsolutePath().normalize()));
+  }
+
+  /**
+   * Returns the path to the original source file of the given path. Paths outside this workspace
+   * are returned unchanged.
+   *
+   * @param path Path to a file.
+   * @return Path to the original source file.
+   */
+  private Path toSourcePath(Path path) {
+    Path normalized = path.toAbsolutePath().normalize();
+    if (!normalized.startsWith(root)) {
+      return path;
+    }
+    return sourceRoot.resolve(root.relativize(normalized));
+  }
+}
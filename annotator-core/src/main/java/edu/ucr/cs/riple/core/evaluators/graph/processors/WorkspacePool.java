@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.evaluators.graph.processors;
+
+import com.google.common.collect.ImmutableList;
+import edu.ucr.cs.riple.core.Context;
+import edu.ucr.cs.riple.core.registries.index.Error;
+import edu.ucr.cs.riple.core.registries.index.Fix;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Pool of {@link Workspace} instances to evaluate non-conflicting groups of fixes concurrently.
+ * Each group is handed to a free workspace, and the outcome of each evaluation is passed back to
+ * the calling thread, where the status of nodes can be updated without synchronization.
+ */
+public class WorkspacePool {
+
+  /** Annotator context. */
+  private final Context context;
+
+  /** Workspaces of this pool. */
+  private final ImmutableList<Workspace> workspaces;
+
+  /**
+   * Creates a pool with {@link edu.ucr.cs.riple.core.Config#parallelWorkers} workspaces located in
+   * the {@code workers} directory of the output directory.
+   *
+   * @param context Annotator context.
+   */
+  public WorkspacePool(Context context) {
+    this.context = context;
+    Path directory = context.config.globalDir.resolve("workers");
+    deleteDirectory(directory);
+    this.workspaces =
+        IntStream.range(0, context.config.parallelWorkers)
+            .mapToObj(i -> new Workspace(context, directory.resolve(String.valueOf(i))))
+            .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * Checks if the given fixes can be evaluated in the workspaces of this pool. Fixes with changes
+   * on files outside the worker source root must be evaluated on the module sources instead.
+   *
+   * @param fixes Fixes to check.
+   * @return true, if the given fixes can be evaluated in the workspaces of this pool.
+   */
+  public boolean canEvaluate(Set<Fix> fixes) {
+    return workspaces.get(0).canEvaluate(fixes);
+  }
+
+  /**
+   * Evaluates the given groups concurrently. Workspaces are synchronized with the original sources
+   * before evaluation. The given consumer is invoked on the calling thread for each group with the
+   * errors reported after injecting the fixes of the group, in the order evaluations finish. Fixes
+   * of all groups must pass {@link #canEvaluate(Set)}. Build times of the workspaces are summed in
+   * the build time of the log, the wall-clock time of the evaluation is logged separately.
+   *
+   * @param groups Groups to evaluate.
+   * @param fixesOfGroup Function to compute the fixes of a group.
+   * @param consumer Consumer of the errors reported for each group.
+   * @param <T> Type of groups.
+   */
+  public <T> void evaluate(
+      Collection<T> groups,
+      Function<T, Set<Fix>> fixesOfGroup,
+      BiConsumer<T, Set<? extends Error>> consumer) {
+    long timer = context.log.startTimer();
+    workspaces.forEach(Workspace::synchronize);
+    BlockingQueue<Workspace> available = new LinkedBlockingQueue<>(workspaces);
+    ExecutorService executor = Executors.newFixedThreadPool(workspaces.size());
+    CompletionService<Map.Entry<T, Set<? extends Error>>> service =
+        new ExecutorCompletionService<>(executor);
+    try {
+      for (T group : groups) {
+        Set<Fix> fixes = fixesOfGroup.apply(group);
+        service.submit(
+            () -> {
+              Workspace workspace = available.take();
+              try {
+                return Map.entry(group, workspace.evaluate(fixes));
+              } finally {
+                available.put(workspace);
+              }
+            });
+      }
+      for (int i = 0; i < groups.size(); i++) {
+        Map.Entry<T, Set<? extends Error>> result = service.take().get();
+        consumer.accept(result.getKey(), result.getValue());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while evaluating fixes in workspaces", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Exception happened in evaluating fixes in a workspace", e);
+    } finally {
+      executor.shutdownNow();
+      context.log.stopTimerAndCaptureParallelEvaluationTime(timer);
+    }
+  }
+
+  /**
+   * Deletes the given directory and all its contents if exists.
+   *
+   * @param directory Directory to delete.
+   */
+  private static void deleteDirectory(Path directory) {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Could not delete directory: " + directory, e);
+    }
+  }
+}
@@ -24,6 +24,7 @@
 
 package edu.ucr.cs.riple.core.evaluators.suppliers;
 
+import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.cache.TargetModuleCache;
 import edu.ucr.cs.riple.core.cache.downstream.DownstreamImpactCache;
@@ -35,6 +36,7 @@ import edu.ucr.cs.riple.core.injectors.AnnotationInjector;
 import edu.ucr.cs.riple.core.injectors.PhysicalInjector;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.util.Utility;
+import java.nio.file.Path;
 
 /**
  * Supplier for target module analysis. It has the following characteristics:
@@ -83,9 +85,22 @@ public class TargetModuleSupplier extends AbstractSupplier {
 
   @Override
   public ConflictGraphProcessor getGraphProcessor() {
-    CompilerRunner runner = () -> Utility.buildTarget(context);
+    CompilerRunner runner =
+        new CompilerRunner() {
+          @Override
+          public void run() {
+            // Fixes under evaluation are injected, the build must not be used as a base state.
+            Utility.buildTargetWithTemporaryChanges(context);
+          }
+
+          @Override
+          public void run(ImmutableSet<Path> affectedFiles) {
+            Utility.buildTarget(context, affectedFiles);
+          }
+        };
     if (context.config.useParallelGraphProcessor) {
-      return new ParallelConflictGraphProcessor(context, runner, this);
+      return new ParallelConflictGraphProcessor(
+          context, runner, this, context.config.parallelWorkers > 1);
     }
     return new SequentialConflictGraphProcessor(context, runner, this);
   }
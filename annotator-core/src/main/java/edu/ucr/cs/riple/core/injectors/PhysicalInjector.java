@@ -24,17 +24,40 @@
 
 package edu.ucr.cs.riple.core.injectors;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.injector.Injector;
 import edu.ucr.cs.riple.injector.changes.AddAnnotation;
 import edu.ucr.cs.riple.injector.changes.RemoveAnnotation;
 import edu.ucr.cs.riple.injector.offsets.FileOffsetStore;
+import edu.ucr.cs.riple.injector.util.FileUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
 
-/** Wrapper tool used to inject annotations Physically to the source code. */
+/**
+ * Wrapper tool used to inject annotations Physically to the source code. The state of the files
+ * modified by the latest injection is recorded, so that removing the same annotations right after
+ * (e.g. after building the target module with a group of fixes) restores the files and their
+ * offset changes directly, without parsing the files and locating the annotated elements again.
+ */
 public class PhysicalInjector extends AnnotationInjector {
   private final Injector injector;
 
+  /** Record of the latest injection, {@code null} if it cannot be undone by restoring files. */
+  @Nullable private Injection latest;
+
   /**
    * Creates a new PhysicalInjector instance.
    *
@@ -44,18 +67,185 @@ public class PhysicalInjector extends AnnotationInjector {
    */
   public PhysicalInjector(Context context) {
     super(context);
-    this.injector = new Injector(context.config.languageLevel);
+    this.injector =
+        new Injector(
+            context.config.languageLevel,
+            UnaryOperator.identity(),
+            context.parserCache,
+            context::getBuildSequence);
   }
 
   @Override
   public void removeAnnotations(Set<RemoveAnnotation> changes) {
-    Set<FileOffsetStore> offsetStores = injector.removeAnnotations(changes);
-    context.offsetHandler.updateStateWithRecentChanges(offsetStores);
+    Injection injection = latest;
+    latest = null;
+    if (injection == null || !injection.reverse.equals(changes) || !injection.undo()) {
+      Set<FileOffsetStore> offsetStores = injector.removeAnnotations(changes);
+      context.offsetHandler.updateStateWithRecentChanges(offsetStores);
+    }
+    if (context.buildCache != null) {
+      context.buildCache.recordRemovedChanges(changes);
+    }
   }
 
   @Override
   public void injectAnnotations(Set<AddAnnotation> changes) {
-    Set<FileOffsetStore> offsetStores = injector.addAnnotations(changes);
+    Injection injection = Injection.before(changes, context);
+    Set<Path> irreversibleFiles = new HashSet<>();
+    Set<FileOffsetStore> offsetStores = injector.addAnnotations(changes, irreversibleFiles);
     context.offsetHandler.updateStateWithRecentChanges(offsetStores);
+    latest =
+        injection == null || !irreversibleFiles.isEmpty() ? null : injection.after(offsetStores);
+    if (context.buildCache != null) {
+      context.buildCache.recordInjectedChanges(changes);
+    }
+  }
+
+  /**
+   * Record of an injection, holding the contents and the offset changes of the modified files
+   * before the injection. Undoing the injection restores them, which is the exact inverse of all
+   * text edits made by the injection. An injection is kept only if the injector reports that
+   * removing the injected changes would restore the files exactly as well, i.e. no import is added
+   * and every change adds an annotation, so both ways of removing the changes leave the source code
+   * in the same state.
+   */
+  private static class Injection {
+
+    /** Reverse of the injected changes. */
+    private final ImmutableSet<RemoveAnnotation> reverse;
+
+    /** Contents of the files before the injection. */
+    private final Map<Path, byte[]> contents;
+
+    /** Last modified times of the files before the injection. */
+    private final Map<Path, FileTime> times;
+
+    /** Copies of offset stores of the files before the injection. */
+    private final Map<Path, FileOffsetStore> offsetStores;
+
+    /** Annotator context. */
+    private final Context context;
+
+    /** Number of builds of the target module before the injection. */
+    private final long buildSequence;
+
+    /** Hashes of contents of the files right after the injection. */
+    private ImmutableMap<Path, HashCode> hashes;
+
+    private Injection(
+        ImmutableSet<RemoveAnnotation> reverse,
+        Map<Path, byte[]> contents,
+        Map<Path, FileTime> times,
+        Context context) {
+      this.reverse = reverse;
+      this.contents = contents;
+      this.times = times;
+      this.context = context;
+      this.buildSequence = context.getBuildSequence();
+      this.offsetStores = context.offsetHandler.getOffsetStores(contents.keySet());
+    }
+
+    /**
+     * Records the state of the files targeted by the given changes before they are injected.
+     *
+     * @param changes Changes to inject.
+     * @param context Annotator context.
+     * @return Record of the injection, or {@code null} if the changes cannot be reversed by
+     *     restoring the files.
+     */
+    @Nullable
+    static Injection before(Set<AddAnnotation> changes, Context context) {
+      ImmutableSet<RemoveAnnotation> reverse;
+      try {
+        reverse =
+            changes.stream()
+                .map(AddAnnotation::getReverse)
+                .collect(ImmutableSet.toImmutableSet());
+      } catch (UnsupportedOperationException e) {
+        return null;
+      }
+      Map<Path, byte[]> contents = new HashMap<>();
+      Map<Path, FileTime> times = new HashMap<>();
+      try {
+        for (AddAnnotation change : changes) {
+          Path path = change.getLocation().path;
+          if (path != null && !contents.containsKey(path) && Files.isRegularFile(path)) {
+            contents.put(path, Files.readAllBytes(path));
+            times.put(path, Files.getLastModifiedTime(path));
+          }
+        }
+      } catch (IOException e) {
+        return null;
+      }
+      return new Injection(reverse, contents, times, context);
+    }
+
+    /**
+     * Completes the record after the injection by recording the contents of the modified files.
+     *
+     * @param modified Offset stores of the files modified by the injection.
+     * @return This record, or {@code null} if the modified files cannot be read.
+     */
+    @Nullable
+    Injection after(Set<FileOffsetStore> modified) {
+      ImmutableMap.Builder<Path, HashCode> builder = ImmutableMap.builder();
+      for (FileOffsetStore store : modified) {
+        Path path = store.getPath();
+        HashCode hash = hash(path);
+        if (hash == null || !contents.containsKey(path)) {
+          return null;
+        }
+        builder.put(path, hash);
+      }
+      this.hashes = builder.build();
+      // Files which are not modified are not restored.
+      contents.keySet().retainAll(hashes.keySet());
+      return this;
+    }
+
+    /**
+     * Restores the files and their offset changes to their state before the injection. Files are
+     * restored only if none of them is modified since the injection. Last modified times are
+     * restored only if the target module is not built since the injection, otherwise build tools
+     * checking modification times would consider outputs of the modified files up to date.
+     *
+     * @return true, if the files are restored.
+     */
+    boolean undo() {
+      for (Map.Entry<Path, HashCode> entry : hashes.entrySet()) {
+        if (!Objects.equals(hash(entry.getKey()), entry.getValue())) {
+          return false;
+        }
+      }
+      boolean built = context.getBuildSequence() != buildSequence;
+      try {
+        for (Map.Entry<Path, byte[]> entry : contents.entrySet()) {
+          FileUtils.replace(entry.getKey(), entry.getValue());
+          if (!built) {
+            // Build tools checking modification times should consider the file unchanged.
+            Files.setLastModifiedTime(entry.getKey(), times.get(entry.getKey()));
+          }
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Error happened while restoring files: " + contents.keySet(), e);
+      }
+      context.offsetHandler.restoreOffsetStores(contents.keySet(), offsetStores);
+      return true;
+    }
+
+    /**
+     * Computes the hash of the content of the given file.
+     *
+     * @param path Path to the file.
+     * @return Hash of the content, or {@code null} if the file cannot be read.
+     */
+    @Nullable
+    private static HashCode hash(Path path) {
+      try {
+        return Hashing.sha256().hashBytes(Files.readAllBytes(path));
+      } catch (IOException e) {
+        return null;
+      }
+    }
   }
 }
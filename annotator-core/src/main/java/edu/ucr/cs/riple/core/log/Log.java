@@ -36,15 +36,36 @@ public class Log {
   /** Sum of number of nodes constructed in each {@link ConflictGraph}. */
   private long nodes;
 
+  /** Sum of number of groups computed by coloring each {@link ConflictGraph}. */
+  private long groups;
+
   /** Number of build requests. */
   private long requested;
 
   /** Total time spent for annotator from start to finish. */
   private long totalTime;
 
-  /** Total time spent in building targets. */
+  /**
+   * Total time spent in building targets. Builds of parallel workers overlap, their times are
+   * summed.
+   */
   private long buildTime = 0;
 
+  /** Total wall-clock time spent in evaluating groups of fixes in workspaces of workers. */
+  private long parallelEvaluationTime;
+
+  /** Number of target builds skipped by restoring outputs from the build cache. */
+  private long buildCacheHits;
+
+  /** Number of target builds performed as their outputs were not in the build cache. */
+  private long buildCacheMisses;
+
+  /** Number of source files parsed by JavaParser. */
+  private long parses;
+
+  /** Number of requests to parse a source file served by the parser cache. */
+  private long parserCacheHits;
+
   /**
    * Set of approved and injected annotations. These annotations are evaluated and approved and will
    * not get removed from the source code.
@@ -58,9 +79,15 @@ public class Log {
   /** Resets all log information. */
   public void reset() {
     this.nodes = 0;
+    this.groups = 0;
     this.requested = 0;
     this.totalTime = 0;
     this.buildTime = 0;
+    this.parallelEvaluationTime = 0;
+    this.buildCacheHits = 0;
+    this.buildCacheMisses = 0;
+    this.parses = 0;
+    this.parserCacheHits = 0;
     this.injectedAnnotations.clear();
   }
 
@@ -68,12 +95,24 @@ public class Log {
   public String toString() {
     return "Total number of nodes="
         + nodes
+        + "\nTotal number of groups="
+        + groups
         + "\nTotal number of Requested builds="
         + requested
         + "\nTotal time="
         + totalTime
         + "\nTotal time spent on builds="
-        + buildTime;
+        + buildTime
+        + "\nTotal wall-clock time spent on evaluations of parallel workers="
+        + parallelEvaluationTime
+        + "\nTotal number of build cache hits="
+        + buildCacheHits
+        + "\nTotal number of build cache misses="
+        + buildCacheMisses
+        + "\nTotal number of parsed source files="
+        + parses
+        + "\nTotal number of parser cache hits="
+        + parserCacheHits;
   }
 
   /**
@@ -101,15 +140,46 @@ public class Log {
    *
    * @param timer The return result of calling {@link Log#startTimer()}.
    */
-  public void stopTimerAndCaptureBuildTime(long timer) {
+  public synchronized void stopTimerAndCaptureBuildTime(long timer) {
     this.buildTime += System.currentTimeMillis() - timer;
   }
 
-  /** Increments the number of build requests. */
-  public void incrementBuildRequest() {
+  /**
+   * Calculates the difference between the passed time and current time and adds it to the
+   * wall-clock time spent in evaluations of parallel workers.
+   *
+   * @param timer The return result of calling {@link Log#startTimer()}.
+   */
+  public void stopTimerAndCaptureParallelEvaluationTime(long timer) {
+    this.parallelEvaluationTime += System.currentTimeMillis() - timer;
+  }
+
+  /** Increments the number of build requests. Builds can be requested concurrently by workers. */
+  public synchronized void incrementBuildRequest() {
     this.requested += 1;
   }
 
+  /** Increments the number of builds skipped by the build cache. */
+  public synchronized void incrementBuildCacheHit() {
+    this.buildCacheHits += 1;
+  }
+
+  /** Increments the number of builds performed on a build cache miss. */
+  public synchronized void incrementBuildCacheMiss() {
+    this.buildCacheMisses += 1;
+  }
+
+  /**
+   * Updates the parser statistics with the totals of the parser cache.
+   *
+   * @param parses Number of source files parsed by JavaParser.
+   * @param hits Number of requests to parse a source file served by the parser cache.
+   */
+  public synchronized void updateParserStatistics(long parses, long hits) {
+    this.parses = parses;
+    this.parserCacheHits = hits;
+  }
+
   /**
    * Adds the passed parameter to the number of {@link Log#nodes}.
    *
@@ -119,6 +189,15 @@ public class Log {
     this.nodes += numberOfNewNodesCreated;
   }
 
+  /**
+   * Adds the passed parameter to the number of {@link Log#groups}.
+   *
+   * @param numberOfGroups Number of groups computed by coloring a {@link ConflictGraph}.
+   */
+  public void updateGroupNumber(long numberOfGroups) {
+    this.groups += numberOfGroups;
+  }
+
   /**
    * Updates list of injected annotations with the latest injected annotations.
    *
@@ -0,0 +1,447 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.module;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import edu.ucr.cs.riple.core.Context;
+import edu.ucr.cs.riple.core.util.Utility;
+import edu.ucr.cs.riple.scanner.ScannerConfigWriter;
+import edu.ucr.cs.riple.scanner.Serializer;
+import edu.ucr.cs.riple.scanner.location.SymbolLocation;
+import edu.ucr.cs.riple.scanner.out.ClassRecord;
+import edu.ucr.cs.riple.scanner.out.ImpactedRegion;
+import edu.ucr.cs.riple.scanner.out.MethodRecord;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Runs the scanner checker on modules incrementally. Scanner outputs of each module are partitioned
+ * by source file in a directory within {@link
+ * edu.ucr.cs.riple.core.Config#incrementalScanningDirectory} which is kept across runs, along with
+ * a manifest of the hashes of the scanned source files. Each run only scans source files which are
+ * changed since the previous run, or which their outputs depend on a changed source file, and
+ * reuses partitions of other source files. Partitions are then assembled into the scanner outputs
+ * of the module which registries are built from.
+ *
+ * <p>Outputs of a source file depend on the source files declaring the members used in it, and the
+ * supertypes of these members' classes and of the classes declared in it. All source files are
+ * scanned if a source file is removed. Source files added since the previous run are scanned, but
+ * do not invalidate partitions of other source files.
+ */
+public class IncrementalScanner {
+
+  /**
+   * File name of the manifest in the partitions directory of each module. Stores the hash of the
+   * content of each scanned source file, and is only valid if all partitions are consistent with
+   * it, therefore it is removed before scanning and is written once partitions are assembled.
+   */
+  public static final String MANIFEST_FILE_NAME = "manifest.tsv";
+
+  /** File names of scanner outputs of a module, which are assembled from partitions. */
+  private static final ImmutableSet<String> OUTPUT_FILE_NAMES =
+      ImmutableSet.of(
+          Serializer.CLASS_RECORD_FILE_NAME,
+          Serializer.NON_NULL_ELEMENTS_FILE_NAME,
+          Serializer.FIELD_IMPACTED_REGION_FILE_NAME,
+          Serializer.METHOD_IMPACTED_REGION_FILE_NAME,
+          Serializer.METHOD_RECORD_FILE_NAME);
+
+  /** Annotator context. */
+  private final Context context;
+
+  /** Configurations of the scanned modules. */
+  private final ImmutableSet<ModuleConfiguration> configurations;
+
+  /**
+   * Creates an incremental scanner for the given modules.
+   *
+   * @param context Annotator context.
+   * @param configurations Configurations of the modules to scan.
+   */
+  public IncrementalScanner(Context context, ImmutableSet<ModuleConfiguration> configurations) {
+    this.context = context;
+    this.configurations = configurations;
+  }
+
+  /**
+   * Runs the scanner checker on the modules with the given build command, and assembles scanner
+   * outputs of each module from its partitions.
+   *
+   * @param buildCommand Build command to run the scanner checker.
+   */
+  public void run(String buildCommand) {
+    for (ModuleConfiguration configuration : configurations) {
+      Path directory = getPartitionsDirectory(configuration);
+      ImmutableSet<Path> reused = computeReusedPartitions(directory);
+      try {
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(MANIFEST_FILE_NAME));
+        Files.deleteIfExists(directory.resolve(Serializer.COMPILATION_UNITS_FILE_NAME));
+        // Outputs of a previous run must not be taken as outputs of this run.
+        for (String fileName : OUTPUT_FILE_NAMES) {
+          Files.deleteIfExists(configuration.dir.resolve(fileName));
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Could not prepare partitions directory at: " + directory, e);
+      }
+      new ScannerConfigWriter()
+          .setSerializationActivation(true)
+          .addGeneratedCodeDetectors(context.config.generatedCodeDetectors)
+          .setOutput(configuration.dir)
+          .setNonnullAnnotations(context.config.getNonnullAnnotations())
+          .setPartitionsDirectory(directory)
+          .setReusedPartitions(reused)
+          .writeAsXML(configuration.scannerConfig);
+    }
+    Utility.build(context, buildCommand);
+    context.recordBuild();
+    Utility.setScannerCheckerActivation(context.config, configurations, false);
+    // Scanner does not run on a module if the build tool skips its compilation, e.g. when the
+    // scanner configuration is not tracked as an input. Partitions of such modules cannot be
+    // assembled, their outputs are computed by a full scan instead.
+    ImmutableSet<ModuleConfiguration> unscanned =
+        configurations.stream()
+            .filter(
+                configuration ->
+                    !Files.exists(
+                        getPartitionsDirectory(configuration)
+                            .resolve(Serializer.COMPILATION_UNITS_FILE_NAME)))
+            .collect(ImmutableSet.toImmutableSet());
+    if (!unscanned.isEmpty()) {
+      Utility.runScannerChecker(context, unscanned, buildCommand);
+    }
+    configurations.stream()
+        .filter(configuration -> !unscanned.contains(configuration))
+        .forEach(this::assemble);
+  }
+
+  /**
+   * Returns the directory of partitions of the given module.
+   *
+   * @param configuration Module configuration.
+   * @return Path to partitions directory.
+   */
+  private Path getPartitionsDirectory(ModuleConfiguration configuration) {
+    return context.config.incrementalScanningDirectory.resolve(String.valueOf(configuration.id));
+  }
+
+  /**
+   * Computes the source files which their partitions in the given directory can be reused. A
+   * partition is reused if its source file and all source files its outputs depend on are
+   * unchanged since the manifest is written. If there is no manifest, or a source file in the
+   * manifest is removed, no partition is reused.
+   *
+   * @param directory Partitions directory of a module.
+   * @return Immutable set of source files which their partitions are reused.
+   */
+  private static ImmutableSet<Path> computeReusedPartitions(Path directory) {
+    Path manifestPath = directory.resolve(MANIFEST_FILE_NAME);
+    if (!Files.exists(manifestPath)) {
+      return ImmutableSet.of();
+    }
+    ImmutableMap<Path, String> manifest = readManifest(manifestPath);
+    Set<Path> changed = new HashSet<>();
+    for (Map.Entry<Path, String> entry : manifest.entrySet()) {
+      String hash = hash(entry.getKey());
+      if (hash == null) {
+        // Source file is removed.
+        return ImmutableSet.of();
+      }
+      if (!hash.equals(entry.getValue())) {
+        changed.add(entry.getKey());
+      }
+    }
+    ImmutableSet.Builder<Path> reused = ImmutableSet.builder();
+    readPartitions(directory)
+        .forEach(
+            (source, partition) -> {
+              if (manifest.containsKey(source)
+                  && readDependencies(partition).stream().noneMatch(changed::contains)) {
+                reused.add(source);
+              }
+            });
+    return reused.build();
+  }
+
+  /**
+   * Assembles scanner outputs of the given module from its partitions. Partitions of source files
+   * which are not visited in the latest scan are removed. Method records in partitions refer to
+   * their parent methods by class and signature, ids are assigned to all methods in the order of
+   * assembly and parents are linked by these ids. Parent methods which are not declared in the
+   * module are assigned ids after all declared methods.
+   *
+   * @param configuration Module configuration, the scanner must have run on the module.
+   */
+  private void assemble(ModuleConfiguration configuration) {
+    Path directory = getPartitionsDirectory(configuration);
+    Path compilationUnitsPath = directory.resolve(Serializer.COMPILATION_UNITS_FILE_NAME);
+    Set<Path> visited =
+        readRows(compilationUnitsPath).stream().map(Paths::get).collect(Collectors.toSet());
+    Map<Path, Path> partitions = new HashMap<>();
+    readPartitions(directory)
+        .forEach(
+            (source, partition) -> {
+              if (visited.contains(source)) {
+                partitions.put(source, partition);
+              } else {
+                // Source file is removed or is not compiled anymore.
+                delete(partition);
+              }
+            });
+    List<Path> sorted =
+        partitions.keySet().stream()
+            .sorted(Comparator.comparing(Path::toString))
+            .map(partitions::get)
+            .collect(Collectors.toList());
+    concatenate(sorted, Serializer.CLASS_RECORD_FILE_NAME, ClassRecord.header(), configuration.dir);
+    concatenate(
+        sorted, Serializer.NON_NULL_ELEMENTS_FILE_NAME, SymbolLocation.header(), configuration.dir);
+    concatenate(
+        sorted,
+        Serializer.FIELD_IMPACTED_REGION_FILE_NAME,
+        ImpactedRegion.header(),
+        configuration.dir);
+    concatenate(
+        sorted,
+        Serializer.METHOD_IMPACTED_REGION_FILE_NAME,
+        ImpactedRegion.header(),
+        configuration.dir);
+    assembleMethodRecords(sorted, configuration.dir);
+    writeManifest(directory.resolve(MANIFEST_FILE_NAME), partitions.keySet());
+  }
+
+  /**
+   * Assembles method records of the given partitions, see {@link MethodRecord#toPartitionString()}
+   * for the format of rows in partitions.
+   *
+   * @param partitions Partition directories in order of assembly.
+   * @param output Directory to write the assembled method records.
+   */
+  private static void assembleMethodRecords(List<Path> partitions, Path output) {
+    List<String[]> rows = new ArrayList<>();
+    partitions.forEach(
+        partition ->
+            readRows(partition.resolve(Serializer.METHOD_RECORD_FILE_NAME))
+                .forEach(row -> rows.add(row.split("\t", 5))));
+    Map<String, Integer> ids = new HashMap<>();
+    for (String[] row : rows) {
+      ids.putIfAbsent(row[0] + "\t" + row[1], ids.size() + 1);
+    }
+    Path path = output.resolve(Serializer.METHOD_RECORD_FILE_NAME);
+    try (BufferedWriter writer = Files.newBufferedWriter(path, Charset.defaultCharset())) {
+      writer.write(MethodRecord.header());
+      writer.newLine();
+      for (String[] row : rows) {
+        String parent = row[2] + "\t" + row[3];
+        // Same as a full scan, parents which are not declared in the module, e.g. library methods,
+        // have an id but no row. Method registry links them to records without a location.
+        int parentId =
+            parent.equals("null\tnull") ? 0 : ids.computeIfAbsent(parent, key -> ids.size() + 1);
+        int id = ids.get(row[0] + "\t" + row[1]);
+        writer.write(
+            String.join(
+                "\t", String.valueOf(id), row[0], row[1], String.valueOf(parentId), row[4]));
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while writing method records at: " + path, e);
+    }
+  }
+
+  /**
+   * Concatenates rows of the file with the given name in all given partitions, and writes them with
+   * the given header to the file with the same name in the output directory.
+   *
+   * @param partitions Partition directories in order of assembly.
+   * @param fileName File name.
+   * @param header Header of the file.
+   * @param output Output directory.
+   */
+  private static void concatenate(
+      List<Path> partitions, String fileName, String header, Path output) {
+    Path path = output.resolve(fileName);
+    try (BufferedWriter writer = Files.newBufferedWriter(path, Charset.defaultCharset())) {
+      writer.write(header);
+      writer.newLine();
+      for (Path partition : partitions) {
+        for (String row : readRows(partition.resolve(fileName))) {
+          writer.write(row);
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while assembling scanner output at: " + path, e);
+    }
+  }
+
+  /**
+   * Locates partitions in the given directory by their source file.
+   *
+   * @param directory Partitions directory of a module.
+   * @return Immutable map of partition directories by the path to their source file.
+   */
+  private static ImmutableMap<Path, Path> readPartitions(Path directory) {
+    if (!Files.isDirectory(directory)) {
+      return ImmutableMap.of();
+    }
+    Map<Path, Path> partitions = new HashMap<>();
+    try (Stream<Path> stream = Files.list(directory)) {
+      stream
+          .filter(Files::isDirectory)
+          .forEach(
+              partition -> {
+                List<String> rows =
+                    readRows(partition.resolve(Serializer.DEPENDENCIES_FILE_NAME));
+                if (!rows.isEmpty()) {
+                  partitions.put(Paths.get(rows.get(0).split("\t")[0]), partition);
+                }
+              });
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while listing partitions at: " + directory, e);
+    }
+    return ImmutableMap.copyOf(partitions);
+  }
+
+  /**
+   * Reads the source files which outputs of the given partition depend on.
+   *
+   * @param partition Partition directory.
+   * @return Set of source files, including the source file of the partition.
+   */
+  private static Set<Path> readDependencies(Path partition) {
+    return readRows(partition.resolve(Serializer.DEPENDENCIES_FILE_NAME)).stream()
+        .map(row -> Paths.get(row.split("\t")[1]))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Reads the manifest at the given path.
+   *
+   * @param path Path to manifest.
+   * @return Immutable map of hashes by the path to their source file.
+   */
+  private static ImmutableMap<Path, String> readManifest(Path path) {
+    ImmutableMap.Builder<Path, String> builder = ImmutableMap.builder();
+    readRows(path)
+        .forEach(
+            row -> {
+              String[] values = row.split("\t");
+              builder.put(Paths.get(values[0]), values[1]);
+            });
+    return builder.build();
+  }
+
+  /**
+   * Writes the manifest of the given source files at the given path.
+   *
+   * @param path Path to manifest.
+   * @param sources Source files of partitions.
+   */
+  private static void writeManifest(Path path, Set<Path> sources) {
+    try (BufferedWriter writer = Files.newBufferedWriter(path, Charset.defaultCharset())) {
+      writer.write("path\thash");
+      writer.newLine();
+      for (Path source : sources) {
+        String hash = hash(source);
+        if (hash != null) {
+          writer.write(source + "\t" + hash);
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while writing manifest at: " + path, e);
+    }
+  }
+
+  /**
+   * Reads all rows of the file at the given path except the header.
+   *
+   * @param path Path to file.
+   * @return List of rows, empty if the file does not exist.
+   */
+  private static List<String> readRows(Path path) {
+    if (!Files.exists(path)) {
+      return List.of();
+    }
+    try (BufferedReader reader = Files.newBufferedReader(path, Charset.defaultCharset())) {
+      // Skip header
+      reader.readLine();
+      return reader.lines().filter(row -> !row.isEmpty()).collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while reading file: " + path, e);
+    }
+  }
+
+  /**
+   * Computes the hash of the content of the given source file.
+   *
+   * @param path Path to source file.
+   * @return Hash of the content, or {@code null} if the file does not exist.
+   */
+  @Nullable
+  private static String hash(Path path) {
+    if (!Files.exists(path)) {
+      return null;
+    }
+    try {
+      return Hashing.sha256().hashBytes(Files.readAllBytes(path)).toString();
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while reading source file: " + path, e);
+    }
+  }
+
+  /**
+   * Removes the given partition.
+   *
+   * @param partition Partition directory.
+   */
+  private static void delete(Path partition) {
+    try (Stream<Path> files = Files.list(partition)) {
+      for (Path file : files.collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+      Files.delete(partition);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not remove partition at: " + partition, e);
+    }
+  }
+}
@@ -40,6 +40,8 @@ import edu.ucr.cs.riple.injector.location.OnClass;
 import edu.ucr.cs.riple.scanner.Serializer;
 import edu.ucr.cs.riple.scanner.generatedcode.SourceType;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /** This class is used to store the code structural information about the module. */
 public class ModuleInfo {
@@ -94,12 +96,26 @@ public class ModuleInfo {
     this.configurations = configurations;
     // Build with scanner checker activated to generate required files to create the moduleInfo.
     context.checker.prepareConfigFilesForBuild(configurations);
-    Utility.runScannerChecker(context, configurations, buildCommand);
+    if (context.config.incrementalScanningDirectory != null) {
+      new IncrementalScanner(context, configurations).run(buildCommand);
+    } else {
+      Utility.runScannerChecker(context, configurations, buildCommand);
+    }
     checkScannerConfiguration();
-    this.nonnullStore = new NonnullStore(configurations, context);
-    this.fieldRegistry = new FieldRegistry(configurations, context);
-    this.methodRegistry = new MethodRegistry(context);
-    this.regionRegistry = new CompoundRegionRegistry(this, context);
+    // Registries are independent of each other and are loaded concurrently. Field registry parses
+    // source files through the parser cache, which is thread safe and uses a parser per thread.
+    CompletableFuture<FieldRegistry> fieldRegistry =
+        CompletableFuture.supplyAsync(() -> new FieldRegistry(configurations, context));
+    CompletableFuture<NonnullStore> nonnullStore =
+        CompletableFuture.supplyAsync(() -> new NonnullStore(configurations, context));
+    CompletableFuture<MethodRegistry> methodRegistry =
+        CompletableFuture.supplyAsync(() -> new MethodRegistry(context));
+    CompletableFuture<CompoundRegionRegistry> regionRegistry =
+        CompletableFuture.supplyAsync(() -> new CompoundRegionRegistry(this, context));
+    this.fieldRegistry = join(fieldRegistry);
+    this.nonnullStore = join(nonnullStore);
+    this.methodRegistry = join(methodRegistry);
+    this.regionRegistry = join(regionRegistry);
     ImmutableSet.Builder<AnnotationProcessorHandler> builder = new ImmutableSet.Builder<>();
     if (context.config.generatedCodeDetectors.contains(SourceType.LOMBOK)) {
       builder.add(new LombokHandler(this));
@@ -107,6 +123,25 @@ public class ModuleInfo {
     this.annotationProcessorHandlers = builder.build();
   }
 
+  /**
+   * Waits for the given registry to be loaded and returns it. Exceptions thrown while loading the
+   * registry are rethrown.
+   *
+   * @param future Future of the registry.
+   * @param <T> Type of the registry.
+   * @return The loaded registry.
+   */
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
   /**
    * Getter for the created {@link FieldRegistry} instance.
    *
@@ -203,6 +238,15 @@ public class ModuleInfo {
     return fieldRegistry.getLocationOnClass(clazz);
   }
 
+  /**
+   * Returns paths to all source files containing classes declared in this module.
+   *
+   * @return ImmutableSet of paths to source files.
+   */
+  public ImmutableSet<Path> getSourceFiles() {
+    return fieldRegistry.getSourceFiles();
+  }
+
   /**
    * Getter for the created {@link RegionRegistry} instance.
    *
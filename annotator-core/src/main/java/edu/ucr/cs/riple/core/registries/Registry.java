@@ -24,27 +24,51 @@
 
 package edu.ucr.cs.riple.core.registries;
 
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Table;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.MoreFiles;
 import edu.ucr.cs.riple.core.Context;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
 /**
  * Container class which loads its content from a file in TSV format. For faster retrieval, it
  * stores its content in a {@link com.google.common.collect.ImmutableMultimap} where the key is the
- * hash of the item and the value is the item itself. For faster retrieval, if the anticipated hash
- * is known, {@link Registry#findRecordsWithHashHint} can be used, otherwise use {@link
- * Registry#findRecords}. If subclasses need to initialize some data before loading the file, they
- * must call {@link Registry#setup()}. Please note that this class anticipates that the file exits
- * at the given paths and does not attempt to create it. Before creating an instance, please make
- * sure that the file exists.
+ * hash of the item and the value is the item itself. For frequent lookups, subclasses should build
+ * exact key indices of contents with {@link Registry#indexBy}, which return pre-built results
+ * without scanning records. Otherwise, if the anticipated hash is known, {@link
+ * Registry#findRecordsWithHashHint} can be used, and {@link Registry#findRecords} as the last
+ * resort. If subclasses need to initialize some data before loading the file, they must call
+ * {@link Registry#setup()}. Registries can also store their records in binary snapshots which are
+ * reused by later runs, see {@link Registry#getSnapshotCodec()}. Please note that this class
+ * anticipates that the file exits at the given paths and does not attempt to create it. Before
+ * creating an instance, please make sure that the file exists.
  */
 public abstract class Registry<T> {
 
@@ -57,6 +81,9 @@ public abstract class Registry<T> {
 
   protected final Context context;
 
+  /** Files larger than this size in bytes are read in chunks of this size concurrently. */
+  private static final long CHUNK_SIZE = 16 * 1024 * 1024;
+
   /**
    * Constructor for this container. Once this constructor is invoked, all data will be loaded from
    * the file.
@@ -64,20 +91,15 @@ public abstract class Registry<T> {
    * @param path Path to the file containing the data.
    */
   public Registry(Path path, Context context) {
-    ImmutableMultimap.Builder<Integer, T> builder = ImmutableMultimap.builder();
-    this.context = context;
-    setup();
-    try {
-      populateContent(path, builder);
-    } catch (IOException e) {
-      throw new RuntimeException("Error happened while loading content of file: " + path, e);
-    }
-    this.contents = builder.build();
+    this(ImmutableSet.of(path), context);
   }
 
   /**
    * Constructor for this container. Contents are accumulated from multiple sources. Once this
-   * constructor is invoked, all data will be loaded from the file.
+   * constructor is invoked, all data will be loaded from the file. If the builder of this registry
+   * is thread safe (see {@link #isBuilderThreadSafe()}), files are read concurrently and large
+   * files are read in chunks concurrently. Records are registered in the order of the given paths
+   * and rows regardless.
    *
    * @param paths Paths to all files containing data.
    */
@@ -85,14 +107,7 @@ public abstract class Registry<T> {
     ImmutableMultimap.Builder<Integer, T> builder = ImmutableMultimap.builder();
     this.context = context;
     setup();
-    paths.forEach(
-        path -> {
-          try {
-            populateContent(path, builder);
-          } catch (IOException e) {
-            throw new RuntimeException("Error happened while loading content of file: " + path, e);
-          }
-        });
+    loadRecords(paths).forEach(record -> populateContent(record, builder));
     this.contents = builder.build();
   }
 
@@ -103,29 +118,264 @@ public abstract class Registry<T> {
   protected void setup() {}
 
   /**
-   * Loads data existing in the given path, to the given builder.
+   * Returns true if the builder of this registry can build records from rows concurrently, which
+   * requires it to not have any state. Registries that need to link records with each other
+   * should do it in {@link #link(Object)}, which is always called sequentially. By default, this
+   * method returns false and files are read sequentially.
+   *
+   * @return true, if the builder of this registry is thread safe.
+   */
+  protected boolean isBuilderThreadSafe() {
+    return false;
+  }
+
+  /**
+   * Called for each record built from rows of the files in the order of files and rows, before the
+   * record is added to the contents. Subclasses can override this method to link records with each
+   * other, it is never called concurrently.
+   *
+   * @param record Record built from a row.
+   * @return Record to add to the contents.
+   */
+  protected T link(T record) {
+    return record;
+  }
+
+  /**
+   * Returns the codec used to store records of this registry in snapshots, which are reused by
+   * later runs instead of reading the files again if the files are unchanged (see {@link
+   * RegistrySnapshot}). Records are stored before they are linked via {@link #link(Object)}. By
+   * default, this method returns {@code null} and records of this registry are not stored in
+   * snapshots.
+   *
+   * @return Codec of records of this registry, or {@code null} if snapshots are not supported.
+   */
+  @Nullable
+  protected RegistrySnapshot.Codec<T> getSnapshotCodec() {
+    return null;
+  }
+
+  /**
+   * Adds the contents of any other file the records built from the given file depend on to the
+   * given hasher. A snapshot is reused only if the given file and all its dependencies are
+   * unchanged. By default, records only depend on the given file.
    *
    * @param path Path to the file containing data.
-   * @throws IOException if file not is found.
+   * @param hasher Hasher of the key of the snapshot.
+   * @throws IOException if reading the dependencies fails.
    */
-  protected void populateContent(Path path, ImmutableMultimap.Builder<Integer, T> builder)
-      throws IOException {
-    try (BufferedReader reader =
-        Files.newBufferedReader(path.toFile().toPath(), Charset.defaultCharset())) {
-      Builder<T> recordBuilder = getBuilder();
-      String line = reader.readLine();
-      if (line != null) {
+  protected void hashSnapshotDependencies(Path path, Hasher hasher) throws IOException {}
+
+  /**
+   * Loads records existing in the given paths. If snapshots are enabled and supported by this
+   * registry, records are read from the snapshot of the given files if it exists, otherwise records
+   * are read from the files and a snapshot of them is stored for later runs. Failing to store the
+   * snapshot is reported as an error, as the snapshot directory is explicitly configured.
+   *
+   * @param paths Paths to all files containing data.
+   * @return List of records in the order of paths and rows.
+   */
+  private List<T> loadRecords(ImmutableSet<Path> paths) {
+    RegistrySnapshot.Codec<T> codec = getSnapshotCodec();
+    Path directory = context.config.registrySnapshotDirectory;
+    if (codec == null || directory == null) {
+      return readRecords(paths);
+    }
+    String prefix = getClass().getSimpleName() + "-" + hashSnapshotPaths(paths) + "-";
+    Path snapshot = directory.resolve(prefix + hashSnapshotContents(paths) + ".snapshot");
+    List<T> records = RegistrySnapshot.read(snapshot, codec);
+    if (records != null) {
+      return records;
+    }
+    // Discard any state the codec has made while reading an unusable snapshot.
+    setup();
+    records = readRecords(paths);
+    try {
+      RegistrySnapshot.write(snapshot, records, codec);
+      // Remove snapshots of previous versions of the same files.
+      try (Stream<Path> previous = Files.list(directory)) {
+        for (Path path : previous.collect(Collectors.toList())) {
+          String name = path.getFileName().toString();
+          if (name.startsWith(prefix) && !path.equals(snapshot)) {
+            Files.deleteIfExists(path);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Error happened while storing registry snapshot at: " + snapshot, e);
+    }
+    return records;
+  }
+
+  /**
+   * Reads records existing in the given paths.
+   *
+   * @param paths Paths to all files containing data.
+   * @return List of records in the order of paths and rows.
+   */
+  private List<T> readRecords(ImmutableSet<Path> paths) {
+    Stream<Path> stream = isBuilderThreadSafe() ? paths.parallelStream() : paths.stream();
+    return stream
+        .map(this::readRecords)
+        .flatMap(List::stream)
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Computes the hash of the given paths, which identifies snapshots of this registry built from
+   * any version of the files at the given paths.
+   *
+   * @param paths Paths to all files containing data.
+   * @return Hash of the given paths.
+   */
+  private String hashSnapshotPaths(ImmutableSet<Path> paths) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(getClass().getName(), StandardCharsets.UTF_8);
+    paths.forEach(
+        path -> hasher.putString(path.toAbsolutePath().toString(), StandardCharsets.UTF_8));
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Computes the hash of the contents of the given files and their dependencies, along with the
+   * version of the snapshot format.
+   *
+   * @param paths Paths to all files containing data.
+   * @return Hash of the contents of the given files.
+   */
+  private String hashSnapshotContents(ImmutableSet<Path> paths) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(RegistrySnapshot.VERSION);
+    for (Path path : paths) {
+      try {
+        hasher.putLong(Files.size(path));
+        MoreFiles.asByteSource(path).copyTo(Funnels.asOutputStream(hasher));
+        hashSnapshotDependencies(path, hasher);
+      } catch (IOException e) {
+        throw new RuntimeException("Error happened while loading content of file: " + path, e);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Adds the given record to the given builder, after linking it via {@link #link(Object)}.
+   *
+   * @param record Record built from a row.
+   * @param builder Builder of the contents.
+   */
+  private void populateContent(T record, ImmutableMultimap.Builder<Integer, T> builder) {
+    T linked = link(record);
+    builder.put(linked.hashCode(), linked);
+  }
+
+  /**
+   * Reads records existing in the given path. If the builder of this registry is thread safe and
+   * the file is larger than {@link #CHUNK_SIZE}, the file is split into line aligned chunks which
+   * are read concurrently.
+   *
+   * @param path Path to the file containing data.
+   * @return List of records in the order of rows.
+   */
+  private List<T> readRecords(Path path) {
+    try {
+      long size = Files.size(path);
+      if (!isBuilderThreadSafe() || size <= CHUNK_SIZE) {
+        try (BufferedReader reader = Files.newBufferedReader(path, Charset.defaultCharset())) {
+          // Skip header
+          reader.readLine();
+          return readRecords(reader);
+        }
+      }
+      List<Long> boundaries = new ArrayList<>();
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
         // Skip header
-        line = reader.readLine();
+        long position = nextLineStart(channel, 0, size);
+        boundaries.add(position);
+        while (position < size) {
+          position = nextLineStart(channel, position + CHUNK_SIZE, size);
+          boundaries.add(position);
+        }
+      }
+      return IntStream.range(0, boundaries.size() - 1)
+          .parallel()
+          .mapToObj(i -> readChunk(path, boundaries.get(i), boundaries.get(i + 1)))
+          .flatMap(List::stream)
+          .collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException e) {
+      throw new RuntimeException("Error happened while loading content of file: " + path, e);
+    }
+  }
+
+  /**
+   * Reads records from rows of the file at the given path between the given byte offsets.
+   *
+   * @param path Path to the file containing data.
+   * @param start Offset of the first byte of the chunk, which is the start of a row.
+   * @param end Offset right after the last byte of the chunk, which is the end of a row.
+   * @return List of records in the order of rows.
+   */
+  private List<T> readChunk(Path path, long start, long end) {
+    try (InputStream in = Files.newInputStream(path)) {
+      ByteStreams.skipFully(in, start);
+      BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(ByteStreams.limit(in, end - start), Charset.defaultCharset()));
+      return readRecords(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads records from all rows of the given reader.
+   *
+   * @param reader Reader of rows.
+   * @return List of records in the order of rows.
+   * @throws IOException if reading rows fails.
+   */
+  private List<T> readRecords(BufferedReader reader) throws IOException {
+    Builder<T> recordBuilder = getBuilder();
+    List<T> records = new ArrayList<>();
+    String line = reader.readLine();
+    while (line != null) {
+      T record = recordBuilder.build(line.split("\t"));
+      if (record != null) {
+        records.add(record);
+      }
+      line = reader.readLine();
+    }
+    return records;
+  }
+
+  /**
+   * Returns the offset of the start of the first row starting after the given offset.
+   *
+   * @param channel Channel of the file.
+   * @param position Offset to start the search from.
+   * @param size Size of the file.
+   * @return Offset right after the first line break at or after the given offset, or the size of
+   *     the file if there is no such line break.
+   * @throws IOException if reading the file fails.
+   */
+  private static long nextLineStart(FileChannel channel, long position, long size)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(8192);
+    while (position < size) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
       }
-      while (line != null) {
-        T record = recordBuilder.build(line.split("\t"));
-        if (record != null) {
-          builder.put(record.hashCode(), record);
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
         }
-        line = reader.readLine();
       }
+      position += read;
     }
+    return size;
   }
 
   /**
@@ -175,6 +425,61 @@ public abstract class Registry<T> {
     return contents.values().stream().filter(c);
   }
 
+  /**
+   * Builds an index of contents by the given key. Values of records with the same key are stored in
+   * a single pre-built list, in the order records are loaded.
+   *
+   * @param key Function computing the key of a record.
+   * @param value Function computing the indexed value of a record.
+   * @param <K> Type of the key.
+   * @param <V> Type of the indexed value.
+   * @return Immutable index, where {@code get(key)} returns the list of values with the given key.
+   */
+  protected <K, V> ImmutableListMultimap<K, V> indexBy(
+      Function<? super T, K> key, Function<? super T, V> value) {
+    ImmutableListMultimap.Builder<K, V> builder = ImmutableListMultimap.builder();
+    contents.values().forEach(record -> builder.put(key.apply(record), value.apply(record)));
+    return builder.build();
+  }
+
+  /**
+   * Builds an index of contents by the given composite key of two components. Values of records
+   * with the same key are stored in a single pre-built set, in the order records are loaded.
+   * Lookups do not allocate a key instance.
+   *
+   * @param first Function computing the first component of the key of a record.
+   * @param second Function computing the second component of the key of a record.
+   * @param value Function computing the indexed value of a record.
+   * @param <R> Type of the first component of the key.
+   * @param <C> Type of the second component of the key.
+   * @param <V> Type of the indexed value.
+   * @return Immutable index, where {@code get(first, second)} returns the set of values with the
+   *     given key, or {@code null} if no record has the key.
+   */
+  protected <R, C, V> ImmutableTable<R, C, ImmutableSet<V>> indexBy(
+      Function<? super T, R> first, Function<? super T, C> second, Function<? super T, V> value) {
+    Table<R, C, ImmutableSet.Builder<V>> builders = HashBasedTable.create();
+    contents
+        .values()
+        .forEach(
+            record -> {
+              R row = first.apply(record);
+              C column = second.apply(record);
+              ImmutableSet.Builder<V> builder = builders.get(row, column);
+              if (builder == null) {
+                builder = ImmutableSet.builder();
+                builders.put(row, column, builder);
+              }
+              builder.add(value.apply(record));
+            });
+    ImmutableTable.Builder<R, C, ImmutableSet<V>> builder = ImmutableTable.builder();
+    builders
+        .cellSet()
+        .forEach(
+            cell -> builder.put(cell.getRowKey(), cell.getColumnKey(), cell.getValue().build()));
+    return builder.build();
+  }
+
   /**
    * Builder interface for creating {@link Registry} items. Builders with this interface can make a
    * registry record of type {@link T} from a row of a TSV file.
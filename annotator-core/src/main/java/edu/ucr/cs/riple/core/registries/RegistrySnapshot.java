@@ -0,0 +1,383 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.registries;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import edu.ucr.cs.riple.injector.location.Location;
+import edu.ucr.cs.riple.injector.location.LocationKind;
+import edu.ucr.cs.riple.injector.location.OnField;
+import edu.ucr.cs.riple.injector.location.OnMethod;
+import edu.ucr.cs.riple.injector.location.OnParameter;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.annotation.Nullable;
+
+/**
+ * Binary snapshot of the records of a {@link Registry}, used to skip parsing scanner outputs when
+ * they are unchanged since a previous run. Strings are interned in a string table, and records
+ * refer to strings by their int id. The layout of a snapshot file is:
+ *
+ * <ol>
+ *   <li>Header: magic number, format version, number of records and the offset of the string
+ *       table.
+ *   <li>Records, each encoded by the {@link Codec} of the registry.
+ *   <li>String table: number of strings followed by each string as length prefixed UTF-8 bytes.
+ * </ol>
+ *
+ * Snapshots are read by memory mapping the file. Snapshots larger than 2GB are not supported and
+ * are not written.
+ */
+public final class RegistrySnapshot {
+
+  /** Magic number at the start of each snapshot file. */
+  private static final int MAGIC = 0x52534e50;
+
+  /** Version of the snapshot format, snapshots of other versions are ignored. */
+  public static final int VERSION = 1;
+
+  /** Size of the header in bytes. */
+  private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+
+  private RegistrySnapshot() {}
+
+  /**
+   * Encoder and decoder of records of a registry in snapshots.
+   *
+   * @param <T> Type of the registry record.
+   */
+  public interface Codec<T> {
+
+    /**
+     * Encodes the given record.
+     *
+     * @param record Record to encode.
+     * @param writer Writer of the snapshot.
+     * @throws IOException if writing fails.
+     */
+    void write(T record, Writer writer) throws IOException;
+
+    /**
+     * Decodes a record written by {@link #write(Object, Writer)}.
+     *
+     * @param reader Reader of the snapshot.
+     * @return Decoded record.
+     */
+    T read(Reader reader);
+  }
+
+  /** Writes values of records to a snapshot, strings are interned in the string table. */
+  public static final class Writer {
+
+    /** Output of records. */
+    private final DataOutputStream out;
+
+    /** Map of interned strings to their ids. */
+    private final Map<String, Integer> ids;
+
+    /** Interned strings in the order of their ids. */
+    private final List<String> strings;
+
+    private Writer(DataOutputStream out) {
+      this.out = out;
+      this.ids = new HashMap<>();
+      this.strings = new ArrayList<>();
+    }
+
+    /**
+     * Writes the given string, which can be {@code null}.
+     *
+     * @param value String to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeString(@Nullable String value) throws IOException {
+      if (value == null) {
+        out.writeInt(-1);
+        return;
+      }
+      Integer id = ids.get(value);
+      if (id == null) {
+        id = strings.size();
+        ids.put(value, id);
+        strings.add(value);
+      }
+      out.writeInt(id);
+    }
+
+    /**
+     * Writes the given collection of strings.
+     *
+     * @param values Strings to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeStrings(Collection<String> values) throws IOException {
+      out.writeInt(values.size());
+      for (String value : values) {
+        writeString(value);
+      }
+    }
+
+    /**
+     * Writes the given location, only locations on fields, methods and parameters are supported.
+     *
+     * @param location Location to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeLocation(Location location) throws IOException {
+      writeString(location.kind.name());
+      writeString(location.path == null ? null : location.path.toString());
+      writeString(location.clazz);
+      switch (location.kind) {
+        case FIELD:
+          writeStrings(location.toField().variables);
+          break;
+        case METHOD:
+          writeString(location.toMethod().method);
+          break;
+        case PARAMETER:
+          writeString(location.toParameter().enclosingMethod.method);
+          writeInt(location.toParameter().index);
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported location kind: " + location.kind);
+      }
+    }
+
+    /**
+     * Writes the given int.
+     *
+     * @param value Int to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeInt(int value) throws IOException {
+      out.writeInt(value);
+    }
+
+    /**
+     * Writes the given boolean.
+     *
+     * @param value Boolean to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeBoolean(boolean value) throws IOException {
+      out.writeBoolean(value);
+    }
+  }
+
+  /** Reads values of records from a memory mapped snapshot. */
+  public static final class Reader {
+
+    /** Buffer of the snapshot, positioned at the next value. */
+    private final ByteBuffer buffer;
+
+    /** String table of the snapshot. */
+    private final String[] strings;
+
+    private Reader(ByteBuffer buffer, String[] strings) {
+      this.buffer = buffer;
+      this.strings = strings;
+    }
+
+    /**
+     * Reads a string written by {@link Writer#writeString(String)}.
+     *
+     * @return The string, which can be {@code null}.
+     */
+    @Nullable
+    public String readString() {
+      int id = buffer.getInt();
+      return id < 0 ? null : strings[id];
+    }
+
+    /**
+     * Reads strings written by {@link Writer#writeStrings(Collection)}.
+     *
+     * @return The strings in the order they were written.
+     */
+    public ImmutableList<String> readStrings() {
+      int size = buffer.getInt();
+      ImmutableList.Builder<String> values = ImmutableList.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        values.add(readString());
+      }
+      return values.build();
+    }
+
+    /**
+     * Reads a location written by {@link Writer#writeLocation(Location)}.
+     *
+     * @return The location.
+     */
+    public Location readLocation() {
+      LocationKind kind = LocationKind.valueOf(readString());
+      String path = readString();
+      Path location = path == null ? null : Paths.get(path);
+      String clazz = readString();
+      switch (kind) {
+        case FIELD:
+          return new OnField(location, clazz, Sets.newHashSet(readStrings()));
+        case METHOD:
+          return new OnMethod(location, clazz, readString());
+        case PARAMETER:
+          return new OnParameter(location, clazz, readString(), readInt());
+        default:
+          throw new IllegalStateException("Unsupported location kind: " + kind);
+      }
+    }
+
+    /**
+     * Reads an int written by {@link Writer#writeInt(int)}.
+     *
+     * @return The int.
+     */
+    public int readInt() {
+      return buffer.getInt();
+    }
+
+    /**
+     * Reads a boolean written by {@link Writer#writeBoolean(boolean)}.
+     *
+     * @return The boolean.
+     */
+    public boolean readBoolean() {
+      return buffer.get() != 0;
+    }
+  }
+
+  /**
+   * Writes a snapshot of the given records at the given path. The snapshot is written to a
+   * temporary file first and moved to the given path, so readers never see a partial snapshot.
+   *
+   * @param path Path to the snapshot.
+   * @param records Records to write.
+   * @param codec Codec of the records.
+   * @param <T> Type of the records.
+   * @throws IOException if writing fails.
+   */
+  public static <T> void write(Path path, Collection<T> records, Codec<T> codec)
+      throws IOException {
+    Files.createDirectories(path.getParent());
+    Path temp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      Writer writer;
+      long size;
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(records.size());
+        // Offset of the string table, updated once all records are written.
+        out.writeLong(0);
+        writer = new Writer(out);
+        for (T record : records) {
+          codec.write(record, writer);
+        }
+        long tableOffset = out.size();
+        out.writeInt(writer.strings.size());
+        for (String value : writer.strings) {
+          byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+        out.flush();
+        size = Files.size(temp);
+        if (size > Integer.MAX_VALUE || out.size() != size) {
+          // DataOutputStream counts written bytes as an int, which overflows for large snapshots.
+          return;
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+          channel.write(ByteBuffer.allocate(8).putLong(0, tableOffset), 12);
+        }
+      }
+      Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Reads the records of the snapshot at the given path.
+   *
+   * @param path Path to the snapshot.
+   * @param codec Codec of the records.
+   * @param <T> Type of the records.
+   * @return Records of the snapshot in the order they were written, or {@code null} if the snapshot
+   *     does not exist or is not readable.
+   */
+  @Nullable
+  public static <T> List<T> read(Path path, Codec<T> codec) {
+    if (!Files.isRegularFile(path)) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        return null;
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        return null;
+      }
+      int count = buffer.getInt();
+      long tableOffset = buffer.getLong();
+      Preconditions.checkState(
+          tableOffset >= HEADER_SIZE && tableOffset < size, "Corrupted snapshot: %s", path);
+      ByteBuffer table = buffer.duplicate();
+      table.position((int) tableOffset);
+      String[] strings = new String[table.getInt()];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[table.getInt()];
+        table.get(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+      Reader reader = new Reader(buffer, strings);
+      List<T> records = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        records.add(codec.read(reader));
+      }
+      return records;
+    } catch (IOException | RuntimeException e) {
+      // Snapshot is replaced or corrupted, records are loaded from scanner outputs instead.
+      return null;
+    }
+  }
+}
@@ -139,6 +139,13 @@ public class ClassFieldRecord {
       this.isPublic = fieldDeclaration.isPublic();
     }
 
+    public FieldDeclarationRecord(
+        ImmutableSet<String> names, boolean isPrimitiveType, boolean isPublic) {
+      this.names = names;
+      this.isPrimitiveType = isPrimitiveType;
+      this.isPublic = isPublic;
+    }
+
     /**
      * Checks if the field declaration is public and has non-primitive type.
      *
@@ -25,6 +25,8 @@
 package edu.ucr.cs.riple.core.registries.field;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.registries.Registry;
 import edu.ucr.cs.riple.injector.location.Location;
@@ -53,6 +55,10 @@ public class FieldInitializationStore extends Registry<FieldInitializationNode>
    */
   public static final String FILE_NAME = "field_init.tsv";
 
+  /** Field initializations indexed by the enclosing class and the field name. */
+  private final ImmutableTable<String, String, ImmutableSet<FieldInitializationNode>>
+      initializations;
+
   /**
    * Constructs an {@link FieldInitializationStore} instance. After this call, all serialized
    * information from NullAway has been processed.
@@ -61,6 +67,11 @@ public class FieldInitializationStore extends Registry<FieldInitializationNode>
    */
   public FieldInitializationStore(Context context) {
     super(context.targetConfiguration.dir.resolve(FILE_NAME), context);
+    this.initializations =
+        indexBy(
+            FieldInitializationNode::getClassName,
+            FieldInitializationNode::getFieldName,
+            node -> node);
   }
 
   /**
@@ -81,19 +92,20 @@ public class FieldInitializationStore extends Registry<FieldInitializationNode>
     // Set does not have a get() method, instead we use map here which can find the element
     // efficiently.
     Map<String, Class> classes = new HashMap<>();
-    uninitializedFields.forEach(
-        onField ->
-            findRecordsWithHashHint(
-                    candidate ->
-                        onField.isOnFieldWithName(candidate.getFieldName())
-                            && candidate.getClassName().equals(onField.clazz),
-                    FieldInitializationNode.hash(onField.clazz))
-                .forEach(
-                    node -> {
-                      Class clazz = new Class(node.getClassName(), node.getPath());
-                      classes.putIfAbsent(clazz.clazz, clazz);
-                      classes.get(clazz.clazz).visit(node);
-                    }));
+    for (OnField onField : uninitializedFields) {
+      for (String field : onField.variables) {
+        ImmutableSet<FieldInitializationNode> nodes = initializations.get(onField.clazz, field);
+        if (nodes == null) {
+          continue;
+        }
+        nodes.forEach(
+            node -> {
+              Class clazz = new Class(node.getClassName(), node.getPath());
+              classes.putIfAbsent(clazz.clazz, clazz);
+              classes.get(clazz.clazz).visit(node);
+            });
+      }
+    }
     return classes.values().stream()
         .map(Class::findInitializer)
         .filter(Objects::nonNull)
@@ -112,6 +124,11 @@ public class FieldInitializationStore extends Registry<FieldInitializationNode>
     };
   }
 
+  @Override
+  protected boolean isBuilderThreadSafe() {
+    return true;
+  }
+
   /** Stores class field / method initialization status. */
   @SuppressWarnings("JavaLangClash")
   private static class Class {
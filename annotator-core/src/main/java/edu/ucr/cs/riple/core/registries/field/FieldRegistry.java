@@ -29,14 +29,19 @@ import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.utils.Pair;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.io.MoreFiles;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.registries.Registry;
-import edu.ucr.cs.riple.injector.Injector;
+import edu.ucr.cs.riple.core.registries.RegistrySnapshot;
 import edu.ucr.cs.riple.injector.Printer;
 import edu.ucr.cs.riple.injector.exceptions.TargetClassNotFound;
 import edu.ucr.cs.riple.injector.location.Location;
@@ -44,8 +49,16 @@ import edu.ucr.cs.riple.injector.location.OnClass;
 import edu.ucr.cs.riple.injector.location.OnField;
 import edu.ucr.cs.riple.injector.util.ASTUtils;
 import edu.ucr.cs.riple.scanner.Serializer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nullable;
@@ -66,6 +79,9 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
    */
   private Multimap<String, String> uninitializedFields;
 
+  /** Records indexed by the flat name of their class. */
+  private final ImmutableListMultimap<String, ClassFieldRecord> classes;
+
   /**
    * Constructor for {@link FieldRegistry}.
    *
@@ -86,6 +102,7 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
             .map(info -> info.dir.resolve(Serializer.CLASS_RECORD_FILE_NAME))
             .collect(ImmutableSet.toImmutableSet()),
         context);
+    this.classes = indexBy(record -> record.clazz, record -> record);
   }
 
   @Override
@@ -114,7 +131,7 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
           tree = lastParsedSourceFile.b;
         } else {
           // Not visited yet, parse the source file.
-          tree = Injector.parse(path, context.config.languageLevel);
+          tree = context.parserCache.parse(path, context.config.languageLevel);
           lastParsedSourceFile = new Pair<>(path, tree);
         }
         if (tree == null) {
@@ -157,6 +174,70 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
     };
   }
 
+  @Override
+  protected RegistrySnapshot.Codec<ClassFieldRecord> getSnapshotCodec() {
+    return new RegistrySnapshot.Codec<>() {
+      @Override
+      public void write(ClassFieldRecord record, RegistrySnapshot.Writer writer)
+          throws IOException {
+        writer.writeString(record.clazz);
+        writer.writeString(record.pathToSourceFile.toString());
+        writer.writeInt(record.fields.size());
+        for (ClassFieldRecord.FieldDeclarationRecord field : record.fields) {
+          writer.writeStrings(field.names);
+          writer.writeBoolean(field.isPrimitiveType);
+          writer.writeBoolean(field.isPublic);
+        }
+        // Uninitialized fields are collected while building records and are restored with them.
+        writer.writeStrings(uninitializedFields.get(record.clazz));
+      }
+
+      @Override
+      public ClassFieldRecord read(RegistrySnapshot.Reader reader) {
+        String clazz = reader.readString();
+        ClassFieldRecord record = new ClassFieldRecord(Paths.get(reader.readString()), clazz);
+        int size = reader.readInt();
+        for (int i = 0; i < size; i++) {
+          record.fields.add(
+              new ClassFieldRecord.FieldDeclarationRecord(
+                  ImmutableSet.copyOf(reader.readStrings()),
+                  reader.readBoolean(),
+                  reader.readBoolean()));
+        }
+        uninitializedFields.putAll(clazz, reader.readStrings());
+        return record;
+      }
+    };
+  }
+
+  @Override
+  protected void hashSnapshotDependencies(Path path, Hasher hasher) throws IOException {
+    // Records are built from the source files referenced in the file, which must be unchanged.
+    hasher.putString(String.valueOf(context.config.languageLevel), StandardCharsets.UTF_8);
+    Set<Path> sources = new LinkedHashSet<>();
+    try (BufferedReader reader = Files.newBufferedReader(path, Charset.defaultCharset())) {
+      // Skip header
+      reader.readLine();
+      String line = reader.readLine();
+      while (line != null) {
+        String[] values = line.split("\t");
+        if (values.length > 1) {
+          sources.add(Printer.deserializePath(values[1]));
+        }
+        line = reader.readLine();
+      }
+    }
+    for (Path source : sources) {
+      hasher.putString(source.toString(), StandardCharsets.UTF_8);
+      boolean exists = Files.isRegularFile(source);
+      hasher.putBoolean(exists);
+      if (exists) {
+        hasher.putLong(Files.size(source));
+        MoreFiles.asByteSource(source).copyTo(Funnels.asOutputStream(hasher));
+      }
+    }
+  }
+
   /**
    * Returns all field names declared within the same declaration statement for any field given in
    * the parameter.
@@ -167,8 +248,7 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
    */
   public ImmutableSet<String> getInLineMultipleFieldDeclarationsOnField(
       String clazz, Set<String> fields) {
-    ClassFieldRecord candidate =
-        findRecordWithHashHint(node -> node.clazz.equals(clazz), ClassFieldRecord.hash(clazz));
+    ClassFieldRecord candidate = findRecordOfClass(clazz);
     if (candidate == null) {
       // No inline multiple field declarations.
       return ImmutableSet.copyOf(fields);
@@ -205,8 +285,7 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
    * @return {@link OnField} instance targeting the passed field and class.
    */
   public OnField getLocationOnField(String clazz, String field) {
-    ClassFieldRecord candidate =
-        findRecordWithHashHint(node -> node.clazz.equals(clazz), ClassFieldRecord.hash(clazz));
+    ClassFieldRecord candidate = findRecordOfClass(clazz);
     Set<String> fieldNames = Sets.newHashSet(field);
     if (candidate == null) {
       // field is on byte code.
@@ -222,8 +301,7 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
    * @return {@link OnClass} instance targeting the passed classes flat name.
    */
   public OnClass getLocationOnClass(String clazz) {
-    ClassFieldRecord candidate =
-        findRecordWithHashHint(node -> node.clazz.equals(clazz), ClassFieldRecord.hash(clazz));
+    ClassFieldRecord candidate = findRecordOfClass(clazz);
     if (candidate == null) {
       // class not observed in source code.
       return null;
@@ -231,6 +309,18 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
     return new OnClass(candidate.pathToSourceFile, candidate.clazz);
   }
 
+  /**
+   * Returns paths to all source files containing classes declared in the module.
+   *
+   * @return ImmutableSet of paths to source files.
+   */
+  public ImmutableSet<Path> getSourceFiles() {
+    return contents.values().stream()
+        .map(record -> record.pathToSourceFile)
+        .filter(Objects::nonNull)
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
   /**
    * Returns fields with public visibility and a non-primitive return type.
    *
@@ -271,11 +361,23 @@ public class FieldRegistry extends Registry<ClassFieldRecord> {
       return false;
     }
     OnField onField = location.toField();
-    return findRecordWithHashHint(
-            node ->
-                node.clazz.equals(location.clazz)
-                    && node.hasExactFieldDeclarationWithNames(onField.variables),
-            ClassFieldRecord.hash(location.clazz))
-        != null;
+    for (ClassFieldRecord record : classes.get(location.clazz)) {
+      if (record.hasExactFieldDeclarationWithNames(onField.variables)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the first loaded record of the given class.
+   *
+   * @param clazz Flat name of the class.
+   * @return Record of the class, or {@code null} if the class is not declared in the module.
+   */
+  @Nullable
+  private ClassFieldRecord findRecordOfClass(String clazz) {
+    ImmutableList<ClassFieldRecord> records = classes.get(clazz);
+    return records.isEmpty() ? null : records.get(0);
   }
 }
@@ -24,12 +24,13 @@
 
 package edu.ucr.cs.riple.core.registries.index;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.region.Region;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -65,17 +66,51 @@ public class ErrorStore {
   }
 
   /**
-   * Computes the difference between two collections (A - B).
+   * Overwrites the current state with the new generated output, only errors enclosed by the given
+   * regions are read. The current state can then only be compared with the root state on the given
+   * regions.
+   *
+   * @param regions Regions of interest.
+   */
+  public void saveState(Set<Region> regions) {
+    current = new Index(context, moduleInfo);
+    current.index(regions);
+  }
+
+  /**
+   * Creates a state from the given errors without overwriting the current state. Used to compare
+   * outputs of builds which are not performed on the module sources directly.
+   *
+   * @param errors Errors of the state.
+   * @return Index of the given errors.
+   */
+  public Index createState(Collection<? extends Error> errors) {
+    Index state = new Index(context, moduleInfo);
+    state.index(errors);
+    return state;
+  }
+
+  /**
+   * Computes the difference between two collections (A - B). Items of A which are matched with an
+   * equal item of B are removed, where each item of B is matched at most once. The difference is
+   * computed in linear time by counting items of B in a hash multiset, and items of A which are not
+   * matched keep their order in A.
    *
    * @param previousItems B.
    * @param currentItems A.
    * @return Corresponding {@link Result} instance storing result of (A - B).
    */
-  private Result compareByList(Collection<Error> previousItems, Collection<Error> currentItems) {
+  private static Result compareByList(
+      Collection<Error> previousItems, Collection<Error> currentItems) {
     int size = currentItems.size() - previousItems.size();
-    List<Error> temp = new ArrayList<>(currentItems);
-    previousItems.forEach(temp::remove);
-    return new Result(size, temp);
+    Multiset<Error> previous = HashMultiset.create(previousItems);
+    ImmutableList.Builder<Error> dif = ImmutableList.builder();
+    for (Error error : currentItems) {
+      if (previous.isEmpty() || !previous.remove(error)) {
+        dif.add(error);
+      }
+    }
+    return new Result(size, dif.build());
   }
 
   /**
@@ -86,7 +121,21 @@ public class ErrorStore {
    * @return Corresponding {@link Result}.
    */
   public Result compareByRegion(Region region) {
-    return compareByList(root.get(region), current.get(region));
+    return compareByRegion(current, region);
+  }
+
+  /**
+   * Computes the difference in items enclosed by the given enclosing class and member in the given
+   * state and root state.
+   *
+   * @param state State created by {@link #createState(Collection)}.
+   * @param region Enclosing region
+   * @return Corresponding {@link Result}.
+   */
+  public Result compareByRegion(Index state, Region region) {
+    // Results are memoized in the state, since nodes evaluated together can share regions.
+    return state.computeComparisonIfAbsent(
+        region, r -> compareByList(root.get(r), state.get(r)));
   }
 
   /**
@@ -24,16 +24,22 @@
 
 package edu.ucr.cs.riple.core.registries.index;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.region.Region;
-import edu.ucr.cs.riple.core.util.Utility;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Indexes {@link Error} instances based on the enclosing region. This data structure loads its data
@@ -44,6 +50,17 @@ public class Index {
   /** Contents of the index. */
   private final Multimap<Region, Error> items;
 
+  /** Memoized comparisons of errors in regions of this index with the root state. */
+  private final Map<Region, Result> comparisons;
+
+  /**
+   * Regions which errors are indexed for, or {@code null} if errors in all regions are indexed.
+   */
+  @Nullable private Set<Region> regions;
+
+  /** Number of errors in the output which are not indexed as they are not in {@link #regions}. */
+  private int skipped;
+
   /** ModuleInfo of the module which indexed errors are reported on. */
   private final ModuleInfo moduleInfo;
 
@@ -55,13 +72,58 @@ public class Index {
     this.context = context;
     this.moduleInfo = moduleInfo;
     this.items = MultimapBuilder.hashKeys().arrayListValues().build();
+    this.comparisons = new HashMap<>();
   }
 
   /** Starts the reading and index process. */
   public void index() {
+    index(context.checker.getErrorSnapshot(moduleInfo).getErrors());
+  }
+
+  /**
+   * Indexes the given errors, previous contents are discarded.
+   *
+   * @param errors Errors to index.
+   */
+  public void index(Collection<? extends Error> errors) {
     items.clear();
-    Utility.readErrorsFromOutputDirectory(context, moduleInfo, Error.class)
-        .forEach(error -> items.put(error.getRegion(), error));
+    comparisons.clear();
+    regions = null;
+    skipped = 0;
+    errors.forEach(error -> items.put(error.getRegion(), error));
+  }
+
+  /**
+   * Reads the output and indexes only errors enclosed by the given regions, previous contents are
+   * discarded. Errors in other regions are skipped while reading the output and are only counted.
+   *
+   * @param regions Regions of interest.
+   */
+  public void index(Set<Region> regions) {
+    Set<Error> errors = new HashSet<>();
+    int skippedErrors = context.checker.deserializeErrors(moduleInfo, regions, errors);
+    index(errors);
+    this.regions = ImmutableSet.copyOf(regions);
+    this.skipped = skippedErrors;
+  }
+
+  /**
+   * Checks if errors in all regions are indexed.
+   *
+   * @return true, if the index is not restricted to a set of regions.
+   */
+  public boolean isComplete() {
+    return regions == null;
+  }
+
+  /**
+   * Returns the number of errors in the output, including errors which are skipped as they are not
+   * enclosed by the regions of interest.
+   *
+   * @return Total number of errors in the output.
+   */
+  public int getTotalNumberOfErrors() {
+    return items.size() + skipped;
   }
 
   /**
@@ -71,15 +133,32 @@ public class Index {
    * @return Stored contents that are enclosed by the given region.
    */
   public Collection<Error> get(Region region) {
+    Preconditions.checkArgument(
+        regions == null || regions.contains(region),
+        "Errors in region %s are not indexed.",
+        region);
     return items.get(region);
   }
 
+  /**
+   * Returns the memoized comparison result for the given region, computing it with the given
+   * function if absent. Memoized results are discarded when the index is reloaded.
+   *
+   * @param region Region of the comparison.
+   * @param comparator Function to compute the comparison result.
+   * @return Comparison result for the region.
+   */
+  Result computeComparisonIfAbsent(Region region, Function<Region, Result> comparator) {
+    return comparisons.computeIfAbsent(region, comparator);
+  }
+
   /**
    * Returns all values.
    *
    * @return Collection of all values.
    */
   public Collection<Error> values() {
+    Preconditions.checkState(isComplete(), "Errors are only indexed for a set of regions.");
     return items.values();
   }
 
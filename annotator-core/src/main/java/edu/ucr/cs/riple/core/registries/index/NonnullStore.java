@@ -28,8 +28,10 @@ import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.registries.Registry;
+import edu.ucr.cs.riple.core.registries.RegistrySnapshot;
 import edu.ucr.cs.riple.injector.location.Location;
 import edu.ucr.cs.riple.scanner.Serializer;
+import java.io.IOException;
 
 /**
  * Structure for storing location of elements with explicit {@code @Nonnull} annotations. Used to
@@ -38,12 +40,16 @@ import edu.ucr.cs.riple.scanner.Serializer;
  */
 public class NonnullStore extends Registry<Location> {
 
+  /** Locations of all elements with explicit {@code @Nonnull} annotations. */
+  private final ImmutableSet<Location> locations;
+
   public NonnullStore(ImmutableSet<ModuleConfiguration> modules, Context context) {
     super(
         modules.stream()
             .map(moduleInfo -> moduleInfo.dir.resolve(Serializer.NON_NULL_ELEMENTS_FILE_NAME))
             .collect(ImmutableSet.toImmutableSet()),
         context);
+    this.locations = ImmutableSet.copyOf(contents.values());
   }
 
   @Override
@@ -51,6 +57,26 @@ public class NonnullStore extends Registry<Location> {
     return Location::createLocationFromArrayInfo;
   }
 
+  @Override
+  protected boolean isBuilderThreadSafe() {
+    return true;
+  }
+
+  @Override
+  protected RegistrySnapshot.Codec<Location> getSnapshotCodec() {
+    return new RegistrySnapshot.Codec<>() {
+      @Override
+      public void write(Location record, RegistrySnapshot.Writer writer) throws IOException {
+        writer.writeLocation(record);
+      }
+
+      @Override
+      public Location read(RegistrySnapshot.Reader reader) {
+        return reader.readLocation();
+      }
+    };
+  }
+
   /**
    * Returns true if the element at the given location has an explicit {@code @Nonnull} annotation.
    *
@@ -58,6 +84,6 @@ public class NonnullStore extends Registry<Location> {
    * @return true, if the element at the given location has an explicit {@code @Nonnull} annotation.
    */
   public boolean hasExplicitNonnullAnnotation(Location target) {
-    return findRecordWithHashHint(location -> location.equals(target), target.hashCode()) != null;
+    return locations.contains(target);
   }
 }
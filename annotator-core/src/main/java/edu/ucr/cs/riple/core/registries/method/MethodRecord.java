@@ -138,6 +138,20 @@ public class MethodRecord {
     this.isConstructor = isConstructor;
   }
 
+  /**
+   * Initializes this instance's values with the values of the given record.
+   *
+   * @param other Record to copy values from.
+   */
+  void fillInformation(MethodRecord other) {
+    this.parent = other.parent;
+    this.location = other.location;
+    this.annotations = other.annotations;
+    this.visibility = other.visibility;
+    this.hasNonPrimitiveReturn = other.hasNonPrimitiveReturn;
+    this.isConstructor = other.isConstructor;
+  }
+
   /**
    * Adds a child to the list of children.
    *
@@ -27,16 +27,19 @@ package edu.ucr.cs.riple.core.registries.method;
 import static edu.ucr.cs.riple.scanner.out.MethodRecord.ANNOTATION_DELIMITER;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.registries.Registry;
+import edu.ucr.cs.riple.core.registries.RegistrySnapshot;
 import edu.ucr.cs.riple.injector.Printer;
 import edu.ucr.cs.riple.injector.location.Location;
 import edu.ucr.cs.riple.injector.location.OnMethod;
 import edu.ucr.cs.riple.injector.util.ASTUtils;
 import edu.ucr.cs.riple.scanner.Serializer;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Objects;
@@ -58,6 +61,9 @@ public class MethodRegistry extends Registry<MethodRecord> {
   /** Set of all classes flat name declared in module. */
   private Set<String> declaredClasses;
 
+  /** Methods indexed by the enclosing class and the method signature. */
+  private final ImmutableTable<String, String, ImmutableSet<MethodRecord>> methods;
+
   public MethodRegistry(Context context) {
     this(ImmutableSet.of(context.targetConfiguration), context);
   }
@@ -68,6 +74,9 @@ public class MethodRegistry extends Registry<MethodRecord> {
             .map(moduleInfo -> moduleInfo.dir.resolve(Serializer.METHOD_RECORD_FILE_NAME))
             .collect(ImmutableSet.toImmutableSet()),
         context);
+    this.methods =
+        indexBy(
+            record -> record.location.clazz, record -> record.location.method, record -> record);
   }
 
   @Override
@@ -83,48 +92,91 @@ public class MethodRegistry extends Registry<MethodRecord> {
   @Override
   protected Builder<MethodRecord> getBuilder() {
     return values -> {
-      // Nodes unique id.
-      Integer id = Integer.parseInt(values[0]);
-      MethodRecord node;
-      if (nodes.containsKey(id)) {
-        node = nodes.get(id);
-      } else {
-        node = new MethodRecord(id);
-        nodes.put(id, node);
-      }
-      // Fill nodes information.
-      Integer parentId = Integer.parseInt(values[3]);
+      // Records are built detached from each other, and are linked in link() in order of rows.
+      MethodRecord node = new MethodRecord(Integer.parseInt(values[0]));
       OnMethod location = new OnMethod(Printer.deserializePath(values[8]), values[1], values[2]);
       boolean isConstructor =
           ASTUtils.extractCallableName(location.method).equals(ASTUtils.simpleName(location.clazz));
       node.fillInformation(
-          new OnMethod(Printer.deserializePath(values[8]), values[1], values[2]),
-          parentId,
+          location,
+          Integer.parseInt(values[3]),
           ImmutableSet.copyOf(values[5].split(ANNOTATION_DELIMITER)),
           values[6],
           Boolean.parseBoolean(values[7]),
           isConstructor);
-      // If node has a non-top parent.
-      if (parentId > 0) {
-        MethodRecord parent = nodes.get(parentId);
-        // If parent has not been seen visited before.
-        if (parent == null) {
-          parent = new MethodRecord(parentId);
-          nodes.put(parentId, parent);
-        }
-        // Parent is already visited.
-        parent.addChild(id);
+      return node;
+    };
+  }
+
+  @Override
+  protected boolean isBuilderThreadSafe() {
+    return true;
+  }
+
+  @Override
+  protected RegistrySnapshot.Codec<MethodRecord> getSnapshotCodec() {
+    return new RegistrySnapshot.Codec<>() {
+      @Override
+      public void write(MethodRecord record, RegistrySnapshot.Writer writer) throws IOException {
+        writer.writeInt(record.id);
+        writer.writeInt(record.parent);
+        writer.writeLocation(record.location);
+        writer.writeStrings(record.annotations);
+        writer.writeString(record.visibility.name());
+        writer.writeBoolean(record.hasNonPrimitiveReturn);
+        writer.writeBoolean(record.isConstructor);
       }
-      // Update list of all declared classes.
-      declaredClasses.add(node.location.clazz);
-      // If node is a constructor, add it to the list of constructors of its class.
-      if (node.isConstructor) {
-        classConstructorMap.put(node.location.clazz, node);
+
+      @Override
+      public MethodRecord read(RegistrySnapshot.Reader reader) {
+        MethodRecord node = new MethodRecord(reader.readInt());
+        int parent = reader.readInt();
+        node.fillInformation(
+            reader.readLocation().toMethod(),
+            parent,
+            ImmutableSet.copyOf(reader.readStrings()),
+            reader.readString(),
+            reader.readBoolean(),
+            reader.readBoolean());
+        return node;
       }
-      return node;
     };
   }
 
+  @Override
+  protected MethodRecord link(MethodRecord record) {
+    // Nodes unique id.
+    Integer id = record.id;
+    MethodRecord node;
+    if (nodes.containsKey(id)) {
+      node = nodes.get(id);
+    } else {
+      node = new MethodRecord(id);
+      nodes.put(id, node);
+    }
+    // Fill nodes information.
+    node.fillInformation(record);
+    Integer parentId = record.parent;
+    // If node has a non-top parent.
+    if (parentId > 0) {
+      MethodRecord parent = nodes.get(parentId);
+      // If parent has not been seen visited before.
+      if (parent == null) {
+        parent = new MethodRecord(parentId);
+        nodes.put(parentId, parent);
+      }
+      // Parent is already visited.
+      parent.addChild(id);
+    }
+    // Update list of all declared classes.
+    declaredClasses.add(node.location.clazz);
+    // If node is a constructor, add it to the list of constructors of its class.
+    if (node.isConstructor) {
+      classConstructorMap.put(node.location.clazz, node);
+    }
+    return node;
+  }
+
   /**
    * Returns the immediate super method of the given method.
    *
@@ -168,11 +220,10 @@ public class MethodRegistry extends Registry<MethodRecord> {
    * @param method Method signature.
    * @return Corresponding method.
    */
+  @Nullable
   public MethodRecord findMethodByName(String encClass, String method) {
-    return findRecordWithHashHint(
-        candidate ->
-            candidate.location.clazz.equals(encClass) && candidate.location.method.equals(method),
-        MethodRecord.hash(method, encClass));
+    ImmutableSet<MethodRecord> candidates = methods.get(encClass, method);
+    return candidates == null ? null : candidates.iterator().next();
   }
 
   /**
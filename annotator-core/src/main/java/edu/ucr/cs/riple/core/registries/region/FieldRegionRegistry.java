@@ -25,9 +25,11 @@
 package edu.ucr.cs.riple.core.registries.region;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.Registry;
+import edu.ucr.cs.riple.core.registries.RegistrySnapshot;
 import edu.ucr.cs.riple.core.util.Utility;
 import edu.ucr.cs.riple.injector.location.Location;
 import edu.ucr.cs.riple.injector.location.OnField;
@@ -43,6 +45,9 @@ public class FieldRegionRegistry extends Registry<RegionRecord> implements Regio
   /** ModuleInfo of the module which usages of fields are stored. */
   private final ModuleInfo moduleInfo;
 
+  /** Regions where each field is used, indexed by the enclosing class and the field name. */
+  private final ImmutableTable<String, String, ImmutableSet<Region>> usages;
+
   public FieldRegionRegistry(ModuleInfo moduleInfo, Context context) {
     super(
         moduleInfo.getModuleConfigurations().stream()
@@ -52,6 +57,8 @@ public class FieldRegionRegistry extends Registry<RegionRecord> implements Regio
             .collect(ImmutableSet.toImmutableSet()),
         context);
     this.moduleInfo = moduleInfo;
+    this.usages =
+        indexBy(record -> record.encClass, record -> record.member, record -> record.region);
   }
 
   @Override
@@ -59,6 +66,16 @@ public class FieldRegionRegistry extends Registry<RegionRecord> implements Regio
     return Utility::deserializeImpactedRegionRecord;
   }
 
+  @Override
+  protected boolean isBuilderThreadSafe() {
+    return true;
+  }
+
+  @Override
+  protected RegistrySnapshot.Codec<RegionRecord> getSnapshotCodec() {
+    return RegionRecord.CODEC;
+  }
+
   @Override
   public ImmutableSet<Region> getImpactedRegions(Location location) {
     if (!location.isOnField()) {
@@ -90,11 +107,17 @@ public class FieldRegionRegistry extends Registry<RegionRecord> implements Regio
       return ImmutableSet.of();
     }
     OnField field = location.toField();
-    return findRecordsWithHashHint(
-            candidate ->
-                candidate.encClass.equals(field.clazz) && field.isOnFieldWithName(candidate.member),
-            RegionRecord.hash(field.clazz))
-        .map(regionRecord -> regionRecord.region)
-        .collect(ImmutableSet.toImmutableSet());
+    if (field.variables.size() == 1) {
+      ImmutableSet<Region> regions = usages.get(field.clazz, field.variables.iterator().next());
+      return regions == null ? ImmutableSet.of() : regions;
+    }
+    ImmutableSet.Builder<Region> builder = ImmutableSet.builder();
+    for (String variable : field.variables) {
+      ImmutableSet<Region> regions = usages.get(field.clazz, variable);
+      if (regions != null) {
+        builder.addAll(regions);
+      }
+    }
+    return builder.build();
   }
 }
@@ -25,9 +25,11 @@
 package edu.ucr.cs.riple.core.registries.region;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.Registry;
+import edu.ucr.cs.riple.core.registries.RegistrySnapshot;
 import edu.ucr.cs.riple.core.registries.method.MethodRecord;
 import edu.ucr.cs.riple.core.util.Utility;
 import edu.ucr.cs.riple.injector.location.Location;
@@ -43,6 +45,9 @@ public class MethodRegionRegistry extends Registry<RegionRecord> implements Regi
   /** ModuleInfo of the module which usage of methods are stored. */
   private final ModuleInfo moduleInfo;
 
+  /** Regions where each method is used, indexed by the enclosing class and the method signature. */
+  private final ImmutableTable<String, String, ImmutableSet<Region>> usages;
+
   public MethodRegionRegistry(ModuleInfo moduleInfo, Context context) {
     super(
         moduleInfo.getModuleConfigurations().stream()
@@ -50,6 +55,8 @@ public class MethodRegionRegistry extends Registry<RegionRecord> implements Regi
             .collect(ImmutableSet.toImmutableSet()),
         context);
     this.moduleInfo = moduleInfo;
+    this.usages =
+        indexBy(record -> record.encClass, record -> record.member, record -> record.region);
   }
 
   @Override
@@ -57,6 +64,16 @@ public class MethodRegionRegistry extends Registry<RegionRecord> implements Regi
     return Utility::deserializeImpactedRegionRecord;
   }
 
+  @Override
+  protected boolean isBuilderThreadSafe() {
+    return true;
+  }
+
+  @Override
+  protected RegistrySnapshot.Codec<RegionRecord> getSnapshotCodec() {
+    return RegionRecord.CODEC;
+  }
+
   @Override
   public ImmutableSet<Region> getImpactedRegions(Location location) {
     if (!location.isOnMethod()) {
@@ -83,12 +100,7 @@ public class MethodRegionRegistry extends Registry<RegionRecord> implements Regi
     }
     OnMethod onMethod = location.toMethod();
     // Add callers of method.
-    return findRecordsWithHashHint(
-            candidate ->
-                candidate.encClass.equals(onMethod.clazz)
-                    && candidate.member.equals(onMethod.method),
-            RegionRecord.hash(onMethod.clazz))
-        .map(node -> node.region)
-        .collect(ImmutableSet.toImmutableSet());
+    ImmutableSet<Region> regions = usages.get(onMethod.clazz, onMethod.method);
+    return regions == null ? ImmutableSet.of() : regions;
   }
 }
@@ -24,6 +24,9 @@
 
 package edu.ucr.cs.riple.core.registries.region;
 
+import edu.ucr.cs.riple.core.registries.RegistrySnapshot;
+import edu.ucr.cs.riple.scanner.generatedcode.SourceType;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -42,6 +45,30 @@ public class RegionRecord {
   /** Region where the {@link RegionRecord#member} is used. */
   public final Region region;
 
+  /** Codec of region records in registry snapshots. */
+  static final RegistrySnapshot.Codec<RegionRecord> CODEC =
+      new RegistrySnapshot.Codec<>() {
+        @Override
+        public void write(RegionRecord record, RegistrySnapshot.Writer writer)
+            throws IOException {
+          writer.writeString(record.region.clazz);
+          writer.writeString(record.region.member);
+          writer.writeString(record.region.sourceType.name());
+          writer.writeString(record.member);
+          writer.writeString(record.encClass);
+        }
+
+        @Override
+        public RegionRecord read(RegistrySnapshot.Reader reader) {
+          Region region =
+              new Region(
+                  reader.readString(),
+                  reader.readString(),
+                  SourceType.valueOf(reader.readString()));
+          return new RegionRecord(region, reader.readString(), reader.readString());
+        }
+      };
+
   public RegionRecord(Region region, String member, String encClass) {
     this.region = region;
     this.member = member;
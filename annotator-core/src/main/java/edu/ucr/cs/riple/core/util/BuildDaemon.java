@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core.util;
+
+import com.google.common.base.Preconditions;
+import edu.ucr.cs.riple.core.Config;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived build backend which keeps the build tool resident across builds. The daemon process is
+ * started once with {@link Config#buildDaemonCommand} and receives build requests through a line
+ * protocol over its standard streams:
+ *
+ * <ul>
+ *   <li>For each build, Annotator writes the build command (e.g. {@link Config#buildCommand}) as a
+ *       single line to the standard input of the daemon.
+ *   <li>The daemon runs the requested build and writes a line starting with {@code DONE} to its
+ *       standard output once the checker outputs are serialized. All other lines written to the
+ *       standard output are treated as build output.
+ *   <li>Once Annotator is finished, the standard input of the daemon is closed and the daemon is
+ *       expected to exit.
+ * </ul>
+ *
+ * This removes the process spawn and configuration time of the build tool from each build, e.g. a
+ * wrapper can keep a Gradle Tooling API connection open and run each request on it.
+ */
+public class BuildDaemon implements AutoCloseable {
+
+  /** Prefix of the line written by the daemon once a requested build is finished. */
+  public static final String DONE = "DONE";
+
+  /** Command to start the daemon. */
+  private final String command;
+
+  /** Daemon process. */
+  private final Process process;
+
+  /** Writer to the standard input of the daemon to submit requests. */
+  private final BufferedWriter requests;
+
+  /** Reader of the standard output of the daemon to receive responses. */
+  private final BufferedReader responses;
+
+  /** If true, build output of the daemon is written to std error. */
+  private final boolean redirectBuildOutputToStdErr;
+
+  /**
+   * Starts the build daemon.
+   *
+   * @param config Annotator configuration.
+   */
+  public BuildDaemon(Config config) {
+    this.command = config.buildDaemonCommand;
+    this.redirectBuildOutputToStdErr = config.redirectBuildOutputToStdErr;
+    ProcessBuilder pb = new ProcessBuilder("/bin/sh", "-c", command);
+    pb.redirectError(
+        redirectBuildOutputToStdErr
+            ? ProcessBuilder.Redirect.INHERIT
+            : ProcessBuilder.Redirect.DISCARD);
+    try {
+      this.process = pb.start();
+    } catch (IOException e) {
+      throw new RuntimeException("Could not start build daemon with command: " + command, e);
+    }
+    this.requests =
+        new BufferedWriter(
+            new OutputStreamWriter(process.getOutputStream(), Charset.defaultCharset()));
+    this.responses =
+        new BufferedReader(
+            new InputStreamReader(process.getInputStream(), Charset.defaultCharset()));
+  }
+
+  /**
+   * Submits the given build command to the daemon and waits until the build is finished.
+   *
+   * @param buildCommand Build command to submit.
+   */
+  public synchronized void build(String buildCommand) {
+    Preconditions.checkArgument(
+        !buildCommand.contains("\n"),
+        "Build commands submitted to the build daemon must be single line: " + buildCommand);
+    try {
+      requests.write(buildCommand);
+      requests.newLine();
+      requests.flush();
+      String line;
+      while ((line = responses.readLine()) != null) {
+        if (line.startsWith(DONE)) {
+          return;
+        }
+        if (redirectBuildOutputToStdErr) {
+          System.err.println(line);
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Exception happened in communicating with build daemon for command: " + buildCommand, e);
+    }
+    throw new RuntimeException(
+        "Build daemon started with: "
+            + command
+            + " terminated before finishing the build: "
+            + buildCommand);
+  }
+
+  /** Closes the standard input of the daemon and waits for it to exit. */
+  @Override
+  public synchronized void close() {
+    try {
+      requests.close();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroy();
+      }
+    } catch (IOException e) {
+      process.destroy();
+    } catch (InterruptedException e) {
+      process.destroy();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -31,6 +31,7 @@ import com.google.gson.JsonObject;
 import edu.ucr.cs.riple.core.Config;
 import edu.ucr.cs.riple.core.Context;
 import edu.ucr.cs.riple.core.Report;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.CompilerRunner;
 import edu.ucr.cs.riple.core.module.ModuleConfiguration;
 import edu.ucr.cs.riple.core.module.ModuleInfo;
 import edu.ucr.cs.riple.core.registries.index.Error;
@@ -136,7 +137,7 @@ public class Utility {
    * @return Set of collected fixes.
    */
   public static Set<Fix> readFixesFromOutputDirectory(Context context, ModuleInfo moduleInfo) {
-    return Error.getResolvingFixesOfErrors(context.checker.deserializeErrors(moduleInfo));
+    return context.checker.getErrorSnapshot(moduleInfo).getResolvingFixes();
   }
 
   /**
@@ -148,7 +149,7 @@ public class Utility {
    */
   public static <T extends Error> Set<T> readErrorsFromOutputDirectory(
       Context context, ModuleInfo moduleInfo, Class<T> klass) {
-    return context.checker.deserializeErrors(moduleInfo).stream()
+    return context.checker.getErrorSnapshot(moduleInfo).getErrors().stream()
         .map(klass::cast)
         .collect(Collectors.toSet());
   }
@@ -197,6 +198,7 @@ public class Utility {
       Context context, ImmutableSet<ModuleConfiguration> configurations, String buildCommand) {
     Utility.setScannerCheckerActivation(context.config, configurations, true);
     Utility.build(context, buildCommand);
+    context.recordBuild();
     Utility.setScannerCheckerActivation(context.config, configurations, false);
   }
 
@@ -223,20 +225,63 @@ public class Utility {
   public static void buildDownstreamDependencies(Context context) {
     context.checker.prepareConfigFilesForBuild(context.downstreamConfigurations);
     build(context, context.config.downstreamDependenciesBuildCommand);
+    context.recordBuild();
   }
 
   /**
-   * Builds target with control on field initialization serialization.
+   * Builds target with control on field initialization serialization. The target is built by
+   * {@link Context#targetCompilerRunner}, unless outputs of the build are restored from {@link
+   * Context#buildCache}.
    *
    * @param context Annotator context.
    */
   public static void buildTarget(Context context) {
+    buildTarget(context, context.targetCompilerRunner::run);
+  }
+
+  /**
+   * Builds target on sources with temporary changes, e.g. fixes under evaluation. Similar to {@link
+   * #buildTarget(Context)}, but outputs of the build are not used as the base of later partial
+   * builds, see {@link CompilerRunner#runOnTemporaryChanges()}.
+   *
+   * @param context Annotator context.
+   */
+  public static void buildTargetWithTemporaryChanges(Context context) {
+    buildTarget(context, context.targetCompilerRunner::runOnTemporaryChanges);
+  }
+
+  /**
+   * Builds target with the given build, unless outputs of the build are restored from {@link
+   * Context#buildCache}.
+   *
+   * @param context Annotator context.
+   * @param build Runs the build of the target module.
+   */
+  private static void buildTarget(Context context, Runnable build) {
     context.checker.prepareConfigFilesForBuild(context.targetModuleInfo.getModuleConfigurations());
-    build(context, context.config.buildCommand);
+    if (context.buildCache != null) {
+      context.buildCache.build(build);
+    } else {
+      build.run();
+    }
+    context.recordBuild();
   }
 
   /**
-   * Builds module(s).
+   * Builds target where changes since the latest full build can only affect the given source
+   * files. If incremental recompilation is activated, only the given source files are recompiled.
+   *
+   * @param context Annotator context.
+   * @param affectedFiles Source files which can be affected by changes since the latest full build.
+   */
+  public static void buildTarget(Context context, ImmutableSet<Path> affectedFiles) {
+    context.checker.prepareConfigFilesForBuild(context.targetModuleInfo.getModuleConfigurations());
+    context.targetCompilerRunner.run(affectedFiles);
+    context.recordBuild();
+  }
+
+  /**
+   * Builds module(s). If a build daemon is running, the command is submitted to the daemon.
    *
    * @param context Annotator context.
    * @param command Command to run to build module(s).
@@ -244,7 +289,11 @@ public class Utility {
   public static void build(Context context, String command) {
     try {
       long timer = context.log.startTimer();
-      Utility.executeCommand(context.config, command);
+      if (context.buildDaemon != null) {
+        context.buildDaemon.build(command);
+      } else {
+        Utility.executeCommand(context.config, command);
+      }
       context.log.stopTimerAndCaptureBuildTime(timer);
       context.log.incrementBuildRequest();
     } catch (Exception e) {
@@ -282,6 +331,8 @@ public class Utility {
    */
   public static void writeLog(Context context) {
     Path path = context.config.globalDir.resolve("log.txt");
+    context.log.updateParserStatistics(
+        context.parserCache.getParses(), context.parserCache.getHits());
     try {
       Files.write(path, Collections.singleton(context.log.toString()), Charset.defaultCharset());
     } catch (IOException exception) {
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import edu.ucr.cs.riple.core.cache.BuildCache;
+import edu.ucr.cs.riple.core.module.ModuleConfiguration;
+import edu.ucr.cs.riple.core.tools.CoreTestHelper;
+import edu.ucr.cs.riple.core.tools.Utility;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests reusing outputs of builds on the same state of sources, and invalidating them on changes
+ * of dependencies of the build.
+ */
+@RunWith(JUnit4.class)
+public class BuildCacheTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Root of tests. */
+  private Path root;
+
+  /** Dependency of the build on the class path. */
+  private Path library;
+
+  /** Number of builds performed. */
+  private int builds;
+
+  @Before
+  public void init() throws IOException {
+    root = temporaryFolder.getRoot().toPath();
+    library = root.resolve("library.jar");
+    Files.writeString(library, "v1");
+    // Argument file of in-process compilation, read by the helper at "javac.args".
+    Files.writeString(root.resolve("javac.args"), "-classpath \"" + library + "\"\n");
+    builds = 0;
+  }
+
+  @Test
+  public void sameStateIsRestoredTest() throws IOException {
+    Context context = createContext(true);
+    BuildCache cache = new BuildCache(context);
+    Path errors = build(cache, context);
+    Assert.assertEquals(1, builds);
+    Files.delete(errors);
+    build(cache, context);
+    Assert.assertEquals(1, builds);
+    Assert.assertEquals("build 1", Files.readString(errors));
+  }
+
+  @Test
+  public void injectedChangesChangeKeyTest() throws IOException {
+    Context context = createContext(true);
+    BuildCache cache = new BuildCache(context);
+    Set<AddMarkerAnnotation> changes =
+        Collections.singleton(
+            new AddMarkerAnnotation(
+                new OnField("Foo.java", "test.Foo", Collections.singleton("f")),
+                "javax.annotation.Nullable"));
+    Path errors = build(cache, context);
+    cache.recordInjectedChanges(changes);
+    build(cache, context);
+    Assert.assertEquals(2, builds);
+    Assert.assertEquals("build 2", Files.readString(errors));
+    cache.recordRemovedChanges(changes);
+    build(cache, context);
+    Assert.assertEquals(2, builds);
+    Assert.assertEquals("build 1", Files.readString(errors));
+  }
+
+  @Test
+  public void entriesAreReusedAcrossRunsTest() {
+    Context context = createContext(true);
+    build(new BuildCache(context), context);
+    build(new BuildCache(context), context);
+    Assert.assertEquals(1, builds);
+  }
+
+  @Test
+  public void dependencyChangeInvalidatesEntriesTest() throws IOException {
+    Context context = createContext(true);
+    build(new BuildCache(context), context);
+    Files.writeString(library, "version 2");
+    build(new BuildCache(context), context);
+    Assert.assertEquals(2, builds);
+  }
+
+  @Test
+  public void argumentsChangeInvalidatesEntriesTest() throws IOException {
+    Context context = createContext(true);
+    build(new BuildCache(context), context);
+    Files.writeString(
+        root.resolve("javac.args"), "-classpath \"" + library + "\" -Xep:NullAway:WARN\n");
+    build(new BuildCache(context), context);
+    Assert.assertEquals(2, builds);
+  }
+
+  @Test
+  public void entriesAreScopedToRunWithoutArgumentsFileTest() {
+    Context context = createContext(false);
+    BuildCache cache = new BuildCache(context);
+    build(cache, context);
+    build(cache, context);
+    Assert.assertEquals(1, builds);
+    // Dependencies of the build are unknown, entries of another run are not reused.
+    build(new BuildCache(context), context);
+    Assert.assertEquals(2, builds);
+  }
+
+  /**
+   * Creates a context with the build cache activated on an empty project.
+   *
+   * @param inProcessCompilation If true, in-process compilation is activated.
+   * @return Created context.
+   */
+  private Context createContext(boolean inProcessCompilation) {
+    CoreTestHelper helper =
+        new CoreTestHelper(root, root)
+            .onEmptyProject()
+            .withBuildCacheDirectory(root.resolve("build-cache"));
+    if (inProcessCompilation) {
+      helper.withInProcessCompilation();
+    }
+    Path configPath = root.resolve("context.json");
+    helper.makeAnnotatorConfigFile(configPath);
+    Context[] context = new Context[1];
+    Utility.runTestWithMockedBuild(root, () -> context[0] = new Context(new Config(configPath)));
+    return context[0];
+  }
+
+  /**
+   * Builds the target module with the given cache, the build writes the number of builds performed
+   * to the errors file.
+   *
+   * @param cache Build cache.
+   * @param context Annotator context.
+   * @return Path to the errors file.
+   */
+  private Path build(BuildCache cache, Context context) {
+    ModuleConfiguration configuration =
+        context.targetModuleInfo.getModuleConfigurations().iterator().next();
+    Path errors = configuration.dir.resolve("errors.tsv");
+    cache.build(
+        () -> {
+          builds++;
+          try {
+            Files.writeString(errors, "build " + builds);
+          } catch (IOException e) {
+            throw new RuntimeException(e);
+          }
+        });
+    return errors;
+  }
+}
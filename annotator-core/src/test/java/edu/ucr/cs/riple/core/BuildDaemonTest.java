@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import edu.ucr.cs.riple.core.tools.CoreTestHelper;
+import edu.ucr.cs.riple.core.util.BuildDaemon;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests submitting builds to a build daemon through its line protocol. */
+@RunWith(JUnit4.class)
+public class BuildDaemonTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Root of tests. */
+  private Path root;
+
+  /** File which the test daemons record the process id of each received build request in. */
+  private Path requests;
+
+  @Before
+  public void init() {
+    root = temporaryFolder.getRoot().toPath();
+    requests = root.resolve("requests");
+  }
+
+  @Test
+  public void buildsRunInSingleProcessTest() throws IOException {
+    // Writes build output before running each build and reports the build as finished after.
+    String command =
+        String.format(
+            "while read -r command; do echo $$ >> %s; echo building; /bin/sh -c \"$command\" 1>&2;"
+                + " echo %s; done; touch %s",
+            requests, BuildDaemon.DONE, root.resolve("closed"));
+    try (BuildDaemon daemon = new BuildDaemon(makeConfig(command))) {
+      daemon.build("sleep 1 && touch " + root.resolve("first"));
+      // The build is finished once the daemon reports it.
+      Assert.assertTrue(Files.exists(root.resolve("first")));
+      daemon.build("touch " + root.resolve("second"));
+      Assert.assertTrue(Files.exists(root.resolve("second")));
+    }
+    // Closing the standard input stops the daemon.
+    Assert.assertTrue(Files.exists(root.resolve("closed")));
+    List<String> processes = Files.readAllLines(requests);
+    Assert.assertEquals(2, processes.size());
+    Assert.assertEquals(processes.get(0), processes.get(1));
+  }
+
+  @Test
+  public void multiLineCommandTest() {
+    String command = String.format("while read -r command; do echo %s; done", BuildDaemon.DONE);
+    try (BuildDaemon daemon = new BuildDaemon(makeConfig(command))) {
+      Assert.assertThrows(
+          IllegalArgumentException.class, () -> daemon.build("touch first\ntouch second"));
+    }
+  }
+
+  @Test
+  public void daemonTerminatedBeforeBuildFinishedTest() {
+    // Exits after receiving the first request without reporting it as finished.
+    try (BuildDaemon daemon = new BuildDaemon(makeConfig("read -r command"))) {
+      RuntimeException ex =
+          Assert.assertThrows(RuntimeException.class, () -> daemon.build("echo build"));
+      Assert.assertTrue(ex.getMessage().contains("terminated before finishing the build"));
+    }
+  }
+
+  /**
+   * Creates a config which starts the build daemon with the given command.
+   *
+   * @param command Command to start the build daemon.
+   * @return Config instance.
+   */
+  private Config makeConfig(String command) {
+    Path configPath = root.resolve("context.json");
+    new CoreTestHelper(root, root)
+        .onEmptyProject()
+        .withBuildDaemonCommand(command)
+        .makeAnnotatorConfigFile(configPath);
+    return new Config(configPath);
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import edu.ucr.cs.riple.core.evaluators.graph.ColoringStrategy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link ColoringStrategy} on graphs in compressed sparse row layout, where neighbors of node
+ * {@code i} are stored in {@code neighbors[offsets[i] .. offsets[i + 1])}.
+ */
+@RunWith(JUnit4.class)
+public class ColoringStrategyTest {
+
+  @Test
+  public void adjacentNodesHaveDifferentColorsTest() {
+    Random random = new Random(42);
+    for (int round = 0; round < 50; round++) {
+      int size = 1 + random.nextInt(80);
+      Graph graph = randomGraph(random, size, random.nextDouble());
+      for (ColoringStrategy strategy : ColoringStrategy.values()) {
+        int[] colors = strategy.color(graph.offsets, graph.neighbors, size);
+        verifyColoring(graph, colors);
+        verifyColoring(graph, ColoringStrategy.improve(colors, graph.offsets, graph.neighbors, 5));
+      }
+    }
+  }
+
+  @Test
+  public void emptyGraphTest() {
+    Graph graph = new Graph(new int[] {0}, new int[0]);
+    for (ColoringStrategy strategy : ColoringStrategy.values()) {
+      Assert.assertEquals(0, strategy.color(graph.offsets, graph.neighbors, 0).length);
+    }
+  }
+
+  @Test
+  public void crownGraphTest() {
+    int n = 8;
+    Graph graph = crownGraph(n);
+    int greedy =
+        ColoringStrategy.numberOfColors(
+            ColoringStrategy.GREEDY.color(graph.offsets, graph.neighbors, graph.size()));
+    // Greedy coloring in the interleaved order needs a color per pair of the crown.
+    Assert.assertEquals(n, greedy);
+    for (ColoringStrategy strategy :
+        new ColoringStrategy[] {ColoringStrategy.LARGEST_FIRST, ColoringStrategy.DSATUR}) {
+      int[] colors = strategy.color(graph.offsets, graph.neighbors, graph.size());
+      verifyColoring(graph, colors);
+      // The graph is bipartite.
+      Assert.assertEquals(2, ColoringStrategy.numberOfColors(colors));
+    }
+  }
+
+  @Test
+  public void improveNeverIncreasesColorsTest() {
+    Random random = new Random(7);
+    for (int round = 0; round < 20; round++) {
+      int size = 1 + random.nextInt(100);
+      Graph graph = randomGraph(random, size, random.nextDouble() / 2);
+      for (ColoringStrategy strategy : ColoringStrategy.values()) {
+        int[] colors = strategy.color(graph.offsets, graph.neighbors, size);
+        int[] copy = colors.clone();
+        int[] improved = ColoringStrategy.improve(colors, graph.offsets, graph.neighbors, 10);
+        verifyColoring(graph, improved);
+        Assert.assertTrue(
+            ColoringStrategy.numberOfColors(improved) <= ColoringStrategy.numberOfColors(colors));
+        // The initial coloring is not modified.
+        Assert.assertArrayEquals(copy, colors);
+      }
+    }
+  }
+
+  @Test
+  public void improveRespectsTimeLimitTest() {
+    Graph graph = randomGraph(new Random(3), 2000, 0.05);
+    int[] colors = ColoringStrategy.GREEDY.color(graph.offsets, graph.neighbors, 2000);
+    long timeLimit = 200;
+    long start = System.currentTimeMillis();
+    int[] improved = ColoringStrategy.improve(colors, graph.offsets, graph.neighbors, timeLimit);
+    long elapsed = System.currentTimeMillis() - start;
+    verifyColoring(graph, improved);
+    // A single pass on this graph takes a few milliseconds, margin is for slow machines.
+    Assert.assertTrue("Improvement took " + elapsed + "ms", elapsed < timeLimit + 1000);
+    // No pass is performed without time.
+    Assert.assertArrayEquals(
+        colors, ColoringStrategy.improve(colors, graph.offsets, graph.neighbors, 0));
+  }
+
+  /**
+   * Verifies that the given coloring uses consecutive colors starting from 0 and no two adjacent
+   * nodes have the same color.
+   *
+   * @param graph Given graph.
+   * @param colors Colors of nodes.
+   */
+  private static void verifyColoring(Graph graph, int[] colors) {
+    Assert.assertEquals(graph.size(), colors.length);
+    Set<Integer> used = new HashSet<>();
+    for (int u = 0; u < graph.size(); u++) {
+      used.add(colors[u]);
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        Assert.assertNotEquals(colors[u], colors[graph.neighbors[e]]);
+      }
+    }
+    for (int c = 0; c < used.size(); c++) {
+      Assert.assertTrue(used.contains(c));
+    }
+  }
+
+  /**
+   * Creates a crown graph with the given number of pairs, where {@code u_i} is connected to {@code
+   * v_j} for all {@code i != j}. Nodes are ordered as {@code u_1, v_1, u_2, v_2, ...}, followed by
+   * a pendant node connected to each {@code u_i} to break ties of degrees.
+   *
+   * @param n Number of pairs.
+   * @return The crown graph.
+   */
+  private static Graph crownGraph(int n) {
+    List<Set<Integer>> adjacency = emptyAdjacency(3 * n);
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        if (i != j) {
+          connect(adjacency, 2 * i, 2 * j + 1);
+        }
+      }
+      connect(adjacency, 2 * i, 2 * n + i);
+    }
+    return toGraph(adjacency);
+  }
+
+  /**
+   * Creates a random graph where each pair of nodes is connected with the given probability.
+   *
+   * @param random Source of randomness.
+   * @param size Number of nodes.
+   * @param density Probability of an edge between two nodes.
+   * @return The random graph.
+   */
+  private static Graph randomGraph(Random random, int size, double density) {
+    List<Set<Integer>> adjacency = emptyAdjacency(size);
+    for (int u = 0; u < size; u++) {
+      for (int v = u + 1; v < size; v++) {
+        if (random.nextDouble() < density) {
+          connect(adjacency, u, v);
+        }
+      }
+    }
+    return toGraph(adjacency);
+  }
+
+  private static List<Set<Integer>> emptyAdjacency(int size) {
+    List<Set<Integer>> adjacency = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      adjacency.add(new HashSet<>());
+    }
+    return adjacency;
+  }
+
+  private static void connect(List<Set<Integer>> adjacency, int u, int v) {
+    adjacency.get(u).add(v);
+    adjacency.get(v).add(u);
+  }
+
+  /**
+   * Converts adjacency sets to compressed sparse row layout.
+   *
+   * @param adjacency Neighbors of each node.
+   * @return Graph in compressed sparse row layout.
+   */
+  private static Graph toGraph(List<Set<Integer>> adjacency) {
+    int[] offsets = new int[adjacency.size() + 1];
+    for (int i = 0; i < adjacency.size(); i++) {
+      offsets[i + 1] = offsets[i] + adjacency.get(i).size();
+    }
+    int[] neighbors = new int[offsets[adjacency.size()]];
+    for (int i = 0; i < adjacency.size(); i++) {
+      int e = offsets[i];
+      for (int v : adjacency.get(i)) {
+        neighbors[e++] = v;
+      }
+    }
+    return new Graph(offsets, neighbors);
+  }
+
+  /** Graph in compressed sparse row layout. */
+  private static class Graph {
+
+    /** Offsets of the adjacency list of each node in {@link #neighbors}. */
+    private final int[] offsets;
+
+    /** Adjacency lists of all nodes. */
+    private final int[] neighbors;
+
+    private Graph(int[] offsets, int[] neighbors) {
+      this.offsets = offsets;
+      this.neighbors = neighbors;
+    }
+
+    private int size() {
+      return offsets.length - 1;
+    }
+  }
+}
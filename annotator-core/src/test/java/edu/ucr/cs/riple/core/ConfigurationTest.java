@@ -27,6 +27,7 @@ package edu.ucr.cs.riple.core;
 import static edu.ucr.cs.riple.core.tools.Utility.runTestWithMockedBuild;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -34,6 +35,7 @@ import com.github.javaparser.utils.Pair;
 import com.google.common.collect.ImmutableSet;
 import edu.ucr.cs.riple.core.checkers.nullaway.FixSerializationConfig;
 import edu.ucr.cs.riple.core.checkers.nullaway.NullAway;
+import edu.ucr.cs.riple.core.evaluators.graph.ColoringStrategy;
 import edu.ucr.cs.riple.scanner.ScannerConfigWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -276,6 +278,135 @@ public class ConfigurationTest {
         });
   }
 
+  @Test
+  public void testInProcessCompilationFlag() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          Config config = makeConfigWithFlags(requiredFlagsCli);
+          assertNull(config.inProcessCompilationArguments);
+
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlagWithValue("ipc", testDir.resolve("javac.args")));
+          config = makeConfigWithFlags(flags);
+          assertEquals(testDir.resolve("javac.args"), config.inProcessCompilationArguments);
+        });
+  }
+
+  @Test
+  public void testIncrementalRecompilationRequiresInProcessCompilation() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlag("irc"));
+          IllegalArgumentException ex =
+              assertThrows(IllegalArgumentException.class, () -> makeConfigWithFlags(flags));
+          assertTrue(ex.getMessage().contains("requires in-process compilation"));
+
+          flags.add(new CLIFlagWithValue("ipc", testDir.resolve("javac.args")));
+          Config config = makeConfigWithFlags(flags);
+          assertTrue(config.incrementalRecompilation);
+        });
+  }
+
+  @Test
+  public void testParallelWorkersFlags() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlagWithValue("pw", 4));
+          IllegalArgumentException ex =
+              assertThrows(IllegalArgumentException.class, () -> makeConfigWithFlags(flags));
+          assertTrue(ex.getMessage().contains("Parallel workers require"));
+
+          flags.add(new CLIFlagWithValue("wsr", testDir.resolve("src")));
+          flags.add(new CLIFlagWithValue("wbc", "cd %WORKSPACE% && ./gradlew compileJava"));
+          Config config = makeConfigWithFlags(flags);
+          assertEquals(4, config.parallelWorkers);
+          assertEquals(testDir.resolve("src"), config.workerSourceRoot);
+          assertEquals("cd %WORKSPACE% && ./gradlew compileJava", config.workerBuildCommand);
+
+          // Workspaces are built with the worker build command only.
+          flags.add(new CLIFlagWithValue("ipc", testDir.resolve("javac.args")));
+          ex = assertThrows(IllegalArgumentException.class, () -> makeConfigWithFlags(flags));
+          assertTrue(ex.getMessage().contains("cannot be used with in-process compilation"));
+        });
+  }
+
+  @Test
+  public void testBuildDaemonCommandFlag() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          Config config = makeConfigWithFlags(requiredFlagsCli);
+          assertNull(config.buildDaemonCommand);
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlagWithValue("bdc", "python3 gradle_daemon.py"));
+          config = makeConfigWithFlags(flags);
+          assertEquals("python3 gradle_daemon.py", config.buildDaemonCommand);
+        });
+  }
+
+  @Test
+  public void testBuildCacheFlags() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          Config config = makeConfigWithFlags(requiredFlagsCli);
+          assertNull(config.buildCacheDirectory);
+          assertEquals(1024, config.buildCacheSizeLimit);
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlagWithValue("bcd", testDir.resolve("build-cache")));
+          flags.add(new CLIFlagWithValue("bcs", 64));
+          config = makeConfigWithFlags(flags);
+          assertEquals(testDir.resolve("build-cache"), config.buildCacheDirectory);
+          assertEquals(64, config.buildCacheSizeLimit);
+
+          flags.add(new CLIFlagWithValue("ipc", testDir.resolve("javac.args")));
+          flags.add(new CLIFlag("irc"));
+          IllegalArgumentException ex =
+              assertThrows(IllegalArgumentException.class, () -> makeConfigWithFlags(flags));
+          assertTrue(ex.getMessage().contains("cannot be used with incremental recompilation"));
+        });
+  }
+
+  @Test
+  public void testColoringStrategyFlags() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          Config config = makeConfigWithFlags(requiredFlagsCli);
+          assertEquals(ColoringStrategy.GREEDY, config.coloringStrategy);
+          assertEquals(0, config.coloringImprovementTimeLimit);
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlagWithValue("cs", "DSatur"));
+          flags.add(new CLIFlagWithValue("cit", 500));
+          config = makeConfigWithFlags(flags);
+          assertEquals(ColoringStrategy.DSATUR, config.coloringStrategy);
+          assertEquals(500, config.coloringImprovementTimeLimit);
+
+          List<CLIFlag> invalid = new ArrayList<>(requiredFlagsCli);
+          invalid.add(new CLIFlagWithValue("cs", "random"));
+          assertThrows(IllegalArgumentException.class, () -> makeConfigWithFlags(invalid));
+        });
+  }
+
+  @Test
+  public void testParserCacheSizeFlag() {
+    runTestWithMockedBuild(
+        testDir,
+        () -> {
+          Config config = makeConfigWithFlags(requiredFlagsCli);
+          assertEquals(64, config.parserCacheSizeLimit);
+          List<CLIFlag> flags = new ArrayList<>(requiredFlagsCli);
+          flags.add(new CLIFlagWithValue("pcs", 0));
+          config = makeConfigWithFlags(flags);
+          assertEquals(0, config.parserCacheSizeLimit);
+        });
+  }
+
   /**
    * Helper method for creating a {@link Config} object with the given flags. Before creating the
    * config file, it cleans up the existing module output directories.
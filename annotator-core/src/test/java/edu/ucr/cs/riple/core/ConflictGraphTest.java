@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import edu.ucr.cs.riple.core.evaluators.graph.ConflictGraph;
+import edu.ucr.cs.riple.core.evaluators.graph.Node;
+import edu.ucr.cs.riple.core.registries.index.Fix;
+import edu.ucr.cs.riple.core.registries.region.Region;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnMethod;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests edges of {@link ConflictGraph} computed from the inverted index of regions against
+ * intersecting regions of all pairs of nodes.
+ */
+@RunWith(JUnit4.class)
+public class ConflictGraphTest {
+
+  @Test
+  public void edgesOfHandWrittenGraphTest() {
+    ConflictGraph graph = new ConflictGraph();
+    Node empty = addNode(graph, 0);
+    Node first = addNode(graph, 1, "A:m1", "A:m2", "B:m1");
+    // Shares two regions with the first node, but is connected with a single edge.
+    Node second = addNode(graph, 2, "A:m1", "A:m2");
+    Node third = addNode(graph, 3, "B:m1", "C:m1");
+    // Equal regions are added twice to the same node.
+    Node fourth = addNode(graph, 4, "D:m1", "D:m1", "C:m1");
+    Node isolated = addNode(graph, 5, "E:m1");
+    graph.findGroups();
+    Assert.assertEquals(Collections.emptySet(), graph.getNeighbors(empty));
+    Assert.assertEquals(Set.of(second, third), graph.getNeighbors(first));
+    Assert.assertEquals(Set.of(first), graph.getNeighbors(second));
+    Assert.assertEquals(Set.of(first, fourth), graph.getNeighbors(third));
+    Assert.assertEquals(Set.of(third), graph.getNeighbors(fourth));
+    Assert.assertEquals(Collections.emptySet(), graph.getNeighbors(isolated));
+    verifyEdges(graph);
+  }
+
+  @Test
+  public void edgesOfRandomGraphsTest() {
+    Random random = new Random(42);
+    for (int round = 0; round < 20; round++) {
+      ConflictGraph graph = new ConflictGraph();
+      int size = 1 + random.nextInt(100);
+      int regions = 1 + random.nextInt(40);
+      for (int i = 0; i < size; i++) {
+        // Some nodes have no regions, and some regions are drawn more than once for a node.
+        int count = random.nextInt(5);
+        String[] names = new String[count];
+        for (int j = 0; j < count; j++) {
+          names[j] = "C" + random.nextInt(regions) + ":m";
+        }
+        addNode(graph, i, names);
+      }
+      graph.findGroups();
+      verifyEdges(graph);
+    }
+  }
+
+  @Test
+  public void edgesAreRecomputedAfterClearTest() {
+    ConflictGraph graph = new ConflictGraph();
+    Node node = addNode(graph, 0, "A:m1");
+    addNode(graph, 1, "A:m1");
+    graph.findGroups();
+    Assert.assertEquals(1, graph.getNeighbors(node).size());
+    graph.clear();
+    Assert.assertThrows(IllegalArgumentException.class, () -> graph.getNeighbors(node));
+    Node other = addNode(graph, 2, "A:m1");
+    graph.findGroups();
+    Assert.assertEquals(Collections.emptySet(), graph.getNeighbors(other));
+  }
+
+  /**
+   * Verifies that two nodes are connected if and only if they share a region, no node is connected
+   * to itself, and nodes in the same group are not connected.
+   *
+   * @param graph Graph with computed groups.
+   */
+  private static void verifyEdges(ConflictGraph graph) {
+    List<Node> nodes = graph.getNodes().collect(Collectors.toList());
+    for (Node node : nodes) {
+      Set<Node> expected = new HashSet<>();
+      for (Node other : nodes) {
+        if (other != node && !Collections.disjoint(node.regions, other.regions)) {
+          expected.add(other);
+        }
+      }
+      Assert.assertEquals(expected, graph.getNeighbors(node));
+    }
+    for (Set<Node> group : graph.getGroups()) {
+      for (Node node : group) {
+        Assert.assertTrue(Collections.disjoint(group, graph.getNeighbors(node)));
+      }
+    }
+    Assert.assertEquals(nodes.size(), graph.getGroups().stream().mapToInt(Set::size).sum());
+  }
+
+  /**
+   * Adds a node to the graph with the given regions.
+   *
+   * @param graph Given graph.
+   * @param index Index of the node, used to create a unique fix.
+   * @param regions Regions in "class:member" format, equal regions are created as new instances.
+   * @return The added node.
+   */
+  private static Node addNode(ConflictGraph graph, int index, String... regions) {
+    Node node =
+        graph.addNodeToVertices(
+            new Fix(
+                new AddMarkerAnnotation(
+                    new OnMethod("A.java", "test.A", "m" + index + "()"),
+                    "javax.annotation.Nullable")));
+    for (String region : regions) {
+      String[] parts = region.split(":");
+      node.regions.add(new Region(parts[0], parts[1]));
+    }
+    return node;
+  }
+}
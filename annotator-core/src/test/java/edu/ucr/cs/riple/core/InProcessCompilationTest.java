@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import edu.ucr.cs.riple.core.registries.region.Region;
+import edu.ucr.cs.riple.core.util.Utility;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnMethod;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Tests compiling the target module in-process against running its build command, and partial
+ * builds of incremental recompilation against full builds. All must produce the same errors.
+ */
+public class InProcessCompilationTest extends AnnotatorBaseCoreTest {
+
+  public InProcessCompilationTest() {
+    super("nullable-multi-modular");
+  }
+
+  @Test
+  public void errorsMatchBuildCommandTest() {
+    coreTestHelper
+        .onTarget()
+        .withSourceDirectory("test", "multiplereturnnullable")
+        .expectNoReport();
+    Path configPath = outDirPath.resolve("config.json");
+    coreTestHelper.withInProcessCompilation().makeAnnotatorConfigFile(configPath);
+    // The initial build in context creation writes the javac arguments of the target module.
+    Context context = new Context(new Config(configPath));
+    Path errors = context.targetConfiguration.dir.resolve("errors.tsv");
+    context.checker.prepareConfigFilesForBuild(context.targetModuleInfo.getModuleConfigurations());
+    Utility.build(context, context.config.buildCommand);
+    Multiset<String> expected = readErrors(errors);
+    // Header and at least one error.
+    assertTrue(expected.size() > 1);
+    Utility.buildTarget(context);
+    assertEquals(expected, readErrors(errors));
+  }
+
+  @Test
+  public void partialBuildErrorsMatchFullBuildTest() {
+    coreTestHelper
+        .onTarget()
+        .withSourceLines(
+            "test/A.java",
+            "package test;",
+            "public class A {",
+            "  public Object get(boolean b) {",
+            "    return b ? null : new Object();",
+            "  }",
+            "}")
+        .withSourceLines(
+            "test/B.java",
+            "package test;",
+            "public class B {",
+            "  public int run(A a) {",
+            "    return a.get(true).hashCode();",
+            "  }",
+            "}")
+        .expectNoReport();
+    Path configPath = outDirPath.resolve("config.json");
+    coreTestHelper.withIncrementalRecompilation().makeAnnotatorConfigFile(configPath);
+    Context context = new Context(new Config(configPath));
+    Path errors = context.targetConfiguration.dir.resolve("errors.tsv");
+    Path source = unitTestProjectPath.resolve("Target/src/main/java/test/A.java");
+    Path impacted = unitTestProjectPath.resolve("Target/src/main/java/test/B.java");
+    // Full build on the base state of sources, errors of partial builds are merged with its errors.
+    Utility.buildTarget(context);
+    Multiset<String> base = readErrors(errors);
+    OnMethod onMethod = new OnMethod(source, "test.A", "get(boolean)");
+    ImmutableSet.Builder<Path> affectedFiles = ImmutableSet.builder();
+    affectedFiles.add(source);
+    // Making the return type nullable moves the error to the impacted region in B.
+    for (Region region :
+        context.targetModuleInfo.getRegionRegistry().getImpactedRegions(onMethod)) {
+      affectedFiles.add(context.targetModuleInfo.getLocationOnClass(region.clazz).path);
+    }
+    assertTrue(affectedFiles.build().contains(impacted));
+    context.injector.injectAnnotations(
+        Set.of(new AddMarkerAnnotation(onMethod, "javax.annotation.Nullable")));
+    Utility.buildTarget(context, affectedFiles.build());
+    Multiset<String> merged = readErrors(errors);
+    assertNotEquals(base, merged);
+    Utility.buildTargetWithTemporaryChanges(context);
+    assertEquals(readErrors(errors), merged);
+  }
+
+  /**
+   * Reads the errors serialized by the checker and deletes the file, so it is rewritten by the
+   * next build.
+   *
+   * @param path Path to errors file.
+   * @return Rows of the errors file.
+   */
+  private static Multiset<String> readErrors(Path path) {
+    try {
+      List<String> lines = Files.readAllLines(path);
+      Files.delete(path);
+      return HashMultiset.create(lines);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not read errors at: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import edu.ucr.cs.riple.core.evaluators.graph.processors.InProcessCompilerRunner;
+import edu.ucr.cs.riple.core.tools.CoreTestHelper;
+import edu.ucr.cs.riple.core.tools.Utility;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests compiling sources in-process with the arguments of a javac argument file. */
+@RunWith(JUnit4.class)
+public class InProcessCompilerRunnerTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Root of tests. */
+  private Path root;
+
+  /** Path to the compiled source file. */
+  private Path source;
+
+  /** Class output directory, contains a whitespace to be quoted in argument files. */
+  private Path classes;
+
+  private Context context;
+
+  @Before
+  public void init() {
+    root = temporaryFolder.getRoot().toPath();
+    source = root.resolve("src").resolve("test").resolve("Foo.java");
+    classes = root.resolve("class output");
+    CoreTestHelper helper = new CoreTestHelper(root, root).onEmptyProject();
+    Path configPath = root.resolve("context.json");
+    helper.makeAnnotatorConfigFile(configPath);
+    Utility.runTestWithMockedBuild(root, () -> context = new Context(new Config(configPath)));
+  }
+
+  @Test
+  public void compileWithQuotedArgumentsTest() {
+    write(source, "package test;", "public class Foo {}");
+    Path arguments = writeArguments("-d \"" + classes + "\"\n'" + source + "'");
+    new InProcessCompilerRunner(context, arguments).run();
+    Assert.assertTrue(Files.exists(classes.resolve("test").resolve("Foo.class")));
+  }
+
+  @Test
+  public void recompileChangedSourcesTest() {
+    write(source, "package test;", "public class Foo {}");
+    Path arguments = writeArguments("-d \"" + classes + "\" \"" + source + "\"");
+    InProcessCompilerRunner runner = new InProcessCompilerRunner(context, arguments);
+    runner.run();
+    Assert.assertFalse(Files.exists(classes.resolve("test").resolve("Foo$Bar.class")));
+    // The compiler and its file manager are reused, changes on sources must still be visible.
+    write(source, "package test;", "public class Foo {", "  static class Bar {}", "}");
+    runner.run();
+    Assert.assertTrue(Files.exists(classes.resolve("test").resolve("Foo$Bar.class")));
+  }
+
+  @Test
+  public void nestedArgumentFileTest() {
+    Path arguments = writeArguments("-d \"" + classes + "\" @" + root.resolve("other.args"));
+    Assert.assertThrows(
+        IllegalArgumentException.class, () -> new InProcessCompilerRunner(context, arguments));
+  }
+
+  @Test
+  public void unterminatedQuoteTest() {
+    Path arguments = writeArguments("-d \"" + classes);
+    Assert.assertThrows(
+        IllegalArgumentException.class, () -> new InProcessCompilerRunner(context, arguments));
+  }
+
+  /**
+   * Writes the given content to a javac argument file.
+   *
+   * @param content Content of the argument file.
+   * @return Path to the argument file.
+   */
+  private Path writeArguments(String content) {
+    Path path = root.resolve("javac.args");
+    write(path, content);
+    return path;
+  }
+
+  /**
+   * Writes the given lines to the file at the given path.
+   *
+   * @param path Path to the file.
+   * @param lines Lines of the file.
+   */
+  private static void write(Path path, String... lines) {
+    try {
+      Files.createDirectories(path.getParent());
+      Files.writeString(path, String.join("\n", lines) + "\n");
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write file at: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Multiset;
+import edu.ucr.cs.riple.core.module.IncrementalScanner;
+import edu.ucr.cs.riple.scanner.Serializer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class IncrementalScanningTest extends AnnotatorBaseCoreTest {
+
+  /** Scanner outputs which are compared row by row. */
+  private static final List<String> OUTPUT_FILE_NAMES =
+      List.of(
+          Serializer.CLASS_RECORD_FILE_NAME,
+          Serializer.NON_NULL_ELEMENTS_FILE_NAME,
+          Serializer.FIELD_IMPACTED_REGION_FILE_NAME,
+          Serializer.METHOD_IMPACTED_REGION_FILE_NAME);
+
+  public IncrementalScanningTest() {
+    super("nullable-multi-modular");
+  }
+
+  @Test
+  public void assembledOutputsMatchFullScanTest() {
+    Path partitions = outDirPath.resolve("partitions");
+    coreTestHelper
+        .onTarget()
+        .withSourceDirectory("test", "multiplereturnnullable")
+        .expectNoReport();
+    // First run scans all source files.
+    Map<String, Multiset<String>> incremental = scan(partitions);
+    assertEquals(scan(null), incremental);
+    Path manifest = partitions.resolve("0").resolve(IncrementalScanner.MANIFEST_FILE_NAME);
+    assertTrue(Files.exists(manifest));
+    ImmutableMap<Path, FileTime> before = readPartitionTimes(partitions, "A.java");
+    // Change a single compilation unit, partitions of source files which do not depend on it are
+    // reused.
+    writeLines(
+        unitTestProjectPath.resolve("Target/src/main/java/test/B.java"),
+        "package test;",
+        "public class B {",
+        "   Object field = new Object();",
+        "   public Object run(Object p) {",
+        "     this.field = p;",
+        "     return p;",
+        "   }",
+        "   @Override",
+        "   public String toString() {",
+        "     return field.toString();",
+        "   }",
+        "}");
+    incremental = scan(partitions);
+    assertEquals(before, readPartitionTimes(partitions, "A.java"));
+    assertEquals(scan(null), incremental);
+  }
+
+  /**
+   * Runs the scanner on the target module and reads its outputs.
+   *
+   * @param partitions Directory of partitions, runs a full scan if null.
+   * @return Rows of each output file by the file name.
+   */
+  private Map<String, Multiset<String>> scan(Path partitions) {
+    Path configPath = outDirPath.resolve("config.json");
+    coreTestHelper.withIncrementalScanningDirectory(partitions).makeAnnotatorConfigFile(configPath);
+    Context context = new Context(new Config(configPath));
+    Path output = context.targetConfiguration.dir;
+    Map<String, Multiset<String>> outputs = new HashMap<>();
+    OUTPUT_FILE_NAMES.forEach(
+        fileName -> outputs.put(fileName, HashMultiset.create(readRows(output.resolve(fileName)))));
+    outputs.put(
+        Serializer.METHOD_RECORD_FILE_NAME,
+        readMethodRecords(output.resolve(Serializer.METHOD_RECORD_FILE_NAME)));
+    try {
+      // Output directory of the module is created again for the next scan.
+      FileUtils.deleteDirectory(output.toFile());
+    } catch (IOException e) {
+      throw new RuntimeException("Could not delete output directory at: " + output, e);
+    }
+    return outputs;
+  }
+
+  /**
+   * Reads method records, ids are assigned in the order of scanning and replaced by the class and
+   * signature of the method. Parents which are not declared in the module have no record.
+   *
+   * @param path Path to method records.
+   * @return Rows of method records without ids.
+   */
+  private static Multiset<String> readMethodRecords(Path path) {
+    List<String[]> rows =
+        readRows(path).stream().map(row -> row.split("\t", 5)).collect(Collectors.toList());
+    Map<String, String> methods = new HashMap<>();
+    rows.forEach(row -> methods.put(row[0], row[1] + "\t" + row[2]));
+    Multiset<String> records = HashMultiset.create();
+    for (String[] row : rows) {
+      String parent = row[3].equals("0") ? "none" : methods.getOrDefault(row[3], "undeclared");
+      records.add(String.join("\t", row[1], row[2], parent, row[4]));
+    }
+    return records;
+  }
+
+  /**
+   * Reads the last modified time of files in partitions of the given source file.
+   *
+   * @param partitions Directory of partitions.
+   * @param fileName Name of the source file.
+   * @return Last modified time of each file in partitions of the source file.
+   */
+  private static ImmutableMap<Path, FileTime> readPartitionTimes(
+      Path partitions, String fileName) {
+    ImmutableMap.Builder<Path, FileTime> times = ImmutableMap.builder();
+    try (Stream<Path> files = Files.walk(partitions)) {
+      for (Path file : files.collect(Collectors.toList())) {
+        Path dependencies = file.getParent().resolve(Serializer.DEPENDENCIES_FILE_NAME);
+        if (Files.isRegularFile(file)
+            && Files.exists(dependencies)
+            && Paths.get(readRows(dependencies).get(0).split("\t")[0])
+                .getFileName()
+                .toString()
+                .equals(fileName)) {
+          times.put(file, Files.getLastModifiedTime(file));
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Could not read partitions at: " + partitions, e);
+    }
+    ImmutableMap<Path, FileTime> result = times.build();
+    assertFalse("No partition found for: " + fileName, result.isEmpty());
+    return result;
+  }
+
+  /**
+   * Writes the given lines to the file at the given path.
+   *
+   * @param path Path to file.
+   * @param lines Lines to write.
+   */
+  private static void writeLines(Path path, String... lines) {
+    try {
+      Files.write(path, List.of(lines));
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write file at: " + path, e);
+    }
+  }
+
+  /**
+   * Reads all rows of the file at the given path except the header.
+   *
+   * @param path Path to file.
+   * @return List of rows.
+   */
+  private static List<String> readRows(Path path) {
+    try {
+      List<String> lines = Files.readAllLines(path);
+      return lines.subList(1, lines.size());
+    } catch (IOException e) {
+      throw new RuntimeException("Could not read file at: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.cache.TargetModuleCache;
+import edu.ucr.cs.riple.core.cache.downstream.VoidDownstreamImpactCache;
+import edu.ucr.cs.riple.core.evaluators.BasicEvaluator;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.CompilerRunner;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.ConflictGraphProcessor;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.ParallelConflictGraphProcessor;
+import edu.ucr.cs.riple.core.evaluators.graph.processors.SequentialConflictGraphProcessor;
+import edu.ucr.cs.riple.core.evaluators.suppliers.TargetModuleSupplier;
+import edu.ucr.cs.riple.core.registries.index.Fix;
+import edu.ucr.cs.riple.core.util.Utility;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+/**
+ * Tests evaluating groups of fixes concurrently in workspaces of parallel workers against
+ * evaluating them one after another on the module sources.
+ */
+public class ParallelWorkersTest extends AnnotatorBaseCoreTest {
+
+  public ParallelWorkersTest() {
+    super("nullable-multi-modular");
+  }
+
+  @Test
+  public void workspaceResultsMatchSequentialTest() {
+    // Fixes on methods used in the same region conflict, therefore each is evaluated in a separate
+    // group.
+    coreTestHelper
+        .onTarget()
+        .withSourceLines(
+            "test/A.java",
+            "package test;",
+            "public class A {",
+            "  Object a() { return null; }",
+            "  Object b() { return null; }",
+            "  Object c() { return null; }",
+            "  int use() { return a().hashCode() + b().hashCode() + c().hashCode(); }",
+            "}")
+        .expectNoReport();
+    // Fixes on sources outside the project cannot be evaluated in workspaces, the group containing
+    // the fix is evaluated on the module sources.
+    Path external = outDirPath.resolve("external");
+    Path outside = external.resolve("test").resolve("B.java");
+    writeLines(
+        outside,
+        "package test;",
+        "public class B {",
+        "  Object f() { return null; }",
+        "  int use() { return f().hashCode(); }",
+        "}");
+    Path configPath = outDirPath.resolve("config.json");
+    coreTestHelper
+        .withParallelWorkers(2)
+        .withExtraSourceDirectory(external)
+        .makeAnnotatorConfigFile(configPath);
+    Context context = new Context(new Config(configPath));
+    Utility.buildTarget(context);
+    ImmutableSet<Fix> fixes =
+        ImmutableSet.copyOf(
+            Utility.readFixesFromOutputDirectory(context, context.targetModuleInfo));
+    assertTrue(
+        fixes.stream()
+            .flatMap(fix -> fix.toLocations().stream())
+            .anyMatch(location -> location.path.endsWith(Path.of("test", "B.java"))));
+    Path source = unitTestProjectPath.resolve("Target/src/main/java/test/A.java");
+    String content = readString(source);
+    Set<String> sequential = evaluate(context, fixes, false);
+    assertFalse(Files.exists(outDirPath.resolve("workers")));
+    Set<String> parallel = evaluate(context, fixes, true);
+    assertEquals(sequential, parallel);
+    // Changes in workspaces are not visible in the hard linked original sources.
+    assertEquals(content, readString(source));
+  }
+
+  /**
+   * Evaluates the given fixes and returns the computed reports.
+   *
+   * @param context Annotator context.
+   * @param fixes Fixes to evaluate.
+   * @param useWorkspaces If true, groups are evaluated in workspaces of parallel workers,
+   *     otherwise fixes are evaluated one after another on the module sources.
+   * @return String representation of the computed reports, containing the effect and the fix tree.
+   */
+  private static Set<String> evaluate(
+      Context context, ImmutableSet<Fix> fixes, boolean useWorkspaces) {
+    TargetModuleSupplier supplier =
+        new TargetModuleSupplier(
+            context, new TargetModuleCache(), new VoidDownstreamImpactCache()) {
+          @Override
+          public ConflictGraphProcessor getGraphProcessor() {
+            CompilerRunner runner = () -> Utility.buildTargetWithTemporaryChanges(context);
+            return useWorkspaces
+                ? new ParallelConflictGraphProcessor(context, runner, this, true)
+                : new SequentialConflictGraphProcessor(context, runner, this);
+          }
+        };
+    return new BasicEvaluator(supplier).evaluate(fixes).stream()
+        .map(Report::toString)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Writes the given lines to the file at the given path.
+   *
+   * @param path Path to the file.
+   * @param lines Lines of the file.
+   */
+  private static void writeLines(Path path, String... lines) {
+    try {
+      Files.createDirectories(path.getParent());
+      Files.write(path, List.of(lines));
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write file at: " + path, e);
+    }
+  }
+
+  /**
+   * Reads the content of the file at the given path.
+   *
+   * @param path Path to the file.
+   * @return Content of the file.
+   */
+  private static String readString(Path path) {
+    try {
+      return Files.readString(path);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not read file at: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import static java.util.Collections.singleton;
+
+import edu.ucr.cs.riple.core.injectors.PhysicalInjector;
+import edu.ucr.cs.riple.core.tools.CoreTestHelper;
+import edu.ucr.cs.riple.core.tools.Utility;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.changes.RemoveMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests sharing parsed trees of source files between registries and the injector through the
+ * parser cache of {@link Context}, against the same injections with the parser cache disabled.
+ */
+@RunWith(JUnit4.class)
+public class ParserCacheTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Root of tests. */
+  private Path root;
+
+  /** Path to the modified source file. */
+  private Path path;
+
+  @Before
+  public void init() {
+    root = temporaryFolder.getRoot().toPath();
+    path = root.resolve("Foo.java");
+  }
+
+  @Test
+  public void injectionsReuseParsedTreesTest() throws IOException {
+    Context context = createContext(64);
+    injectAndRemove(context);
+    // Removals restore the original content, which is only parsed once by the registry.
+    Assert.assertEquals(1, context.parserCache.getParses());
+    // Each of the three injections reuses the parsed tree.
+    Assert.assertTrue(context.parserCache.getHits() >= 3);
+  }
+
+  @Test
+  public void disabledCacheProducesSameSourcesTest() throws IOException {
+    Context cached = createContext(64);
+    List<String> expected = injectAndRemove(cached);
+    Context disabled = createContext(0);
+    List<String> actual = injectAndRemove(disabled);
+    Assert.assertEquals(expected, actual);
+    // Every request parses the source file when the cache is disabled.
+    Assert.assertEquals(0, disabled.parserCache.getHits());
+    Assert.assertEquals(
+        cached.parserCache.getHits() + cached.parserCache.getParses(),
+        disabled.parserCache.getParses());
+  }
+
+  /**
+   * Parses the source file as registries do, then injects and removes annotations on its fields
+   * over several iterations.
+   *
+   * @param context Annotator context.
+   * @return Contents of the source file after each injection and removal.
+   */
+  private List<String> injectAndRemove(Context context) throws IOException {
+    Utility.createAFileWithContent(
+        path,
+        String.join(
+            "\n",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "  Object f;",
+            "  Object h;",
+            "}",
+            ""));
+    context.parserCache.parse(path, context.config.languageLevel);
+    PhysicalInjector injector = new PhysicalInjector(context);
+    List<String> contents = new ArrayList<>();
+    for (String[] fields : new String[][] {{"f"}, {"f", "h"}, {"h"}}) {
+      injector.injectAnnotations(
+          Arrays.stream(fields)
+              .map(field -> new AddMarkerAnnotation(onField(field), "javax.annotation.Nullable"))
+              .collect(Collectors.toSet()));
+      contents.add(Files.readString(path));
+      injector.removeAnnotations(
+          Arrays.stream(fields)
+              .map(field -> new RemoveMarkerAnnotation(onField(field), "javax.annotation.Nullable"))
+              .collect(Collectors.toSet()));
+      contents.add(Files.readString(path));
+    }
+    return contents;
+  }
+
+  /**
+   * Creates a context on an empty project with the given parser cache size.
+   *
+   * @param parserCacheSizeLimit Maximum total size of cached source files in megabytes.
+   * @return Created context.
+   */
+  private Context createContext(long parserCacheSizeLimit) {
+    CoreTestHelper helper =
+        new CoreTestHelper(root, root)
+            .onEmptyProject()
+            .withParserCacheSizeLimit(parserCacheSizeLimit);
+    Path configPath = root.resolve("context.json");
+    helper.makeAnnotatorConfigFile(configPath);
+    Context[] context = new Context[1];
+    Utility.runTestWithMockedBuild(root, () -> context[0] = new Context(new Config(configPath)));
+    return context[0];
+  }
+
+  private OnField onField(String field) {
+    return new OnField(path.toString(), "test.Foo", singleton(field));
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import static java.util.Collections.singleton;
+
+import edu.ucr.cs.riple.core.injectors.PhysicalInjector;
+import edu.ucr.cs.riple.core.tools.CoreTestHelper;
+import edu.ucr.cs.riple.core.tools.Utility;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.changes.RemoveMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests removing annotations right after their injection, which undoes the injection by restoring
+ * the files, against removing them with the injector, which is the fallback if the files cannot be
+ * restored.
+ */
+@RunWith(JUnit4.class)
+public class PhysicalInjectorTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Root of tests. */
+  private Path root;
+
+  /** Path to the modified source file. */
+  private Path path;
+
+  private PhysicalInjector injector;
+  private Context context;
+
+  @Before
+  public void init() {
+    root = temporaryFolder.getRoot().toPath();
+    path = root.resolve("Foo.java");
+    CoreTestHelper helper = new CoreTestHelper(root, root).onEmptyProject();
+    Path configPath = root.resolve("context.json");
+    helper.makeAnnotatorConfigFile(configPath);
+    Utility.runTestWithMockedBuild(
+        root,
+        () -> {
+          Config config = new Config(configPath);
+          context = new Context(config);
+          injector = new PhysicalInjector(context);
+        });
+  }
+
+  @Test
+  public void undoRestoresFileTest() throws IOException {
+    String content =
+        String.join(
+            "\n",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "  Object f;",
+            "  Object h;",
+            "}",
+            "");
+    write(content);
+    FileTime time = FileTime.fromMillis(1_000_000_000L);
+    Files.setLastModifiedTime(path, time);
+    addAnnotationOn("f", "h");
+    Assert.assertTrue(Files.readString(path).contains("@Nullable Object f"));
+    Assert.assertTrue(Files.readString(path).contains("@Nullable Object h"));
+    removeAnnotationOn("f", "h");
+    Assert.assertEquals(content, Files.readString(path));
+    // Only restoring the file restores its last modified time.
+    Assert.assertEquals(time, Files.getLastModifiedTime(path));
+    verifyOffsets(content);
+  }
+
+  @Test
+  public void undoAfterBuildKeepsModifiedTimeTest() throws IOException {
+    String content =
+        String.join(
+            "\n",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "  Object f;",
+            "  Object h;",
+            "}",
+            "");
+    write(content);
+    FileTime time = FileTime.fromMillis(1_000_000_000L);
+    Files.setLastModifiedTime(path, time);
+    addAnnotationOn("f");
+    // The build observes the modified file, its outputs must not look up to date after the undo.
+    context.recordBuild();
+    removeAnnotationOn("f");
+    Assert.assertEquals(content, Files.readString(path));
+    Assert.assertNotEquals(time, Files.getLastModifiedTime(path));
+    verifyOffsets(content);
+  }
+
+  @Test
+  public void fallbackRestoresFileTest() throws IOException {
+    String content =
+        String.join(
+            "\n",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "  Object f;",
+            "  Object h;",
+            "}",
+            "");
+    write(content);
+    addAnnotationOn("f", "h");
+    // Removing a subset of the injected annotations falls back to the injector.
+    removeAnnotationOn("f");
+    Assert.assertTrue(Files.readString(path).contains("@Nullable Object h"));
+    removeAnnotationOn("h");
+    Assert.assertEquals(content, Files.readString(path));
+    verifyOffsets(content);
+  }
+
+  @Test
+  public void fallbackOnModifiedFileTest() throws IOException {
+    String content =
+        String.join(
+            "\n",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "  Object f;",
+            "  Object h;",
+            "}",
+            "");
+    write(content);
+    addAnnotationOn("f", "h");
+    // Files modified after the injection are not restored, the modification must be kept.
+    Utility.appendToFile(path, "// comment\n");
+    removeAnnotationOn("f", "h");
+    Assert.assertEquals(content + "// comment\n", Files.readString(path));
+  }
+
+  @Test
+  public void existingAnnotationTest() throws IOException {
+    String content =
+        String.join(
+            "\n",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "  Object f;",
+            "  @Nullable Object g;",
+            "  Object h;",
+            "}",
+            "");
+    String expected = content.replace("@Nullable Object g", "Object g");
+    write(content);
+    addAnnotationOn("f", "g", "h");
+    removeAnnotationOn("f", "g", "h");
+    String undone = Files.readString(path);
+    write(content);
+    addAnnotationOn("f", "g", "h");
+    removeAnnotationOn("f");
+    removeAnnotationOn("g", "h");
+    Assert.assertEquals(expected, undone);
+    Assert.assertEquals(expected, Files.readString(path));
+  }
+
+  @Test
+  public void addedImportTest() throws IOException {
+    String content =
+        String.join(
+            "\n", "package test;", "public class Foo {", "  Object f;", "  Object h;", "}", "");
+    write(content);
+    addAnnotationOn("f", "h");
+    removeAnnotationOn("f", "h");
+    String undone = Files.readString(path);
+    write(content);
+    addAnnotationOn("f", "h");
+    removeAnnotationOn("f");
+    removeAnnotationOn("h");
+    Assert.assertEquals(Files.readString(path), undone);
+    Assert.assertTrue(undone.contains("import javax.annotation.Nullable;"));
+    Assert.assertFalse(undone.contains("@Nullable Object"));
+  }
+
+  /**
+   * Writes the given content to the modified source file.
+   *
+   * @param content Content of the file.
+   */
+  private void write(String content) {
+    Utility.createAFileWithContent(path, content);
+  }
+
+  /**
+   * Adds annotation on given fields.
+   *
+   * @param fields Field names.
+   */
+  private void addAnnotationOn(String... fields) {
+    injector.injectAnnotations(
+        Arrays.stream(fields)
+            .map(
+                field ->
+                    new AddMarkerAnnotation(
+                        new OnField(path.toString(), "test.Foo", singleton(field)),
+                        "javax.annotation.Nullable"))
+            .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Removes annotation from the given fields.
+   *
+   * @param fields Field names.
+   */
+  private void removeAnnotationOn(String... fields) {
+    injector.removeAnnotations(
+        Arrays.stream(fields)
+            .map(
+                field ->
+                    new RemoveMarkerAnnotation(
+                        new OnField(path.toString(), "test.Foo", singleton(field)),
+                        "javax.annotation.Nullable"))
+            .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Verifies the original offsets of the fields are computed from the current content of the file.
+   *
+   * @param original Original content of the file.
+   */
+  private void verifyOffsets(String original) throws IOException {
+    String content = Files.readString(path);
+    for (String field : new String[] {"f", "h"}) {
+      Assert.assertEquals(
+          original.indexOf("Object " + field),
+          context.offsetHandler.getOriginalOffset(path, content.indexOf("Object " + field)));
+    }
+  }
+}
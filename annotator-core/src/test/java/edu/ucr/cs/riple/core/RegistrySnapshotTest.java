@@ -0,0 +1,235 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import edu.ucr.cs.riple.core.registries.field.FieldRegistry;
+import edu.ucr.cs.riple.core.registries.method.MethodRegistry;
+import edu.ucr.cs.riple.core.tools.CoreTestHelper;
+import edu.ucr.cs.riple.core.tools.Utility;
+import edu.ucr.cs.riple.injector.location.OnField;
+import edu.ucr.cs.riple.injector.location.OnMethod;
+import edu.ucr.cs.riple.scanner.Serializer;
+import edu.ucr.cs.riple.scanner.out.ClassRecord;
+import edu.ucr.cs.riple.scanner.out.MethodRecord;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests registries loaded from snapshots against registries loaded from scanner outputs, and the
+ * invalidation of snapshots once scanner outputs or their dependencies change.
+ */
+@RunWith(JUnit4.class)
+public class RegistrySnapshotTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** Root of tests. */
+  private Path root;
+
+  /** Directory of snapshots. */
+  private Path snapshots;
+
+  private Context context;
+
+  @Before
+  public void init() {
+    root = temporaryFolder.getRoot().toPath();
+    snapshots = root.resolve("snapshots");
+    CoreTestHelper helper =
+        new CoreTestHelper(root, root).onEmptyProject().withRegistrySnapshotDirectory(snapshots);
+    Path configPath = root.resolve("context.json");
+    helper.makeAnnotatorConfigFile(configPath);
+    Utility.runTestWithMockedBuild(
+        root,
+        () -> {
+          Config config = new Config(configPath);
+          context = new Context(config);
+        });
+  }
+
+  @Test
+  public void fieldRegistryRoundTripTest() {
+    Path source = writeFieldSource("Object a, b;", "int c;", "public Object d = null;");
+    FieldRegistry scanned = new FieldRegistry(context.targetConfiguration, context);
+    Path snapshot = snapshotOf(FieldRegistry.class);
+    long requests = context.parserCache.getHits() + context.parserCache.getParses();
+    FieldRegistry loaded = new FieldRegistry(context.targetConfiguration, context);
+    // Records are read from the snapshot without parsing the source file.
+    assertEquals(requests, context.parserCache.getHits() + context.parserCache.getParses());
+    assertEquals(snapshot, snapshotOf(FieldRegistry.class));
+    for (FieldRegistry registry : List.of(scanned, loaded)) {
+      assertEquals(
+          ImmutableSet.of("a", "b"),
+          registry.getInLineMultipleFieldDeclarationsOnField("test.Foo", Set.of("a")));
+      assertEquals(
+          ImmutableSet.of("c"),
+          registry.getInLineMultipleFieldDeclarationsOnField("test.Foo", Set.of("c")));
+      assertTrue(registry.isUninitializedField(new OnField(source, "test.Foo", Set.of("b"))));
+      assertFalse(registry.isUninitializedField(new OnField(source, "test.Foo", Set.of("d"))));
+      assertEquals(ImmutableSet.of(source), registry.getSourceFiles());
+    }
+    assertEquals(
+        scanned.getPublicFieldWithNonPrimitiveType(), loaded.getPublicFieldWithNonPrimitiveType());
+  }
+
+  @Test
+  public void fieldRegistryInvalidationTest() {
+    writeFieldSource("Object a, b;");
+    new FieldRegistry(context.targetConfiguration, context);
+    Path snapshot = snapshotOf(FieldRegistry.class);
+    // Scanner outputs are unchanged, but the source file records are built from is changed.
+    writeFieldSource("Object a, b;", "Object e, f;");
+    FieldRegistry registry = new FieldRegistry(context.targetConfiguration, context);
+    assertEquals(
+        ImmutableSet.of("e", "f"),
+        registry.getInLineMultipleFieldDeclarationsOnField("test.Foo", Set.of("e")));
+    // Snapshot of the previous version is replaced.
+    assertNotEquals(snapshot, snapshotOf(FieldRegistry.class));
+  }
+
+  @Test
+  public void methodRegistryRoundTripTest() {
+    // Overriding methods precede their parents, and the parent of test.B#get() is not declared.
+    writeMethodRecords(
+        "1\ttest.B\trun()\t2\t0\t\tpublic\ttrue\t" + root.resolve("B.java"),
+        "2\ttest.A\trun()\t0\t0\t\tpublic\ttrue\t" + root.resolve("A.java"),
+        "3\ttest.C\trun()\t2\t0\t\tprivate\tfalse\t" + root.resolve("C.java"),
+        "4\ttest.B\tget()\t5\t0\t\tpublic\ttrue\t" + root.resolve("B.java"));
+    MethodRegistry scanned = new MethodRegistry(context);
+    Path snapshot = snapshotOf(MethodRegistry.class);
+    MethodRegistry loaded = new MethodRegistry(context);
+    assertEquals(snapshot, snapshotOf(MethodRegistry.class));
+    OnMethod parent = new OnMethod(root.resolve("A.java"), "test.A", "run()");
+    OnMethod child = new OnMethod(root.resolve("B.java"), "test.B", "run()");
+    OnMethod orphan = new OnMethod(root.resolve("B.java"), "test.B", "get()");
+    for (MethodRegistry registry : List.of(scanned, loaded)) {
+      assertEquals(parent, registry.getImmediateSuperMethod(child).location);
+      assertNull(registry.getImmediateSuperMethod(parent));
+      assertNull(registry.getImmediateSuperMethod(orphan));
+      assertEquals(
+          Set.of("test.B", "test.C"),
+          registry.getImmediateSubMethods(parent).stream()
+              .map(record -> record.location.clazz)
+              .collect(Collectors.toSet()));
+    }
+    for (OnMethod method : List.of(parent, child, orphan)) {
+      assertEquals(
+          scanned.findMethodByName(method.clazz, method.method),
+          loaded.findMethodByName(method.clazz, method.method));
+      assertEquals(scanned.getImmediateSubMethods(method), loaded.getImmediateSubMethods(method));
+    }
+    assertEquals(
+        scanned.getPublicMethodsWithNonPrimitivesReturn(),
+        loaded.getPublicMethodsWithNonPrimitivesReturn());
+  }
+
+  @Test
+  public void methodRegistryInvalidationTest() {
+    writeMethodRecords(
+        "1\ttest.B\trun()\t2\t0\t\tpublic\ttrue\t" + root.resolve("B.java"),
+        "2\ttest.A\trun()\t0\t0\t\tpublic\ttrue\t" + root.resolve("A.java"));
+    new MethodRegistry(context);
+    Path snapshot = snapshotOf(MethodRegistry.class);
+    writeMethodRecords(
+        "1\ttest.B\trun()\t2\t0\t\tpublic\ttrue\t" + root.resolve("B.java"),
+        "2\ttest.A\trun()\t0\t0\t\tpublic\ttrue\t" + root.resolve("A.java"),
+        "3\ttest.C\trun()\t2\t0\t\tpublic\ttrue\t" + root.resolve("C.java"));
+    MethodRegistry registry = new MethodRegistry(context);
+    assertEquals(
+        2,
+        registry
+            .getImmediateSubMethods(new OnMethod(root.resolve("A.java"), "test.A", "run()"))
+            .size());
+    assertNotEquals(snapshot, snapshotOf(MethodRegistry.class));
+  }
+
+  /**
+   * Writes the source file of class {@code test.Foo} with the given members and its class record.
+   *
+   * @param members Members of the class.
+   * @return Path to the source file.
+   */
+  private Path writeFieldSource(String... members) {
+    Path source = root.resolve("Foo.java");
+    Utility.createAFileWithContent(
+        source,
+        Stream.concat(
+                Stream.of("package test;", "public class Foo {"),
+                Stream.concat(Stream.of(members).map(member -> "  " + member), Stream.of("}")))
+            .collect(Collectors.joining("\n")));
+    Utility.createAFileWithContent(
+        context.targetConfiguration.dir.resolve(Serializer.CLASS_RECORD_FILE_NAME),
+        ClassRecord.header() + "\ntest.Foo\t" + source + "\n");
+    return source;
+  }
+
+  /**
+   * Writes the given rows to the method records of the target module.
+   *
+   * @param rows Rows of method records.
+   */
+  private void writeMethodRecords(String... rows) {
+    Utility.createAFileWithContent(
+        context.targetConfiguration.dir.resolve(Serializer.METHOD_RECORD_FILE_NAME),
+        MethodRecord.header() + "\n" + String.join("\n", rows) + "\n");
+  }
+
+  /**
+   * Returns the only snapshot of the given registry class of the target module.
+   *
+   * @param registry Class of the registry.
+   * @return Path to the snapshot.
+   */
+  private Path snapshotOf(Class<?> registry) {
+    try (Stream<Path> paths = Files.list(snapshots)) {
+      List<Path> found =
+          paths
+              .filter(path -> path.getFileName().toString().startsWith(registry.getSimpleName()))
+              .collect(Collectors.toList());
+      assertEquals(1, found.size());
+      return found.get(0);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -109,6 +109,33 @@ public class CoreTestHelper {
 
   private ParserConfiguration.LanguageLevel languageLevel;
 
+  /** Directory of partitioned scanner outputs, incremental scanning is deactivated if null. */
+  private Path incrementalScanningDirectory;
+
+  /** Directory of registry snapshots, snapshots are deactivated if null. */
+  private Path registrySnapshotDirectory;
+
+  /** If true, the target module is compiled in-process with the javac arguments of its build. */
+  private boolean inProcessCompilation = false;
+
+  /** If true, builds after injecting a group of fixes only recompile the affected files. */
+  private boolean incrementalRecompilation = false;
+
+  /** Number of workspaces to evaluate groups of fixes concurrently. */
+  private int parallelWorkers = 1;
+
+  /** Additional source directory of the target module, can be located outside the project. */
+  private Path extraSourceDirectory;
+
+  /** Command to start the build daemon, builds run in a new process if null. */
+  private String buildDaemonCommand;
+
+  /** Directory of the build cache, the build cache is deactivated if null. */
+  private Path buildCacheDirectory;
+
+  /** Maximum total size in megabytes of source files cached by the parser cache. */
+  private long parserCacheSizeLimit = 64;
+
   public CoreTestHelper(Path projectPath, Path outDirPath) {
     this.projectPath = projectPath;
     this.outDirPath = outDirPath;
@@ -236,6 +263,108 @@ public class CoreTestHelper {
     return this;
   }
 
+  /**
+   * Activates incremental scanning with partitions of scanner outputs in the given directory.
+   *
+   * @param directory Directory of partitions, deactivates incremental scanning if null.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withIncrementalScanningDirectory(Path directory) {
+    this.incrementalScanningDirectory = directory;
+    return this;
+  }
+
+  /**
+   * Activates registry snapshots stored in the given directory.
+   *
+   * @param directory Directory of snapshots, deactivates snapshots if null.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withRegistrySnapshotDirectory(Path directory) {
+    this.registrySnapshotDirectory = directory;
+    return this;
+  }
+
+  /**
+   * Activates in-process compilation of the target module. The javac arguments are written by the
+   * initial build of the target module.
+   *
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withInProcessCompilation() {
+    this.inProcessCompilation = true;
+    return this;
+  }
+
+  /**
+   * Activates incremental recompilation of the target module, which requires in-process
+   * compilation.
+   *
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withIncrementalRecompilation() {
+    this.incrementalRecompilation = true;
+    return withInProcessCompilation();
+  }
+
+  /**
+   * Evaluates groups of fixes concurrently in the given number of workspaces, each a copy of the
+   * project.
+   *
+   * @param parallelWorkers Number of workspaces.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withParallelWorkers(int parallelWorkers) {
+    this.parallelWorkers = parallelWorkers;
+    return this;
+  }
+
+  /**
+   * Adds the given directory to the source directories of the target module. Sources in the
+   * directory are not copied into workspaces of parallel workers if it is located outside the
+   * project.
+   *
+   * @param directory Source directory.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withExtraSourceDirectory(Path directory) {
+    this.extraSourceDirectory = directory;
+    return this;
+  }
+
+  /**
+   * Submits all builds to a build daemon started with the given command.
+   *
+   * @param command Command to start the build daemon.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withBuildDaemonCommand(String command) {
+    this.buildDaemonCommand = command;
+    return this;
+  }
+
+  /**
+   * Activates the build cache stored in the given directory.
+   *
+   * @param directory Directory of the build cache, deactivates the build cache if null.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withBuildCacheDirectory(Path directory) {
+    this.buildCacheDirectory = directory;
+    return this;
+  }
+
+  /**
+   * Sets the maximum total size of source files which parsed trees are cached for.
+   *
+   * @param sizeLimit Size limit in megabytes, zero disables the parser cache.
+   * @return This instance of {@link CoreTestHelper}.
+   */
+  public CoreTestHelper withParserCacheSizeLimit(long sizeLimit) {
+    this.parserCacheSizeLimit = sizeLimit;
+    return this;
+  }
+
   public CoreTestHelper withLanguageLevel(ParserConfiguration.LanguageLevel languageLevel) {
     this.languageLevel = languageLevel;
     return this;
@@ -448,6 +577,8 @@ public class CoreTestHelper {
     builder.sourceTypes.add(SourceType.LOMBOK);
     builder.cache = true;
     builder.languageLevel = languageLevel;
+    builder.incrementalScanningDirectory = incrementalScanningDirectory;
+    builder.registrySnapshotDirectory = registrySnapshotDirectory;
     builder.useCacheImpact = !getEnvironmentVariable("ANNOTATOR_TEST_DISABLE_CACHING");
     builder.useParallelProcessor =
         !getEnvironmentVariable("ANNOTATOR_TEST_DISABLE_PARALLEL_PROCESSING");
@@ -465,6 +596,33 @@ public class CoreTestHelper {
     } else {
       builder.buildCommand = projectBuilder.computeTargetBuildCommand(this.outDirPath);
     }
+    if (inProcessCompilation) {
+      Path arguments = outDirPath.resolve("javac.args");
+      // Initial build of the target module writes its javac arguments to the given path.
+      builder.buildCommand +=
+          String.format(
+              " -P%s-javac-arguments-path=%s", projectBuilder.getModules().get(0), arguments);
+      builder.inProcessCompilationArguments = arguments;
+      builder.incrementalRecompilation = incrementalRecompilation;
+    }
+    builder.buildDaemonCommand = buildDaemonCommand;
+    builder.buildCacheDirectory = buildCacheDirectory;
+    builder.parserCacheSizeLimit = parserCacheSizeLimit;
+    if (parallelWorkers > 1) {
+      builder.parallelWorkers = parallelWorkers;
+      builder.workerSourceRoot = projectPath;
+      builder.workerBuildCommand = projectBuilder.computeWorkerBuildCommand(outDirPath);
+    }
+    if (extraSourceDirectory != null) {
+      String property =
+          String.format(
+              " -P%s-extra-source-dir=%s",
+              projectBuilder.getModules().get(0), extraSourceDirectory);
+      builder.buildCommand += property;
+      if (builder.workerBuildCommand != null) {
+        builder.workerBuildCommand += property;
+      }
+    }
     builder.write(configPath);
   }
 
@@ -117,6 +117,30 @@ public class ProjectBuilder {
             .resolve(Paths.get("build", "libs", "librarymodel.jar")));
   }
 
+  /**
+   * Computes the build command for the target module in a worker workspace, which is a copy of the
+   * project. Paths to config files of the target module are replaced with the config files of the
+   * worker.
+   *
+   * @param outDirPath Path to serialization output directory,
+   * @return The command to build the target module in a worker workspace.
+   */
+  public String computeWorkerBuildCommand(Path outDirPath) {
+    Module target = modules.get(0);
+    return String.format(
+        "%s && ./gradlew %s %s -P%s-nullaway-config-path=%%CHECKER_CONFIG%% -P%s-scanner-config-path=%%SCANNER_CONFIG%% -Plibrary-model-loader-path=%s --rerun-tasks",
+        Utility.changeDirCommand(Paths.get("%WORKSPACE%")),
+        computeCompileGradleCommandForModules(modules.subList(0, 1)),
+        String.join(
+            " ",
+            Utility.computeConfigPathsWithGradleArguments(
+                outDirPath, modules.subList(1, modules.size()))),
+        target,
+        target,
+        Utility.getPathToLibraryModel(outDirPath)
+            .resolve(Paths.get("build", "libs", "librarymodel.jar")));
+  }
+
   /**
    * Computes the build command for the target project. It includes, changing directory command from
    * root to project root dir, command to compile the project, command to update library model
@@ -34,6 +34,7 @@ import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.matchers.Description;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.IdentifierTree;
 import com.sun.source.tree.LambdaExpressionTree;
@@ -69,7 +70,8 @@ public class AnnotatorScanner extends BugChecker
         BugChecker.NewClassTreeMatcher,
         BugChecker.ClassTreeMatcher,
         BugChecker.LambdaExpressionTreeMatcher,
-        BugChecker.MemberReferenceTreeMatcher {
+        BugChecker.MemberReferenceTreeMatcher,
+        BugChecker.CompilationUnitTreeMatcher {
 
   /**
    * Scanner context to store the state of the checker. Could not use {@link VisitorState#context}
@@ -86,10 +88,23 @@ public class AnnotatorScanner extends BugChecker
   }
 
   @Override
-  public Description matchClass(ClassTree classTree, VisitorState visitorState) {
+  public Description matchCompilationUnit(CompilationUnitTree tree, VisitorState state) {
     if (!context.getConfig().isActive()) {
       return Description.NO_MATCH;
     }
+    Serializer serializer = context.getConfig().getSerializer();
+    // All rows are serialized while visiting compilation units, register the compilation to write
+    // the buffered rows once it is finished.
+    serializer.registerCompilation(state.context);
+    serializer.enterCompilationUnit(tree, state.getTypes());
+    return Description.NO_MATCH;
+  }
+
+  @Override
+  public Description matchClass(ClassTree classTree, VisitorState visitorState) {
+    if (!isActive()) {
+      return Description.NO_MATCH;
+    }
     context
         .getConfig()
         .getSerializer()
@@ -102,20 +117,20 @@ public class AnnotatorScanner extends BugChecker
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
     Config config = context.getConfig();
-    if (!config.isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     config
         .getSerializer()
         .serializeImpactedRegionForMethod(
-            new ImpactedRegion(config, ASTHelpers.getSymbol(tree), state.getPath()));
+            new ImpactedRegion(context, ASTHelpers.getSymbol(tree), state.getPath()));
     return Description.NO_MATCH;
   }
 
   @Override
   public Description matchNewClass(NewClassTree tree, VisitorState state) {
     Config config = context.getConfig();
-    if (!config.isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     Symbol.MethodSymbol methodSymbol = ASTHelpers.getSymbol(tree);
@@ -129,14 +144,14 @@ public class AnnotatorScanner extends BugChecker
     config
         .getSerializer()
         .serializeImpactedRegionForMethod(
-            new ImpactedRegion(config, ASTHelpers.getSymbol(tree), state.getPath()));
+            new ImpactedRegion(context, ASTHelpers.getSymbol(tree), state.getPath()));
     return Description.NO_MATCH;
   }
 
   @Override
   public Description matchMethod(MethodTree tree, VisitorState state) {
     Config config = context.getConfig();
-    if (!context.getConfig().isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     Symbol.MethodSymbol methodSymbol = ASTHelpers.getSymbol(tree);
@@ -156,7 +171,7 @@ public class AnnotatorScanner extends BugChecker
 
   @Override
   public Description matchVariable(VariableTree tree, VisitorState state) {
-    if (!context.getConfig().isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     serializeSymIfField(ASTHelpers.getSymbol(tree.getInitializer()), state);
@@ -166,7 +181,7 @@ public class AnnotatorScanner extends BugChecker
 
   @Override
   public Description matchIdentifier(IdentifierTree tree, VisitorState state) {
-    if (!context.getConfig().isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     serializeSymIfField(ASTHelpers.getSymbol(tree), state);
@@ -175,7 +190,7 @@ public class AnnotatorScanner extends BugChecker
 
   @Override
   public Description matchMemberSelect(MemberSelectTree tree, VisitorState state) {
-    if (!context.getConfig().isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     serializeSymIfField(ASTHelpers.getSymbol(tree), state);
@@ -185,29 +200,27 @@ public class AnnotatorScanner extends BugChecker
   @Override
   public Description matchLambdaExpression(
       LambdaExpressionTree lambdaExpressionTree, VisitorState visitorState) {
-    Config config = context.getConfig();
-    if (!config.isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     // for e -> Foo.bar(e), assume that method "baz()" has been overridden. Then the containing
     // method for this lambda is an impacted region for "baz()".  The call to "Foo.bar" is handled
     // when scanning the body of the lambda.
-    serializeImpactedRegionForFunctionalInterface(config, lambdaExpressionTree, visitorState);
+    serializeImpactedRegionForFunctionalInterface(lambdaExpressionTree, visitorState);
     return Description.NO_MATCH;
   }
 
   @Override
   public Description matchMemberReference(
       MemberReferenceTree memberReferenceTree, VisitorState visitorState) {
-    Config config = context.getConfig();
-    if (!config.isActive()) {
+    if (!isActive()) {
       return Description.NO_MATCH;
     }
     // for Foo::bar, which is shorthand for e -> Foo.bar(e), assume that method "baz()" has been
     // overridden. We need to serialize the impacted region (leaf of path in visitor state)
     // for both "baz()" and also the called method "bar()".
     // serialize the overridden method: "baz()"
-    serializeImpactedRegionForFunctionalInterface(config, memberReferenceTree, visitorState);
+    serializeImpactedRegionForFunctionalInterface(memberReferenceTree, visitorState);
     if (memberReferenceTree instanceof JCTree.JCMemberReference) {
       Symbol calledMethod = ((JCTree.JCMemberReference) memberReferenceTree).sym;
       if (calledMethod instanceof Symbol.MethodSymbol) {
@@ -216,12 +229,24 @@ public class AnnotatorScanner extends BugChecker
             .getConfig()
             .getSerializer()
             .serializeImpactedRegionForMethod(
-                new ImpactedRegion(config, calledMethod, visitorState.getPath()));
+                new ImpactedRegion(context, calledMethod, visitorState.getPath()));
       }
     }
     return Description.NO_MATCH;
   }
 
+  /**
+   * Checks if serialization is activated and outputs of the compilation unit being scanned are
+   * serialized. Compilation units with reused partitions are not scanned, see {@link
+   * Config#isPartitionReused(java.nio.file.Path)}.
+   *
+   * @return true, if outputs of the current compilation unit should be serialized.
+   */
+  private boolean isActive() {
+    return context.getConfig().isActive()
+        && context.getConfig().getSerializer().isSerializingCompilationUnit();
+  }
+
   /**
    * Serializes a field usage if the received symbol is a field.
    *
@@ -234,7 +259,7 @@ public class AnnotatorScanner extends BugChecker
           .getConfig()
           .getSerializer()
           .serializeFieldAccessRecord(
-              new ImpactedRegion(context.getConfig(), symbol, state.getPath()));
+              new ImpactedRegion(context, symbol, state.getPath()));
     }
   }
 
@@ -269,8 +294,8 @@ public class AnnotatorScanner extends BugChecker
    * @param tree Given tree.
    * @param state Visitor State.
    */
-  private static void serializeImpactedRegionForFunctionalInterface(
-      Config config, ExpressionTree tree, VisitorState state) {
+  private void serializeImpactedRegionForFunctionalInterface(
+      ExpressionTree tree, VisitorState state) {
     Symbol.MethodSymbol methodSym = SymbolUtil.getFunctionalInterfaceMethod(tree, state.getTypes());
     if (methodSym == null) {
       System.err.println(
@@ -281,8 +306,9 @@ public class AnnotatorScanner extends BugChecker
               + ", but received null.");
       return;
     }
-    config
+    context
+        .getConfig()
         .getSerializer()
-        .serializeImpactedRegionForMethod(new ImpactedRegion(config, methodSym, state.getPath()));
+        .serializeImpactedRegionForMethod(new ImpactedRegion(context, methodSym, state.getPath()));
   }
 }
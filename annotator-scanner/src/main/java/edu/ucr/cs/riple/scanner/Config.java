@@ -27,6 +27,7 @@ package edu.ucr.cs.riple.scanner;
 import edu.ucr.cs.riple.scanner.generatedcode.SymbolSourceResolver;
 import java.nio.file.Path;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /** Config of scanner. */
 public interface Config {
@@ -67,4 +68,30 @@ public interface Config {
    * @return Using SymbolSourceResolver instance.
    */
   SymbolSourceResolver getSymbolSourceResolver();
+
+  /**
+   * If true, outputs are partitioned by source file. Outputs of each compilation unit are
+   * serialized in a separate directory within {@link #getPartitionsDirectory()}.
+   *
+   * @return true, if outputs are partitioned by source file.
+   */
+  boolean isOutputPartitioned();
+
+  /**
+   * Returns the directory where partitions of outputs are stored, see {@link
+   * #isOutputPartitioned()}.
+   *
+   * @return Path to directory of partitions, {@code null} if outputs are not partitioned.
+   */
+  @Nullable
+  Path getPartitionsDirectory();
+
+  /**
+   * Checks if the partition of the source file at the given path is reused from a previous run.
+   * Compilation units of reused partitions are not scanned and their partitions are kept intact.
+   *
+   * @param path Path to source file.
+   * @return true, if the partition of the source file is reused.
+   */
+  boolean isPartitionReused(Path path);
 }
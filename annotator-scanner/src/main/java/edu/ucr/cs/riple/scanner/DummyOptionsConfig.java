@@ -27,6 +27,7 @@ package edu.ucr.cs.riple.scanner;
 import edu.ucr.cs.riple.scanner.generatedcode.SymbolSourceResolver;
 import java.nio.file.Path;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Empty config just to stop the process if an error is occurred in configuring the Scanner via
@@ -62,4 +63,20 @@ public class DummyOptionsConfig implements Config {
   public SymbolSourceResolver getSymbolSourceResolver() {
     throw new IllegalStateException(ERROR_MESSAGE);
   }
+
+  @Override
+  public boolean isOutputPartitioned() {
+    throw new IllegalStateException(ERROR_MESSAGE);
+  }
+
+  @Nullable
+  @Override
+  public Path getPartitionsDirectory() {
+    throw new IllegalStateException(ERROR_MESSAGE);
+  }
+
+  @Override
+  public boolean isPartitionReused(Path path) {
+    throw new IllegalStateException(ERROR_MESSAGE);
+  }
 }
@@ -33,6 +33,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -61,6 +62,15 @@ public class ErrorProneCLIFlagsConfig implements Config {
   /** Immutable set of fully qualified name of {@code @Nonnull} annotations. */
   private final ImmutableSet<String> nonnullAnnotations;
 
+  /** Controls partitioning outputs by source file. */
+  private final boolean outputPartitioned;
+
+  /** Path to directory of partitions, {@code null} if outputs are not partitioned. */
+  @Nullable private final Path partitionsDirectory;
+
+  /** Immutable set of paths to source files which their partitions are reused. */
+  private final ImmutableSet<String> reusedPartitions;
+
   static final String EP_FL_NAMESPACE = "AnnotatorScanner";
   static final String FL_CONFIG_PATH = EP_FL_NAMESPACE + ":ConfigPath";
 
@@ -93,6 +103,20 @@ public class ErrorProneCLIFlagsConfig implements Config {
     this.nonnullAnnotations =
         XMLUtil.getArrayValueFromTag(document, "/scanner/annotations/nonnull", String.class)
             .orElse(ImmutableSet.of());
+    this.outputPartitioned =
+        XMLUtil.getValueFromAttribute(document, "/scanner/partition", "active", Boolean.class)
+            .orElse(false);
+    String partitionsDirectoryInString =
+        XMLUtil.getValueFromTag(document, "/scanner/partition/path", String.class).orElse("");
+    if (outputPartitioned
+        && (partitionsDirectoryInString == null || partitionsDirectoryInString.isEmpty())) {
+      throw new IllegalArgumentException(
+          "Partitions directory cannot be null if outputs are partitioned, should be set in config file within <partition><path> tag");
+    }
+    this.partitionsDirectory = outputPartitioned ? Paths.get(partitionsDirectoryInString) : null;
+    this.reusedPartitions =
+        XMLUtil.getArrayValueFromTag(document, "/scanner/partition/reuse", String.class)
+            .orElse(ImmutableSet.of());
     this.serializer = new Serializer(this);
   }
 
@@ -137,4 +161,20 @@ public class ErrorProneCLIFlagsConfig implements Config {
   public SymbolSourceResolver getSymbolSourceResolver() {
     return symbolSourceResolver;
   }
+
+  @Override
+  public boolean isOutputPartitioned() {
+    return outputPartitioned;
+  }
+
+  @Nullable
+  @Override
+  public Path getPartitionsDirectory() {
+    return partitionsDirectory;
+  }
+
+  @Override
+  public boolean isPartitionReused(Path path) {
+    return reusedPartitions.contains(path.toString());
+  }
 }
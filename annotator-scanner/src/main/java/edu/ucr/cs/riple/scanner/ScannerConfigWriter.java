@@ -59,10 +59,17 @@ public class ScannerConfigWriter {
   /** Set of {@code @Nonnull} annotations. */
   private ImmutableSet<String> nonnullAnnotations;
 
+  /** Path to directory of partitions, outputs are not partitioned if {@code null}. */
+  private Path partitionsDirectory;
+
+  /** Set of paths to source files which their partitions are reused. */
+  private ImmutableSet<Path> reusedPartitions;
+
   public ScannerConfigWriter() {
     this.serializationActivation = false;
     this.activatedGeneratedCodeDetectors = new HashSet<>();
     this.nonnullAnnotations = ImmutableSet.of();
+    this.reusedPartitions = ImmutableSet.of();
   }
 
   public ScannerConfigWriter setOutput(Path output) {
@@ -85,6 +92,16 @@ public class ScannerConfigWriter {
     return this;
   }
 
+  public ScannerConfigWriter setPartitionsDirectory(Path partitionsDirectory) {
+    this.partitionsDirectory = partitionsDirectory;
+    return this;
+  }
+
+  public ScannerConfigWriter setReusedPartitions(ImmutableSet<Path> reusedPartitions) {
+    this.reusedPartitions = reusedPartitions;
+    return this;
+  }
+
   /**
    * Outputs the configured object as XML format in the given path.
    *
@@ -141,6 +158,22 @@ public class ScannerConfigWriter {
             nonnullAnnotations.appendChild(nonnullElements);
           });
 
+      // Partitioned outputs
+      Element partition = doc.createElement("partition");
+      partition.setAttribute("active", String.valueOf(partitionsDirectory != null));
+      rootElement.appendChild(partition);
+      if (partitionsDirectory != null) {
+        Element partitionsPath = doc.createElement("path");
+        partitionsPath.setTextContent(partitionsDirectory.toString());
+        partition.appendChild(partitionsPath);
+      }
+      this.reusedPartitions.forEach(
+          source -> {
+            Element reuse = doc.createElement("reuse");
+            reuse.setTextContent(source.toString());
+            partition.appendChild(reuse);
+          });
+
       // Writings
       TransformerFactory transformerFactory = TransformerFactory.newInstance();
       Transformer transformer = transformerFactory.newTransformer();
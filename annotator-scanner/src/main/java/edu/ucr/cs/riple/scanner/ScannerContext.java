@@ -24,10 +24,18 @@
 
 package edu.ucr.cs.riple.scanner;
 
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Types;
+import edu.ucr.cs.riple.scanner.out.ImpactedRegion;
 import edu.ucr.cs.riple.scanner.out.MethodRecord;
-import java.util.stream.Stream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.annotation.Nullable;
 
 /**
  * Container class to store the state of the checker.
@@ -39,10 +47,36 @@ import java.util.stream.Stream;
 public class ScannerContext {
 
   /**
-   * MultiMap of visited methods. It stores the set of visited methods paired with their computed
-   * hash value.
+   * Map of visited methods by their symbol. Symbols are unique within a compilation, therefore
+   * methods are looked up by identity.
    */
-  private final Multimap<Integer, MethodRecord> visitedMethods;
+  private final Map<Symbol.MethodSymbol, MethodRecord> visitedMethods;
+
+  /**
+   * Memoized closest overridden methods by the overriding method symbol, see {@link
+   * SymbolUtil#getClosestOverriddenMethod(Symbol.MethodSymbol, Types)}. Methods which do not
+   * override any method are mapped to an empty value.
+   */
+  private final Map<Symbol.MethodSymbol, Optional<Symbol.MethodSymbol>> overriddenMethods;
+
+  /**
+   * Memoized enclosing regions by the closest enclosing class, method or variable declaration of
+   * nodes in {@link #compilationUnit}.
+   */
+  private final Map<Tree, ImpactedRegion.EnclosingRegion> enclosingRegions;
+
+  /**
+   * Memoized serialized symbols used in {@link #compilationUnit}, see {@link
+   * Serializer#serializeSymbol(Symbol)}.
+   */
+  private final Map<Symbol, String> serializedSymbols;
+
+  /**
+   * Compilation unit of the memoized {@link #enclosingRegions} and {@link #serializedSymbols}.
+   * Memoized values are discarded once a value for another compilation unit is requested, so that
+   * they do not retain trees and symbols of all compilation units.
+   */
+  @Nullable private CompilationUnitTree compilationUnit;
 
   /**
    * Last given id to the most recent newly visited method. Used to assign unique ids for each
@@ -55,7 +89,10 @@ public class ScannerContext {
 
   public ScannerContext(Config config) {
     this.methodId = 0;
-    this.visitedMethods = MultimapBuilder.hashKeys().arrayListValues().build();
+    this.visitedMethods = new IdentityHashMap<>();
+    this.overriddenMethods = new IdentityHashMap<>();
+    this.enclosingRegions = new IdentityHashMap<>();
+    this.serializedSymbols = new IdentityHashMap<>();
     this.config = config;
   }
 
@@ -74,7 +111,7 @@ public class ScannerContext {
    * @param methodRecord method info instance.
    */
   public void visitMethod(MethodRecord methodRecord) {
-    this.visitedMethods.put(methodRecord.hashCode(), methodRecord);
+    this.visitedMethods.put(methodRecord.getSymbol(), methodRecord);
   }
 
   /**
@@ -87,12 +124,77 @@ public class ScannerContext {
   }
 
   /**
-   * Retrieves stream of {@link MethodRecord} that has the given hash value.
+   * Retrieves the {@link MethodRecord} of the given method symbol if visited.
+   *
+   * @param method Method symbol.
+   * @return The corresponding {@link MethodRecord}, or {@code null} if the method is not visited.
+   */
+  @Nullable
+  public MethodRecord getVisitedMethod(Symbol.MethodSymbol method) {
+    return this.visitedMethods.get(method);
+  }
+
+  /**
+   * Returns the closest method overridden by the given method. Results are memoized, see {@link
+   * SymbolUtil#getClosestOverriddenMethod(Symbol.MethodSymbol, Types)}.
+   *
+   * @param method Method symbol.
+   * @param types The types data structure from javac.
+   * @return Closest overridden ancestor method, or {@code null} if method does not override
+   *     anything.
+   */
+  @Nullable
+  public Symbol.MethodSymbol getClosestOverriddenMethod(Symbol.MethodSymbol method, Types types) {
+    return this.overriddenMethods
+        .computeIfAbsent(
+            method, key -> Optional.ofNullable(SymbolUtil.getClosestOverriddenMethod(key, types)))
+        .orElse(null);
+  }
+
+  /**
+   * Returns the memoized enclosing region of the declaration at the given path, computing it with
+   * the given function if absent. Memoized regions are discarded once a declaration of another
+   * compilation unit is requested.
+   *
+   * @param declaration Path to a class, method or variable declaration.
+   * @param resolver Function to resolve the enclosing region of the declaration.
+   * @return Enclosing region of the declaration.
+   */
+  public ImpactedRegion.EnclosingRegion computeEnclosingRegionIfAbsent(
+      TreePath declaration, Function<TreePath, ImpactedRegion.EnclosingRegion> resolver) {
+    enterCompilationUnit(declaration.getCompilationUnit());
+    return enclosingRegions.computeIfAbsent(
+        declaration.getLeaf(), tree -> resolver.apply(declaration));
+  }
+
+  /**
+   * Serializes the given symbol to a string, results are memoized per symbol. Memoized results are
+   * discarded once a symbol used in another compilation unit is requested. See {@link
+   * Serializer#serializeSymbol(Symbol)}.
+   *
+   * @param symbol The symbol to serialize.
+   * @param compilationUnit Compilation unit where the symbol is used.
+   * @return The serialized symbol.
+   */
+  public String serializeSymbol(@Nullable Symbol symbol, CompilationUnitTree compilationUnit) {
+    if (symbol == null) {
+      return Serializer.serializeSymbol(null);
+    }
+    enterCompilationUnit(compilationUnit);
+    return serializedSymbols.computeIfAbsent(symbol, Serializer::serializeSymbol);
+  }
+
+  /**
+   * Discards memoized values if the given compilation unit is not the compilation unit of memoized
+   * values.
    *
-   * @param hashHint Given hash value to filter elements based on.
-   * @return Stream of {@link MethodRecord}.
+   * @param compilationUnit Compilation unit of the requested value.
    */
-  public Stream<MethodRecord> getVisitedMethodsWithHashHint(int hashHint) {
-    return this.visitedMethods.get(hashHint).stream();
+  private void enterCompilationUnit(CompilationUnitTree compilationUnit) {
+    if (compilationUnit != this.compilationUnit) {
+      enclosingRegions.clear();
+      serializedSymbols.clear();
+      this.compilationUnit = compilationUnit;
+    }
   }
 }
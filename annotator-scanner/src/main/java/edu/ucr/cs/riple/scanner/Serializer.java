@@ -26,8 +26,15 @@ package edu.ucr.cs.riple.scanner;
 
 import static java.util.stream.Collectors.joining;
 
+import com.google.common.hash.Hashing;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.tools.javac.api.BasicJavacTask;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.Types;
+import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Name;
 import edu.ucr.cs.riple.scanner.location.SymbolLocation;
 import edu.ucr.cs.riple.scanner.out.ClassRecord;
@@ -37,11 +44,24 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import javax.annotation.Nullable;
+import javax.tools.JavaFileObject;
 
 /**
  * Serializer class where all generated files in Fix Serialization package is created through APIs
@@ -50,19 +70,81 @@ import javax.annotation.Nullable;
 public class Serializer {
 
   /** Path to write impacted regions for changes on fields. */
-  private final Path fieldImpactedRegionPath;
+  private Path fieldImpactedRegionPath;
 
   /** Path to write impacted regions for changes on methods */
-  private final Path methodImpactedRegionPath;
+  private Path methodImpactedRegionPath;
 
   /** Path to write method records. */
-  private final Path methodRecordPath;
+  private Path methodRecordPath;
 
   /** Path to write class info data. */
-  private final Path classRecordsPath;
+  private Path classRecordsPath;
 
   /** Path to write location of elements with explicit {@code @Nonnull} annotation. */
-  private final Path nonnullElementsPath;
+  private Path nonnullElementsPath;
+
+  /** Path to write source files which the current partition depends on. */
+  private Path dependenciesPath;
+
+  /**
+   * Path to write source files of all visited compilation units, {@code null} if outputs are not
+   * partitioned.
+   */
+  @Nullable private final Path compilationUnitsPath;
+
+  /** Path to directory of all partitions, {@code null} if outputs are not partitioned. */
+  @Nullable private final Path partitionsDirectory;
+
+  /** Scanner config. */
+  private final Config config;
+
+  /** Compilation unit which its outputs are being serialized, if outputs are partitioned. */
+  @Nullable private CompilationUnitTree currentCompilationUnit;
+
+  /**
+   * Directory of the partition which outputs are being serialized to, {@code null} if outputs are
+   * not partitioned, or if the current compilation unit is not scanned.
+   */
+  @Nullable private Path currentPartition;
+
+  /**
+   * Source files which the outputs of the current partition depend on. Outputs of a partition
+   * depend on the declaring source files of the used members and their supertypes, and of the
+   * supertypes of declared classes.
+   */
+  private final Set<Path> dependencies;
+
+  /** Classes which their supertypes are already added to {@link #dependencies}. */
+  private final Set<Symbol.ClassSymbol> dependencyClasses;
+
+  /** Types instance of the compilation of the current compilation unit. */
+  @Nullable private Types types;
+
+  /**
+   * Rows appended to output files which are not written yet by path of the file. Rows are written
+   * when the buffer of a file exceeds {@link #BUFFER_SIZE} or the compilation is finished.
+   */
+  private final Map<Path, StringBuilder> buffers;
+
+  /**
+   * Impacted region rows which are already appended to output files by path of the file. Each row
+   * pairs a region with a used member, and all regions of a top level class are visited while the
+   * class is analyzed, therefore rows are discarded once the analysis of each class is finished.
+   */
+  private final Map<Path, Set<String>> appendedImpactedRegions;
+
+  /** Channels of output files, kept open until the end of the compilation. */
+  private final Map<Path, FileChannel> channels;
+
+  /**
+   * Compilations which the buffered rows are written at their end. Contexts of finished
+   * compilations are not retained.
+   */
+  private final Set<Context> compilations;
+
+  /** Size in characters of buffered rows of an output file which triggers writing the rows. */
+  private static final int BUFFER_SIZE = 1 << 16;
 
   /** File name where all field usage data has been stored. */
   public static final String FIELD_IMPACTED_REGION_FILE_NAME = "field_impacted_region_map.tsv";
@@ -79,6 +161,23 @@ public class Serializer {
   /** File name where location of elements explicitly annotated as {@code @Nonnull}. */
   public static final String NON_NULL_ELEMENTS_FILE_NAME = "nonnull_elements.tsv";
 
+  /**
+   * File name where the source file of a partition and the source files which its outputs depend
+   * on are stored. Each source file depends on itself. If outputs are partitioned by source file,
+   * each partition is a directory within {@link Config#getPartitionsDirectory()} named by the hash
+   * of the path to its source file, and contains all above files with outputs of a single
+   * compilation unit and this file. In partitions, rows of {@link #METHOD_RECORD_FILE_NAME} refer
+   * to parent methods by their class and signature instead of ids, see {@link
+   * MethodRecord#toPartitionString()}.
+   */
+  public static final String DEPENDENCIES_FILE_NAME = "dependencies.tsv";
+
+  /**
+   * File name in {@link Config#getPartitionsDirectory()} where source files of all visited
+   * compilation units are stored.
+   */
+  public static final String COMPILATION_UNITS_FILE_NAME = "compilation_units.tsv";
+
   public Serializer(Config config) {
     Path outputDirectory = config.getOutputDirectory();
     this.fieldImpactedRegionPath = outputDirectory.resolve(FIELD_IMPACTED_REGION_FILE_NAME);
@@ -86,27 +185,201 @@ public class Serializer {
     this.methodRecordPath = outputDirectory.resolve(METHOD_RECORD_FILE_NAME);
     this.classRecordsPath = outputDirectory.resolve(CLASS_RECORD_FILE_NAME);
     this.nonnullElementsPath = outputDirectory.resolve(NON_NULL_ELEMENTS_FILE_NAME);
+    this.dependenciesPath = outputDirectory.resolve(DEPENDENCIES_FILE_NAME);
+    this.partitionsDirectory =
+        config.isOutputPartitioned() ? config.getPartitionsDirectory() : null;
+    this.compilationUnitsPath =
+        partitionsDirectory == null
+            ? null
+            : partitionsDirectory.resolve(COMPILATION_UNITS_FILE_NAME);
+    this.config = config;
+    this.dependencies = new LinkedHashSet<>();
+    this.dependencyClasses = new HashSet<>();
+    this.buffers = new HashMap<>();
+    this.channels = new HashMap<>();
+    this.appendedImpactedRegions = new HashMap<>();
+    this.compilations = Collections.newSetFromMap(new WeakHashMap<>());
     initializeOutputFiles(config);
   }
 
+  /**
+   * Registers the compilation with the given context, rows appended during the compilation are
+   * written to output files and the files are closed once javac reports that the compilation is
+   * finished. Appended impacted region rows are discarded once the analysis of each class is
+   * finished. Each compilation is registered once, therefore this method can be called on every
+   * visited compilation unit.
+   *
+   * @param context Context of the running compilation.
+   */
+  public synchronized void registerCompilation(Context context) {
+    if (!compilations.add(context)) {
+      return;
+    }
+    BasicJavacTask.instance(context)
+        .addTaskListener(
+            new TaskListener() {
+              @Override
+              public void finished(TaskEvent event) {
+                if (event.getKind() == TaskEvent.Kind.ANALYZE) {
+                  clearAppendedImpactedRegions();
+                }
+                if (event.getKind() == TaskEvent.Kind.COMPILATION) {
+                  flush();
+                }
+              }
+            });
+  }
+
+  /**
+   * Prepares the serializer for serializing outputs of the given compilation unit. If outputs are
+   * partitioned, the partition of the previous compilation unit is finished and all following
+   * outputs are serialized to the partition of the given compilation unit, unless the partition is
+   * reused. Only files of the finished partition are closed, other output files stay open until the
+   * end of the compilation. Has no effect if outputs are not partitioned, or the compilation unit
+   * is current.
+   *
+   * @param tree Compilation unit tree.
+   * @param types Types instance of the running compilation.
+   */
+  public synchronized void enterCompilationUnit(CompilationUnitTree tree, Types types) {
+    if (partitionsDirectory == null || tree == currentCompilationUnit) {
+      return;
+    }
+    finishPartition();
+    currentCompilationUnit = tree;
+    Path path =
+        tree.getSourceFile() == null
+            ? null
+            : pathToSourceFileFromURI(tree.getSourceFile().toUri());
+    // Outputs of compilation units without a source file cannot be located in later runs.
+    if (path == null) {
+      return;
+    }
+    appendToFile(path.toString(), compilationUnitsPath);
+    if (config.isPartitionReused(path)) {
+      return;
+    }
+    Path partition =
+        partitionsDirectory.resolve(
+            Hashing.sha256().hashString(path.toString(), StandardCharsets.UTF_8).toString());
+    try {
+      Files.createDirectories(partition);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not create partition directory at: " + partition, e);
+    }
+    this.fieldImpactedRegionPath = partition.resolve(FIELD_IMPACTED_REGION_FILE_NAME);
+    this.methodImpactedRegionPath = partition.resolve(METHOD_IMPACTED_REGION_FILE_NAME);
+    this.methodRecordPath = partition.resolve(METHOD_RECORD_FILE_NAME);
+    this.classRecordsPath = partition.resolve(CLASS_RECORD_FILE_NAME);
+    this.nonnullElementsPath = partition.resolve(NON_NULL_ELEMENTS_FILE_NAME);
+    this.dependenciesPath = partition.resolve(DEPENDENCIES_FILE_NAME);
+    initializeFile(methodImpactedRegionPath, ImpactedRegion.header());
+    initializeFile(fieldImpactedRegionPath, ImpactedRegion.header());
+    initializeFile(methodRecordPath, MethodRecord.partitionHeader());
+    initializeFile(classRecordsPath, ClassRecord.header());
+    initializeFile(nonnullElementsPath, SymbolLocation.header());
+    initializeFile(dependenciesPath, "source" + '\t' + "dependency");
+    this.currentPartition = partition;
+    this.types = types;
+    dependencies.add(path);
+  }
+
+  /**
+   * Checks if outputs of the current compilation unit are serialized. Outputs are not serialized
+   * for compilation units with reused partitions.
+   *
+   * @return true, if outputs of the current compilation unit are serialized.
+   */
+  public synchronized boolean isSerializingCompilationUnit() {
+    return partitionsDirectory == null || currentPartition != null;
+  }
+
+  /**
+   * Writes all buffered rows to output files and closes the files. If outputs are partitioned, the
+   * current partition is finished.
+   */
+  public synchronized void flush() {
+    finishPartition();
+    currentCompilationUnit = null;
+    buffers.keySet().forEach(this::writeBuffer);
+    buffers.clear();
+    channels.forEach((path, channel) -> close(path, channel));
+    channels.clear();
+  }
+
+  /**
+   * Finishes the current partition, if any. Dependencies of the partition are appended, and all
+   * files of the partition are written and closed as no more rows are appended to them.
+   */
+  private void finishPartition() {
+    if (currentPartition == null) {
+      return;
+    }
+    Path source = dependencies.iterator().next();
+    dependencies.forEach(dependency -> appendToFile(source + "\t" + dependency, dependenciesPath));
+    dependencies.clear();
+    dependencyClasses.clear();
+    for (Path path :
+        List.of(
+            fieldImpactedRegionPath,
+            methodImpactedRegionPath,
+            methodRecordPath,
+            classRecordsPath,
+            nonnullElementsPath,
+            dependenciesPath)) {
+      writeBuffer(path);
+      buffers.remove(path);
+      appendedImpactedRegions.remove(path);
+      FileChannel channel = channels.remove(path);
+      if (channel != null) {
+        close(path, channel);
+      }
+    }
+    currentPartition = null;
+    types = null;
+  }
+
+  /**
+   * Closes the given channel of an output file.
+   *
+   * @param path Path to the output file.
+   * @param channel Channel of the output file.
+   */
+  private static void close(Path path, FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened for closing file: " + path, e);
+    }
+  }
+
+  /** Discards impacted region rows appended during the analysis of the last class. */
+  private synchronized void clearAppendedImpactedRegions() {
+    appendedImpactedRegions.clear();
+  }
+
   /**
    * Appends the string representation of the {@link ImpactedRegion} which is a region (field,
-   * method or a static initialization block) that is impacted by a change on a method.
+   * method or a static initialization block) that is impacted by a change on a method. Each pair of
+   * region and method is appended once.
    *
    * @param impactedRegion ImpactedRegion instance which will be serialized to output.
    */
   public void serializeImpactedRegionForMethod(ImpactedRegion impactedRegion) {
-    appendToFile(impactedRegion.toString(), this.methodImpactedRegionPath);
+    addDependency(impactedRegion.getMemberSymbol());
+    appendImpactedRegionToFile(impactedRegion, this.methodImpactedRegionPath);
   }
 
   /**
    * Appends the string representation of the {@link ImpactedRegion} corresponding to a field access
-   * (read of a filed or write to a field) in a region.
+   * (read of a filed or write to a field) in a region. Each pair of region and field is appended
+   * once.
    *
    * @param fieldAccessRegion Region where the field access occurred.
    */
   public void serializeFieldAccessRecord(ImpactedRegion fieldAccessRegion) {
-    appendToFile(fieldAccessRegion.toString(), this.fieldImpactedRegionPath);
+    addDependency(fieldAccessRegion.getMemberSymbol());
+    appendImpactedRegionToFile(fieldAccessRegion, this.fieldImpactedRegionPath);
   }
 
   /**
@@ -116,6 +389,7 @@ public class Serializer {
    * @param classRecord ClassInfo instance.
    */
   public void serializeClassRecord(ClassRecord classRecord) {
+    addDependency(classRecord.clazz);
     appendToFile(classRecord.toString(), this.classRecordsPath);
   }
 
@@ -125,7 +399,9 @@ public class Serializer {
    * @param methodRecord MethodInfo instance.
    */
   public void serializeMethodRecord(MethodRecord methodRecord) {
-    appendToFile(methodRecord.toString(), this.methodRecordPath);
+    appendToFile(
+        partitionsDirectory != null ? methodRecord.toPartitionString() : methodRecord.toString(),
+        this.methodRecordPath);
   }
 
   /**
@@ -159,7 +435,11 @@ public class Serializer {
   private void initializeOutputFiles(Config config) {
     try {
       Files.createDirectories(config.getOutputDirectory());
-      if (config.isActive()) {
+      if (config.isActive() && partitionsDirectory != null) {
+        // Outputs are serialized to partitions, which are initialized once they are entered.
+        Files.createDirectories(partitionsDirectory);
+        initializeFile(compilationUnitsPath, "path");
+      } else if (config.isActive()) {
         initializeFile(methodImpactedRegionPath, ImpactedRegion.header());
         initializeFile(fieldImpactedRegionPath, ImpactedRegion.header());
         initializeFile(methodRecordPath, MethodRecord.header());
@@ -265,22 +545,93 @@ public class Serializer {
   }
 
   /**
-   * Appends the given string as a row in the file which tha path is given.
+   * Appends the given string as a row in the file which tha path is given. Rows are buffered and
+   * written by {@link #flush()} at the end of the compilation, or once the buffer of the file is
+   * full.
    *
    * @param row Row to append.
    * @param path Path to target file.
    */
-  private void appendToFile(String row, Path path) {
-    // Since there is no method available in API of either javac or errorprone to inform NullAway
-    // that the analysis is finished, we cannot open a single stream and flush it within a finalize
-    // method. Must open and close a new stream everytime we are appending a new line to a file.
+  private synchronized void appendToFile(String row, Path path) {
     if (row == null || row.equals("")) {
       return;
     }
-    row = row + "\n";
-    try (OutputStream os = new FileOutputStream(path.toFile(), true)) {
-      os.write(row.getBytes(Charset.defaultCharset()), 0, row.length());
-      os.flush();
+    StringBuilder buffer = buffers.computeIfAbsent(path, key -> new StringBuilder());
+    buffer.append(row).append('\n');
+    if (buffer.length() >= BUFFER_SIZE) {
+      writeBuffer(path);
+    }
+  }
+
+  /**
+   * Appends the string representation of the given impacted region as a row in the file which the
+   * path is given, unless the same row is already appended during the analysis of the current
+   * class.
+   *
+   * @param impactedRegion Impacted region to append.
+   * @param path Path to target file.
+   */
+  private synchronized void appendImpactedRegionToFile(ImpactedRegion impactedRegion, Path path) {
+    String row = impactedRegion.toString();
+    if (appendedImpactedRegions.computeIfAbsent(path, key -> new HashSet<>()).add(row)) {
+      appendToFile(row, path);
+    }
+  }
+
+  /**
+   * Adds the declaring source files of the given symbol's class and all its supertypes to the
+   * dependencies of the current partition. Only source files in the compilation are added, classes
+   * loaded from class files do not refer to a real source file.
+   *
+   * @param symbol Symbol of a used member or a declared class.
+   */
+  private synchronized void addDependency(@Nullable Symbol symbol) {
+    if (currentPartition == null || types == null || symbol == null) {
+      return;
+    }
+    Symbol.ClassSymbol clazz =
+        symbol instanceof Symbol.ClassSymbol ? (Symbol.ClassSymbol) symbol : symbol.enclClass();
+    if (clazz == null || !dependencyClasses.add(clazz)) {
+      return;
+    }
+    for (Type type : types.closure(clazz.type)) {
+      if (!(type.tsym instanceof Symbol.ClassSymbol)) {
+        continue;
+      }
+      JavaFileObject sourceFile = ((Symbol.ClassSymbol) type.tsym).outermostClass().sourcefile;
+      if (sourceFile == null || sourceFile.getKind() != JavaFileObject.Kind.SOURCE) {
+        continue;
+      }
+      Path path = pathToSourceFileFromURI(sourceFile.toUri());
+      if (path != null) {
+        dependencies.add(path);
+      }
+    }
+  }
+
+  /**
+   * Writes the buffered rows of the file which the path is given. Only complete rows are written
+   * with a single append, hence rows of compilations sharing an output file in the same process
+   * are not interleaved.
+   *
+   * @param path Path to target file.
+   */
+  private void writeBuffer(Path path) {
+    StringBuilder buffer = buffers.get(path);
+    if (buffer == null || buffer.length() == 0) {
+      return;
+    }
+    ByteBuffer content = Charset.defaultCharset().encode(buffer.toString());
+    buffer.setLength(0);
+    try {
+      FileChannel channel = channels.get(path);
+      if (channel == null) {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        channels.put(path, channel);
+      }
+      while (content.hasRemaining()) {
+        channel.write(content);
+      }
     } catch (IOException e) {
       throw new RuntimeException("Error happened for writing at file: " + path, e);
     }
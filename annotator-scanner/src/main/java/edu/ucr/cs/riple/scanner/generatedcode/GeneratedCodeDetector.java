@@ -30,7 +30,8 @@ public interface GeneratedCodeDetector {
 
   /**
    * Checks if the received path is inside generated code corresponding to the generator matching
-   * this detector.
+   * this detector. The result must only depend on the enclosing region of the path, as the result
+   * is shared by all paths in the same region.
    *
    * @param path Received path.
    * @return true, if leads to a generated code.
@@ -26,12 +26,16 @@ package edu.ucr.cs.riple.scanner.out;
 
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
 import com.sun.source.util.TreePath;
 import com.sun.tools.javac.code.Symbol;
-import edu.ucr.cs.riple.scanner.Config;
-import edu.ucr.cs.riple.scanner.Serializer;
+import edu.ucr.cs.riple.scanner.ScannerContext;
 import edu.ucr.cs.riple.scanner.SymbolUtil;
 import edu.ucr.cs.riple.scanner.generatedcode.SourceType;
+import edu.ucr.cs.riple.scanner.generatedcode.SymbolSourceResolver;
 import javax.annotation.Nullable;
 
 /** Represents an impacted region for some class member (a field or a method). */
@@ -49,28 +53,93 @@ public class ImpactedRegion {
   /** Source type of the impacted region. */
   private final SourceType source;
 
+  /** Scanner context, used to serialize symbols. */
+  private final ScannerContext context;
+
+  /** Compilation unit of the node using or overriding the member. */
+  private final CompilationUnitTree compilationUnit;
+
   /**
    * Construct an ImpactedRegion
    *
-   * @param config scanner configuration
+   * @param context scanner context
    * @param memberSymbol symbol for the class member
    * @param path path to the AST node that uses or overrides the member; the impacted region
    *     information is computed from the leaf of this path
    */
-  public ImpactedRegion(Config config, Symbol memberSymbol, TreePath path) {
+  public ImpactedRegion(ScannerContext context, Symbol memberSymbol, TreePath path) {
+    this.context = context;
     this.memberSymbol = memberSymbol;
-    ClassTree enclosingClass =
-        path.getLeaf() instanceof ClassTree
-            ? (ClassTree) path.getLeaf()
-            : ASTHelpers.findEnclosingNode(path, ClassTree.class);
-    if (enclosingClass != null) {
-      this.regionClass = ASTHelpers.getSymbol(enclosingClass);
-      this.regionMember = SymbolUtil.locateRegionMemberForSymbolAtPath(path, this.regionClass);
-    } else {
-      this.regionClass = null;
-      this.regionMember = null;
+    this.compilationUnit = path.getCompilationUnit();
+    SymbolSourceResolver resolver = context.getConfig().getSymbolSourceResolver();
+    TreePath anchor = isRegionAnchor(path.getLeaf()) ? null : findRegionAnchor(path);
+    if (anchor == null) {
+      // Leaf is a class, method or variable declaration, or is not enclosed by any class.
+      ClassTree enclosingClass =
+          path.getLeaf() instanceof ClassTree
+              ? (ClassTree) path.getLeaf()
+              : ASTHelpers.findEnclosingNode(path, ClassTree.class);
+      if (enclosingClass != null) {
+        this.regionClass = ASTHelpers.getSymbol(enclosingClass);
+        this.regionMember = SymbolUtil.locateRegionMemberForSymbolAtPath(path, this.regionClass);
+      } else {
+        this.regionClass = null;
+        this.regionMember = null;
+      }
+      this.source = resolver.getSourceForSymbolAtPath(path);
+      return;
+    }
+    // All nodes enclosed by the same closest class, method or variable tree share the region,
+    // unless the node is itself a field of the region class outside methods.
+    EnclosingRegion region = context.computeEnclosingRegionIfAbsent(anchor, EnclosingRegion::new);
+    this.regionClass = region.regionClass;
+    if (regionClass != null && !(region.regionMember instanceof Symbol.MethodSymbol)) {
+      Symbol sym = ASTHelpers.getSymbol(path.getLeaf());
+      if (sym != null && sym.getKind().isField() && sym.isEnclosedBy(regionClass)) {
+        this.regionMember = sym;
+        this.source = resolver.getSourceForSymbolAtPath(path);
+        return;
+      }
+    }
+    this.regionMember = region.regionMember;
+    if (region.source == null) {
+      region.source = resolver.getSourceForSymbolAtPath(path);
+    }
+    this.source = region.source;
+  }
+
+  /**
+   * Checks if the given tree determines the enclosing region of the nodes it encloses.
+   *
+   * @param tree Given tree.
+   * @return true, if the tree is a class, method or variable declaration.
+   */
+  private static boolean isRegionAnchor(Tree tree) {
+    return tree instanceof ClassTree || tree instanceof MethodTree || tree instanceof VariableTree;
+  }
+
+  /**
+   * Locates the closest class, method or variable declaration enclosing the leaf of the given path.
+   *
+   * @param path Path to the node.
+   * @return Path to the closest enclosing declaration, or {@code null} if not found.
+   */
+  @Nullable
+  private static TreePath findRegionAnchor(TreePath path) {
+    TreePath cursor = path.getParentPath();
+    while (cursor != null && !isRegionAnchor(cursor.getLeaf())) {
+      cursor = cursor.getParentPath();
     }
-    this.source = config.getSymbolSourceResolver().getSourceForSymbolAtPath(path);
+    return cursor;
+  }
+
+  /**
+   * Getter for the symbol of the used member.
+   *
+   * @return Symbol of the member.
+   */
+  public Symbol getMemberSymbol() {
+    return memberSymbol;
   }
 
   @Override
@@ -81,10 +150,10 @@ public class ImpactedRegion {
     Symbol enclosingClass = memberSymbol.enclClass();
     return String.join(
         "\t",
-        Serializer.serializeSymbol(regionClass),
-        Serializer.serializeSymbol(regionMember),
-        Serializer.serializeSymbol(memberSymbol),
-        Serializer.serializeSymbol(enclosingClass),
+        context.serializeSymbol(regionClass, compilationUnit),
+        context.serializeSymbol(regionMember, compilationUnit),
+        context.serializeSymbol(memberSymbol, compilationUnit),
+        context.serializeSymbol(enclosingClass, compilationUnit),
         source.name());
   }
 
@@ -104,4 +173,62 @@ public class ImpactedRegion {
         + '\t'
         + "SOURCE_TYPE";
   }
+
+  /**
+   * Region enclosing the nodes of a class, method or variable declaration, which is resolved once
+   * for all nodes enclosed by the declaration.
+   */
+  public static final class EnclosingRegion {
+
+    /** Symbol of the enclosing class of the region. */
+    @Nullable private final Symbol.ClassSymbol regionClass;
+
+    /**
+     * Symbol of the enclosing method in the region class, or the enclosing field if not enclosed
+     * by a method of the region class.
+     */
+    @Nullable private final Symbol regionMember;
+
+    /** Source type of the region, computed on the first use of the region. */
+    @Nullable private SourceType source;
+
+    /**
+     * Resolves the region enclosing the given declaration, see {@link
+     * SymbolUtil#locateRegionMemberForSymbolAtPath(TreePath, Symbol.ClassSymbol)}.
+     *
+     * @param anchor Path to a class, method or variable declaration.
+     */
+    private EnclosingRegion(TreePath anchor) {
+      Tree leaf = anchor.getLeaf();
+      ClassTree enclosingClass =
+          leaf instanceof ClassTree
+              ? (ClassTree) leaf
+              : ASTHelpers.findEnclosingNode(anchor, ClassTree.class);
+      if (enclosingClass == null) {
+        this.regionClass = null;
+        this.regionMember = null;
+        return;
+      }
+      this.regionClass = ASTHelpers.getSymbol(enclosingClass);
+      MethodTree enclosingMethod =
+          leaf instanceof MethodTree
+              ? (MethodTree) leaf
+              : ASTHelpers.findEnclosingNode(anchor, MethodTree.class);
+      if (enclosingMethod != null) {
+        Symbol.MethodSymbol methodSymbol = ASTHelpers.getSymbol(enclosingMethod);
+        if (methodSymbol.isEnclosedBy(regionClass)) {
+          this.regionMember = methodSymbol;
+          return;
+        }
+      }
+      VariableTree fieldDeclTree =
+          leaf instanceof VariableTree
+              ? (VariableTree) leaf
+              : ASTHelpers.findEnclosingNode(anchor, VariableTree.class);
+      Symbol.VarSymbol fieldSymbol =
+          fieldDeclTree != null ? ASTHelpers.getSymbol(fieldDeclTree) : null;
+      this.regionMember =
+          fieldSymbol != null && fieldSymbol.isEnclosedBy(regionClass) ? fieldSymbol : null;
+    }
+  }
 }
@@ -38,9 +38,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Modifier;
 
@@ -74,6 +74,9 @@ public class MethodRecord {
   /** ID of the closest super method. */
   private int parentID;
 
+  /** Symbol of the closest super method, {@code null} if the method does not override any. */
+  @Nullable private Symbol.MethodSymbol parentSymbol;
+
   /** Delimiter used to separate annotations in the serialized output. */
   public static final String ANNOTATION_DELIMITER = ",";
 
@@ -94,15 +97,17 @@ public class MethodRecord {
    * @return The corresponding {@link MethodRecord} instance.
    */
   public static MethodRecord findOrCreate(Symbol.MethodSymbol method, ScannerContext context) {
-    Symbol.ClassSymbol clazz = method.enclClass();
-    Optional<MethodRecord> optionalMethodInfo =
-        context
-            .getVisitedMethodsWithHashHint(hash(method))
-            .filter(
-                methodRecord ->
-                    methodRecord.symbol.equals(method) && methodRecord.clazz.equals(clazz))
-            .findAny();
-    return optionalMethodInfo.orElseGet(() -> new MethodRecord(method, context));
+    MethodRecord methodRecord = context.getVisitedMethod(method);
+    return methodRecord != null ? methodRecord : new MethodRecord(method, context);
+  }
+
+  /**
+   * Getter for the method symbol.
+   *
+   * @return Symbol of the method.
+   */
+  public Symbol.MethodSymbol getSymbol() {
+    return symbol;
   }
 
   @Override
@@ -129,26 +134,58 @@ public class MethodRecord {
    * @param context Scanner context.
    */
   public void findParent(VisitorState state, ScannerContext context) {
-    Symbol.MethodSymbol superMethod =
-        SymbolUtil.getClosestOverriddenMethod(symbol, state.getTypes());
+    Symbol.MethodSymbol superMethod = context.getClosestOverriddenMethod(symbol, state.getTypes());
     if (superMethod == null || superMethod.toString().equals("null")) {
       this.parentID = 0;
+      this.parentSymbol = null;
       return;
     }
     MethodRecord superMethodRecord = findOrCreate(superMethod, context);
     this.parentID = superMethodRecord.id;
+    this.parentSymbol = superMethod;
   }
 
   @Override
   public String toString() {
     Preconditions.checkArgument(symbol != null, "Should not be null at this point.");
-    Path path = Serializer.pathToSourceFileFromURI(uri);
     return String.join(
         "\t",
         String.valueOf(id),
         (clazz != null ? clazz.flatName() : "null"),
         Serializer.serializeSymbol(symbol),
         String.valueOf(parentID),
+        serializeAttributes());
+  }
+
+  /**
+   * Returns the string representation of this method in a partition of outputs. Ids are only
+   * unique within a compilation and partitions are created in different compilations, therefore
+   * the method is not identified by an id and the closest super method is referred to by its class
+   * and signature.
+   *
+   * @return String representation of this method in a partition.
+   */
+  public String toPartitionString() {
+    Preconditions.checkArgument(symbol != null, "Should not be null at this point.");
+    return String.join(
+        "\t",
+        (clazz != null ? clazz.flatName() : "null"),
+        Serializer.serializeSymbol(symbol),
+        (parentSymbol != null ? parentSymbol.enclClass().flatName() : "null"),
+        Serializer.serializeSymbol(parentSymbol),
+        serializeAttributes());
+  }
+
+  /**
+   * Serializes attributes of this method which follow the method and its parent in both
+   * representations of this method.
+   *
+   * @return Tab separated attributes of this method.
+   */
+  private String serializeAttributes() {
+    Path path = Serializer.pathToSourceFileFromURI(uri);
+    return String.join(
+        "\t",
         Arrays.toString(parameterAnnotationFlags),
         annotations.stream()
             // only interested in the annotation type for now.
@@ -179,6 +216,26 @@ public class MethodRecord {
         "path");
   }
 
+  /**
+   * Returns header of the file in a partition of outputs where all these instances will be
+   * serialized, see {@link #toPartitionString()}.
+   *
+   * @return Header of target file.
+   */
+  public static String partitionHeader() {
+    return String.join(
+        "\t",
+        "class",
+        "method",
+        "parent_class",
+        "parent_method",
+        "flags",
+        "annotations",
+        "visibility",
+        "non-primitive-return",
+        "path");
+  }
+
   /**
    * Setter for parameter annotation flags.
    *
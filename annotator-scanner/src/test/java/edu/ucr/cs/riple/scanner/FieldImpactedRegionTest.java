@@ -91,7 +91,6 @@ public class FieldImpactedRegionTest extends AnnotatorScannerBaseTest<ImpactedRe
             "   Object foo;",
             "}")
         .setExpectedOutputs(
-            new ImpactedRegionRecordDisplay("edu.ucr.A$1Foo", "baz", "edu.ucr.Other", "foo"),
             new ImpactedRegionRecordDisplay("edu.ucr.A$1Foo", "baz", "edu.ucr.Other", "foo"),
             new ImpactedRegionRecordDisplay("edu.ucr.A$1Foo", "baz", "edu.ucr.A", "other"))
         .doTest();
@@ -127,21 +126,58 @@ public class FieldImpactedRegionTest extends AnnotatorScannerBaseTest<ImpactedRe
             "   }",
             "}")
         .setExpectedOutputs(
-            new ImpactedRegionRecordDisplay("edu.ucr.A", "f0", "edu.ucr.B", "foo"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "f0", "edu.ucr.B", "foo"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "b", "edu.ucr.A", "b"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "f1", "edu.ucr.B", "staticFoo"),
-            new ImpactedRegionRecordDisplay("edu.ucr.A", "f1", "edu.ucr.B", "staticFoo"),
-            new ImpactedRegionRecordDisplay("edu.ucr.A", "f3", "edu.ucr.C", "val"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "f3", "edu.ucr.C", "val"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "f3", "edu.ucr.B", "c"),
-            new ImpactedRegionRecordDisplay("edu.ucr.A", "b", "edu.ucr.A", "b"),
-            new ImpactedRegionRecordDisplay("edu.ucr.A", "f4", "edu.ucr.C", "val"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "f4", "edu.ucr.C", "val"),
             new ImpactedRegionRecordDisplay("edu.ucr.A", "f4", "edu.ucr.B", "staticC"))
         .doTest();
   }
 
+  @Test
+  public void symbolsUsedInMultipleCompilationUnitsTest() {
+    // Serialized symbols are memoized per compilation unit, symbols used in multiple compilation
+    // units must be serialized identically in all of them.
+    tester
+        .addSourceLines(
+            "edu/ucr/Other.java", "package edu.ucr;", "public class Other {", "   Object foo;", "}")
+        .addSourceLines(
+            "edu/ucr/A.java",
+            "package edu.ucr;",
+            "public class A {",
+            "   static Object count;",
+            "   public Object bar(Other o){",
+            "      count = o.foo;",
+            "      return o.foo;",
+            "   }",
+            "}")
+        .addSourceLines(
+            "edu/ucr/B.java",
+            "package edu.ucr;",
+            "public class B {",
+            "   public Object baz(Other o){",
+            "      return o.foo;",
+            "   }",
+            "   public Object qux(Other o){",
+            "      return A.count == null ? o.foo : A.count;",
+            "   }",
+            "}")
+        .setExpectedOutputs(
+            new ImpactedRegionRecordDisplay(
+                "edu.ucr.A", "bar(edu.ucr.Other)", "edu.ucr.Other", "foo"),
+            new ImpactedRegionRecordDisplay(
+                "edu.ucr.A", "bar(edu.ucr.Other)", "edu.ucr.A", "count"),
+            new ImpactedRegionRecordDisplay(
+                "edu.ucr.B", "baz(edu.ucr.Other)", "edu.ucr.Other", "foo"),
+            new ImpactedRegionRecordDisplay(
+                "edu.ucr.B", "qux(edu.ucr.Other)", "edu.ucr.Other", "foo"),
+            new ImpactedRegionRecordDisplay(
+                "edu.ucr.B", "qux(edu.ucr.Other)", "edu.ucr.A", "count"))
+        .doTest();
+  }
+
   @Test
   public void lombokGeneratedCodeDetectionTest() {
     tester
@@ -0,0 +1,323 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.scanner;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import com.google.errorprone.CompilationTestHelper;
+import edu.ucr.cs.riple.scanner.generatedcode.SourceType;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Includes tests that check outputs partitioned by compilation unit are identical to outputs of a
+ * full scan, including when partitions of unchanged compilation units are reused.
+ */
+@RunWith(JUnit4.class)
+public class PartitionedOutputTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+  private Path root;
+
+  /** Outputs which rows are identical in partitions and in outputs of a full scan. */
+  private static final ImmutableSet<String> OUTPUT_FILE_NAMES =
+      ImmutableSet.of(
+          Serializer.CLASS_RECORD_FILE_NAME,
+          Serializer.NON_NULL_ELEMENTS_FILE_NAME,
+          Serializer.FIELD_IMPACTED_REGION_FILE_NAME,
+          Serializer.METHOD_IMPACTED_REGION_FILE_NAME);
+
+  private static final String[] A =
+      new String[] {
+        "package edu.ucr;",
+        "public class A {",
+        "   Object f;",
+        "   public Object get() {",
+        "      return f;",
+        "   }",
+        "}"
+      };
+
+  private static final String[] B =
+      new String[] {
+        "package edu.ucr;",
+        "public class B extends A {",
+        "   @Override",
+        "   public Object get() {",
+        "      return super.get();",
+        "   }",
+        "   @Override",
+        "   public String toString() {",
+        "      return String.valueOf(f);",
+        "   }",
+        "}"
+      };
+
+  private static final String[] C =
+      new String[] {
+        "package edu.ucr;",
+        "public class C {",
+        "   Object c = new Object();",
+        "   void run(A a) {",
+        "      c = a.get();",
+        "   }",
+        "}"
+      };
+
+  private static final String[] D =
+      new String[] {
+        "package edu.ucr;",
+        "public class D {",
+        "   Object d;",
+        "   void run() {",
+        "      d = new Object();",
+        "   }",
+        "}"
+      };
+
+  @Before
+  public void setup() {
+    root = Paths.get(temporaryFolder.getRoot().getAbsolutePath());
+  }
+
+  @Test
+  public void partitionsMatchFullScanTest() {
+    Path partitions = root.resolve("partitions");
+    scan(root.resolve("out"), partitions, ImmutableSet.of(), A, B, C, D);
+    Assert.assertEquals(4, readRows(partitions.resolve("compilation_units.tsv")).size());
+    Assert.assertEquals(4, readPartitions(partitions).size());
+    scan(root.resolve("full"), null, ImmutableSet.of(), A, B, C, D);
+    assertPartitionsMatchFullScan(partitions, root.resolve("full"));
+  }
+
+  @Test
+  public void reusedPartitionsMatchFullScanTest() {
+    Path partitions = root.resolve("partitions");
+    scan(root.resolve("out"), partitions, ImmutableSet.of(), A, B, C, D);
+    ImmutableMap<Path, Path> before = readPartitions(partitions);
+    Map<Path, List<String>> contents = new HashMap<>();
+    before.values().forEach(partition -> contents.put(partition, readPartition(partition)));
+    // Change B, partitions of C and D do not depend on B and are reused.
+    String[] changed =
+        new String[] {
+          "package edu.ucr;",
+          "public class B extends A {",
+          "   Object b;",
+          "   @Override",
+          "   public Object get() {",
+          "      return b;",
+          "   }",
+          "   @Override",
+          "   public String toString() {",
+          "      return String.valueOf(b);",
+          "   }",
+          "}"
+        };
+    ImmutableSet<Path> reused =
+        before.keySet().stream()
+            .filter(
+                source ->
+                    source.toString().endsWith("C.java") || source.toString().endsWith("D.java"))
+            .collect(ImmutableSet.toImmutableSet());
+    Assert.assertEquals(2, reused.size());
+    scan(root.resolve("out"), partitions, reused, A, changed, C, D);
+    ImmutableMap<Path, Path> after = readPartitions(partitions);
+    Assert.assertEquals(before.keySet(), after.keySet());
+    for (Path source : reused) {
+      Assert.assertEquals(contents.get(before.get(source)), readPartition(after.get(source)));
+    }
+    scan(root.resolve("full"), null, ImmutableSet.of(), A, changed, C, D);
+    assertPartitionsMatchFullScan(partitions, root.resolve("full"));
+  }
+
+  /**
+   * Runs the scanner on the given sources.
+   *
+   * @param output Output directory.
+   * @param partitions Directory of partitions, outputs are not partitioned if {@code null}.
+   * @param reused Source files which their partitions are reused.
+   * @param sources Lines of each source file, named by their class declaration.
+   */
+  private void scan(
+      Path output, @Nullable Path partitions, ImmutableSet<Path> reused, String[]... sources) {
+    Path configPath = root.resolve("scanner.xml");
+    try {
+      Files.createDirectories(output);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    ScannerConfigWriter writer =
+        new ScannerConfigWriter()
+            .setSerializationActivation(true)
+            .addGeneratedCodeDetectors(ImmutableSet.of(SourceType.LOMBOK))
+            .setOutput(output);
+    if (partitions != null) {
+      writer.setPartitionsDirectory(partitions).setReusedPartitions(reused);
+    }
+    writer.writeAsXML(configPath);
+    CompilationTestHelper helper =
+        CompilationTestHelper.newInstance(AnnotatorScanner.class, getClass())
+            .setArgs(
+                Arrays.asList(
+                    "-d",
+                    temporaryFolder.getRoot().getAbsolutePath(),
+                    "-Xep:AnnotatorScanner:ERROR",
+                    "-XepOpt:AnnotatorScanner:ConfigPath=" + configPath));
+    for (String[] source : sources) {
+      String name = source[1].split(" ")[2];
+      helper.addSourceLines("edu/ucr/" + name + ".java", source);
+    }
+    helper.doTest();
+  }
+
+  /**
+   * Checks that rows in all partitions are identical to rows of the outputs of a full scan. Method
+   * records are compared by the class and signature of the method and its parent.
+   *
+   * @param partitions Directory of partitions.
+   * @param full Output directory of the full scan.
+   */
+  private static void assertPartitionsMatchFullScan(Path partitions, Path full) {
+    ImmutableMap<Path, Path> sources = readPartitions(partitions);
+    for (String fileName : OUTPUT_FILE_NAMES) {
+      Multiset<String> rows = HashMultiset.create();
+      sources.values().forEach(partition -> rows.addAll(readRows(partition.resolve(fileName))));
+      Assert.assertEquals(HashMultiset.create(readRows(full.resolve(fileName))), rows);
+    }
+    // Rows in partitions: class, method, parent class, parent method, attributes.
+    List<String[]> partitionRows = new ArrayList<>();
+    sources
+        .values()
+        .forEach(
+            partition ->
+                readRows(partition.resolve(Serializer.METHOD_RECORD_FILE_NAME))
+                    .forEach(row -> partitionRows.add(row.split("\t", 5))));
+    Set<String> declared = new HashSet<>();
+    partitionRows.forEach(row -> declared.add(row[0] + "\t" + row[1]));
+    Multiset<String> partitioned = HashMultiset.create();
+    for (String[] row : partitionRows) {
+      String parent = row[2] + "\t" + row[3];
+      if (parent.equals("null\tnull")) {
+        parent = "none";
+      } else if (!declared.contains(parent)) {
+        parent = "undeclared";
+      }
+      partitioned.add(String.join("\t", row[0], row[1], parent, row[4]));
+    }
+    // Rows in full scan: id, class, method, parent id, attributes.
+    List<String[]> fullRows =
+        readRows(full.resolve(Serializer.METHOD_RECORD_FILE_NAME)).stream()
+            .map(row -> row.split("\t", 5))
+            .collect(Collectors.toList());
+    Map<String, String> methods = new HashMap<>();
+    fullRows.forEach(row -> methods.put(row[0], row[1] + "\t" + row[2]));
+    Multiset<String> scanned = HashMultiset.create();
+    for (String[] row : fullRows) {
+      String parent = row[3].equals("0") ? "none" : methods.getOrDefault(row[3], "undeclared");
+      scanned.add(String.join("\t", row[1], row[2], parent, row[4]));
+    }
+    Assert.assertEquals(scanned, partitioned);
+    Assert.assertTrue(scanned.stream().anyMatch(row -> row.contains("\tundeclared\t")));
+  }
+
+  /**
+   * Locates partitions in the given directory by their source file.
+   *
+   * @param partitions Directory of partitions.
+   * @return Map of partition directories by the path to their source file.
+   */
+  private static ImmutableMap<Path, Path> readPartitions(Path partitions) {
+    ImmutableMap.Builder<Path, Path> builder = ImmutableMap.builder();
+    try (Stream<Path> stream = Files.list(partitions)) {
+      stream
+          .filter(Files::isDirectory)
+          .forEach(
+              partition ->
+                  builder.put(
+                      Paths.get(
+                          readRows(partition.resolve(Serializer.DEPENDENCIES_FILE_NAME))
+                              .get(0)
+                              .split("\t")[0]),
+                      partition));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads the content of all files in the given partition.
+   *
+   * @param partition Partition directory.
+   * @return Lines of all files in the partition, ordered by file name.
+   */
+  private static List<String> readPartition(Path partition) {
+    try (Stream<Path> files = Files.list(partition)) {
+      return files
+          .sorted()
+          .flatMap(file -> Stream.concat(Stream.of(file.toString()), readRows(file).stream()))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads all rows of the file at the given path except the header.
+   *
+   * @param path Path to file.
+   * @return List of rows.
+   */
+  private static List<String> readRows(Path path) {
+    try {
+      List<String> lines = Files.readAllLines(path);
+      return lines.subList(1, lines.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
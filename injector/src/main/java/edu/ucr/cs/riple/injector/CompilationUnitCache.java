@@ -0,0 +1,237 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import edu.ucr.cs.riple.injector.exceptions.ParseException;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Cache of parsed compilation unit trees, shared by all components parsing source files. Trees are
+ * keyed by the path and the hash of the content of the source file, therefore a tree is never
+ * stale: once a file is rewritten (e.g. by {@link Printer#write()}), the new content is parsed on
+ * the next request, and the tree of the previous content is reused if the file is restored to it
+ * later (e.g. when injected annotations are removed). Least recently used trees are evicted once
+ * the total size of the cached source files exceeds the capacity, and trees are held by soft
+ * references so they can be reclaimed under memory pressure.
+ *
+ * <p>Trees returned by this cache are shared and must not be modified by callers. This class is
+ * thread safe.
+ */
+public class CompilationUnitCache {
+
+  /** Maximum total size of the source files of cached trees in bytes. */
+  private final long capacity;
+
+  /** Cached trees in order of access, from the least recently used. */
+  private final LinkedHashMap<Key, Entry> entries;
+
+  /** Total size of the source files of cached trees in bytes. */
+  private long size;
+
+  /** Number of requests served by a cached tree. */
+  private long hits;
+
+  /** Number of requests which required parsing the source file. */
+  private long parses;
+
+  /**
+   * Parsers of each thread by language level, JavaParser instances must not be shared by threads.
+   */
+  private final ThreadLocal<Map<ParserConfiguration.LanguageLevel, JavaParser>> parsers;
+
+  /**
+   * Creates a cache which can hold trees of source files with the given total size.
+   *
+   * @param capacity Maximum total size of the source files of cached trees in bytes, if zero no
+   *     tree is cached.
+   */
+  public CompilationUnitCache(long capacity) {
+    this.capacity = capacity;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.parsers =
+        ThreadLocal.withInitial(() -> new EnumMap<>(ParserConfiguration.LanguageLevel.class));
+  }
+
+  /**
+   * Returns the compilation unit tree of the given file, parsing it only if the tree of its current
+   * content is not cached. If the file does not exist, returns null. Can happen when the file is
+   * generated by the compiler or the fix is suggested on a third party library.
+   *
+   * @param path Path to the file.
+   * @param level Language level to use when parsing the file.
+   * @return Compilation unit tree, if the file does not exist, returns null.
+   */
+  @Nullable
+  public CompilationUnit parse(@Nullable Path path, ParserConfiguration.LanguageLevel level) {
+    if (path == null) {
+      // Fixes suggested on third party libraries have null paths, see Injector#parse.
+      return null;
+    }
+    byte[] content;
+    try {
+      content = Files.readAllBytes(path);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened on parsing file at: " + path, e);
+    }
+    Key key = new Key(path, level, Hashing.sha256().hashBytes(content));
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      CompilationUnit tree = entry == null ? null : entry.tree.get();
+      if (tree != null) {
+        hits++;
+        return tree;
+      }
+      if (entry != null) {
+        // Tree is reclaimed by the garbage collector.
+        entries.remove(key);
+        size -= entry.size;
+      }
+      parses++;
+    }
+    JavaParser parser =
+        parsers
+            .get()
+            .computeIfAbsent(
+                level, language -> new JavaParser(Injector.createParserConfiguration(language)));
+    ParserConfiguration configuration = parser.getParserConfiguration();
+    ParseResult<CompilationUnit> result =
+        parser.parse(new String(content, configuration.getCharacterEncoding()));
+    if (!result.isSuccessful() || result.getResult().isEmpty()) {
+      // The original exception is not useful for the user. We should provide a more informative one
+      throw new ParseException(path, new ParseProblemException(result.getProblems()));
+    }
+    CompilationUnit tree = result.getResult().get();
+    tree.setStorage(path, configuration.getCharacterEncoding());
+    if (content.length <= capacity) {
+      put(key, new Entry(tree, content.length));
+    }
+    return tree;
+  }
+
+  /**
+   * Adds the given entry and evicts least recently used entries until the total size is within the
+   * capacity.
+   *
+   * @param key Key of the entry.
+   * @param entry Entry to add.
+   */
+  private synchronized void put(Key key, Entry entry) {
+    Entry previous = entries.put(key, entry);
+    size += entry.size - (previous == null ? 0 : previous.size);
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (size > capacity && iterator.hasNext()) {
+      size -= iterator.next().getValue().size;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Returns the number of requests served by a cached tree.
+   *
+   * @return Number of cache hits.
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of requests which required parsing the source file.
+   *
+   * @return Number of parsed source files.
+   */
+  public synchronized long getParses() {
+    return parses;
+  }
+
+  /** Key of a cached tree. */
+  private static class Key {
+
+    /** Path to the source file. */
+    private final Path path;
+
+    /** Language level used to parse the source file. */
+    private final ParserConfiguration.LanguageLevel level;
+
+    /** Hash of the content of the source file. */
+    private final HashCode hash;
+
+    private Key(Path path, ParserConfiguration.LanguageLevel level, HashCode hash) {
+      this.path = path;
+      this.level = level;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return path.equals(other.path) && level == other.level && hash.equals(other.hash);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, level, hash);
+    }
+  }
+
+  /** Cached tree along with the size of its source file. */
+  private static class Entry {
+
+    /** Cached tree, can be reclaimed by the garbage collector. */
+    private final SoftReference<CompilationUnit> tree;
+
+    /** Size of the source file in bytes. */
+    private final int size;
+
+    private Entry(CompilationUnit tree, int size) {
+      this.tree = new SoftReference<>(tree);
+      this.size = size;
+    }
+  }
+}
@@ -25,9 +25,10 @@ package edu.ucr.cs.riple.injector;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.mapping;
 
+import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.google.common.collect.ImmutableList;
@@ -48,7 +49,11 @@ import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -57,71 +62,221 @@ public class Injector {
 
   private final ParserConfiguration.LanguageLevel languageLevel;
 
+  /**
+   * Resolves the path of the file which is modified for a change on the given location path. Used
+   * to apply changes on a copy of the source tree.
+   */
+  private final UnaryOperator<Path> pathResolver;
+
+  /** Cache of parsed compilation unit trees of the modified files. */
+  private final CompilationUnitCache cache;
+
+  /**
+   * States of files before they were first modified by this injector since they were last in their
+   * pristine state. Used to restore the last modified time of a file once it is restored to its
+   * pristine content.
+   */
+  private final Map<Path, Printer.State> pristineStates;
+
+  /**
+   * Supplier of the number of builds of the modified files so far. The last modified time of a
+   * restored file is only restored if no build happened while it was modified.
+   */
+  private final LongSupplier buildSequence;
+
+  /** Parsers of threads applying changes, JavaParser instances must not be shared by threads. */
+  private final ThreadLocal<JavaParser> parsers;
+
   public Injector() {
     this(ParserConfiguration.LanguageLevel.JAVA_11);
   }
 
   public Injector(ParserConfiguration.LanguageLevel languageLevel) {
+    this(languageLevel, UnaryOperator.identity());
+  }
+
+  /**
+   * Creates an injector which applies changes on the files resolved by the given resolver from the
+   * path of the change locations. Returned offset stores are associated with the resolved paths.
+   *
+   * @param languageLevel Language level to use when parsing source files.
+   * @param pathResolver Resolver of the path of the modified file from a location path.
+   */
+  public Injector(
+      ParserConfiguration.LanguageLevel languageLevel, UnaryOperator<Path> pathResolver) {
+    this(languageLevel, pathResolver, new CompilationUnitCache(0));
+  }
+
+  /**
+   * Creates an injector which applies changes on the files resolved by the given resolver from the
+   * path of the change locations, and parses the files through the given cache.
+   *
+   * @param languageLevel Language level to use when parsing source files.
+   * @param pathResolver Resolver of the path of the modified file from a location path.
+   * @param cache Cache of parsed compilation unit trees, can be shared with other components.
+   */
+  public Injector(
+      ParserConfiguration.LanguageLevel languageLevel,
+      UnaryOperator<Path> pathResolver,
+      CompilationUnitCache cache) {
+    this(languageLevel, pathResolver, cache, () -> 0L);
+  }
+
+  /**
+   * Creates an injector which applies changes on the files resolved by the given resolver from the
+   * path of the change locations, parses the files through the given cache and restores last
+   * modified times of restored files only if no build happened since their modification.
+   *
+   * @param languageLevel Language level to use when parsing source files.
+   * @param pathResolver Resolver of the path of the modified file from a location path.
+   * @param cache Cache of parsed compilation unit trees, can be shared with other components.
+   * @param buildSequence Supplier of the number of builds of the modified files so far.
+   */
+  public Injector(
+      ParserConfiguration.LanguageLevel languageLevel,
+      UnaryOperator<Path> pathResolver,
+      CompilationUnitCache cache,
+      LongSupplier buildSequence) {
     this.languageLevel = languageLevel;
+    this.pathResolver = pathResolver;
+    this.cache = cache;
+    this.buildSequence = buildSequence;
+    this.pristineStates = new ConcurrentHashMap<>();
+    this.parsers =
+        ThreadLocal.withInitial(() -> new JavaParser(createParserConfiguration(languageLevel)));
   }
 
   /**
-   * Starts applying the requested changes.
+   * Starts applying the requested changes. Files are modified concurrently, as changes on each file
+   * are computed from its own tree and written to it independently of other files.
    *
    * @param changes Set of changes.
    * @return Offset changes of source file.
    */
   public <T extends ASTChange> Set<FileOffsetStore> start(Set<T> changes) {
+    return start(changes, null);
+  }
+
+  /**
+   * Starts applying the requested changes, see {@link #start(Set)}.
+   *
+   * @param changes Set of changes.
+   * @param irreversibleFiles If not {@code null}, files where removing the changes would not
+   *     restore the file exactly are added to this set.
+   * @return Offset changes of source file.
+   */
+  private <T extends ASTChange> Set<FileOffsetStore> start(
+      Set<T> changes, @Nullable Set<Path> irreversibleFiles) {
 
     changes = changes.stream().map(t -> (T) t.copy()).collect(Collectors.toSet());
     // Start method does not support addition and deletion on same element. Should be split into
     // call for addition and deletion separately.
     Map<Path, List<ASTChange>> map =
-        changes.stream().collect(groupingBy(change -> change.getLocation().path));
-    Set<FileOffsetStore> offsets = new HashSet<>();
-    map.forEach(
-        (path, changeList) -> {
-          mergeTypeArgumentIndices(changeList);
-          CompilationUnit tree = parse(path, languageLevel);
-          if (tree == null) {
-            return;
-          }
-          ChangeVisitor visitor = new ChangeVisitor(tree);
-          Set<Modification> modifications = new HashSet<>();
-          Set<ImportDeclaration> imports = new HashSet<>();
-          for (ASTChange change : changeList) {
-            try {
-              Modification modification = visitor.computeModification(change);
-              if (modification != null) {
-                modifications.add(modification);
-                if (change instanceof AddAnnotation) {
-                  String annotationFullName = ((AnnotationChange) change).annotationName.fullName;
-                  if (ASTUtils.getPackageName(annotationFullName) != null) {
-                    ImportDeclaration importDeclaration =
-                        StaticJavaParser.parseImport("import " + annotationFullName + ";");
-                    if (treeRequiresImportDeclaration(
-                        tree, importDeclaration, annotationFullName)) {
-                      imports.add(importDeclaration);
-                    }
-                  }
-                }
+        changes.stream().collect(groupingBy(change -> resolvePath(change.getLocation().path)));
+    // Files are modified concurrently, irreversible files are collected in a concurrent set.
+    Set<Path> irreversible = ConcurrentHashMap.newKeySet();
+    Set<FileOffsetStore> offsetStores =
+        map.entrySet().parallelStream()
+            .map(entry -> apply(entry.getKey(), entry.getValue(), irreversible))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    if (irreversibleFiles != null) {
+      irreversibleFiles.addAll(irreversible);
+    }
+    return offsetStores;
+  }
+
+  /**
+   * Applies the given changes on the file at the given path.
+   *
+   * @param path Path to the modified file.
+   * @param changeList Changes on elements of the file.
+   * @param irreversibleFiles Set to add the path to, if removing the changes would not restore the
+   *     file exactly. That is, if an import declaration is added, an annotation is not added since
+   *     it already exists (and its removal would delete it), or a change failed.
+   * @return Offset changes of the file, {@code null} if the file does not exist.
+   */
+  @Nullable
+  private FileOffsetStore apply(
+      @Nullable Path path, List<ASTChange> changeList, Set<Path> irreversibleFiles) {
+    mergeTypeArgumentIndices(changeList);
+    CompilationUnit tree = cache.parse(path, languageLevel);
+    if (tree == null) {
+      return null;
+    }
+    ChangeVisitor visitor = new ChangeVisitor(tree);
+    Set<Modification> modifications = new HashSet<>();
+    Set<ImportDeclaration> imports = new HashSet<>();
+    boolean reversible = true;
+    for (ASTChange change : changeList) {
+      try {
+        Modification modification = visitor.computeModification(change);
+        if (modification == null) {
+          reversible &= !(change instanceof AddAnnotation);
+        } else {
+          modifications.add(modification);
+          if (change instanceof AddAnnotation) {
+            String annotationFullName = ((AnnotationChange) change).annotationName.fullName;
+            if (ASTUtils.getPackageName(annotationFullName) != null) {
+              ImportDeclaration importDeclaration =
+                  parseImport("import " + annotationFullName + ";");
+              if (treeRequiresImportDeclaration(tree, importDeclaration, annotationFullName)) {
+                imports.add(importDeclaration);
               }
-            } catch (Exception ex) {
-              System.err.println("Encountered Exception: " + ex);
             }
           }
-          Printer printer = new Printer(path);
-          printer.applyModifications(modifications);
-          printer.addImports(tree, imports);
-          try {
-            FileOffsetStore offsetStore = printer.write();
-            offsets.add(offsetStore);
-          } catch (Exception e) {
-            System.out.println("Error happened while Printer writing content back to: " + path);
-            throw new RuntimeException(e);
-          }
-        });
-    return offsets;
+        }
+      } catch (Exception ex) {
+        reversible = false;
+        System.err.println("Encountered Exception: " + ex);
+      }
+    }
+    if (!reversible || !imports.isEmpty()) {
+      irreversibleFiles.add(path);
+    }
+    Printer printer = new Printer(path);
+    long sequence = buildSequence.getAsLong();
+    Printer.State pristine =
+        pristineStates.computeIfAbsent(path, key -> printer.getState(sequence));
+    printer.applyModifications(modifications);
+    printer.addImports(tree, imports);
+    FileOffsetStore offsetStore;
+    try {
+      offsetStore = printer.write(pristine, sequence);
+    } catch (Exception e) {
+      throw new RuntimeException(
+          "Error happened while Printer writing content back to: " + path, e);
+    }
+    if (printer.isRestored()) {
+      // The next modification starts from the current state of the file.
+      pristineStates.remove(path, pristine);
+    }
+    return offsetStore;
+  }
+
+  /**
+   * Parses the given import declaration with the parser of the current thread.
+   *
+   * @param declaration Import declaration statement.
+   * @return Parsed import declaration.
+   */
+  private ImportDeclaration parseImport(String declaration) {
+    ParseResult<ImportDeclaration> result = parsers.get().parseImport(declaration);
+    if (!result.isSuccessful() || result.getResult().isEmpty()) {
+      throw new ParseProblemException(result.getProblems());
+    }
+    return result.getResult().get();
+  }
+
+  /**
+   * Resolves the path of the file which is modified for a change on the given location path.
+   *
+   * @param path Path of the change location.
+   * @return Path to the modified file, {@code null} if the given path is {@code null}.
+   */
+  @Nullable
+  private Path resolvePath(@Nullable Path path) {
+    return path == null ? null : pathResolver.apply(path);
   }
 
   /**
@@ -155,6 +310,20 @@ public class Injector {
     return this.start(requests);
   }
 
+  /**
+   * Adds the given annotations and collects the files where removing the annotations right after
+   * would not restore the file exactly, since an import declaration is added or an annotation
+   * already exists.
+   *
+   * @param requests Given annotations.
+   * @param irreversibleFiles Set to add the paths of such files to.
+   * @return Offset changes of source file.
+   */
+  public Set<FileOffsetStore> addAnnotations(
+      Set<AddAnnotation> requests, Set<Path> irreversibleFiles) {
+    return this.start(requests, irreversibleFiles);
+  }
+
   /**
    * Deletes the given annotations.
    *
@@ -215,18 +384,31 @@ public class Injector {
       // fixes are still useful in downstream dependency analysis phase.
       return null;
     }
-    ParserConfiguration parserConfiguration = new ParserConfiguration();
-    parserConfiguration.setLanguageLevel(level);
-    StaticJavaParser.setConfiguration(parserConfiguration);
+    ParseResult<CompilationUnit> result;
     try {
-      return StaticJavaParser.parse(path);
-    } catch (ParseProblemException e) {
-      // The original exception is not useful for the user. We should provide a more informative one
-      throw new ParseException(path, e);
+      // A new parser is created for each call, as parsers must not be shared by threads.
+      result = new JavaParser(createParserConfiguration(level)).parse(path);
     } catch (NoSuchFileException e) {
       return null;
     } catch (IOException e) {
       throw new RuntimeException("Error happened on parsing file at: " + path, e);
     }
+    if (!result.isSuccessful() || result.getResult().isEmpty()) {
+      // The original exception is not useful for the user. We should provide a more informative one
+      throw new ParseException(path, new ParseProblemException(result.getProblems()));
+    }
+    return result.getResult().get();
+  }
+
+  /**
+   * Creates a parser configuration for the given language level.
+   *
+   * @param level Language level to use when parsing source files.
+   * @return Parser configuration.
+   */
+  static ParserConfiguration createParserConfiguration(ParserConfiguration.LanguageLevel level) {
+    ParserConfiguration parserConfiguration = new ParserConfiguration();
+    parserConfiguration.setLanguageLevel(level);
+    return parserConfiguration;
   }
 }
@@ -27,13 +27,22 @@ package edu.ucr.cs.riple.injector;
 import com.github.javaparser.Range;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import edu.ucr.cs.riple.injector.modifications.Modification;
 import edu.ucr.cs.riple.injector.offsets.FileOffsetStore;
+import edu.ucr.cs.riple.injector.util.FileUtils;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -41,6 +50,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Applies the text modification instances to source file. Text modifications are applied according
@@ -54,13 +64,29 @@ public class Printer {
   /** Lines of source file. */
   private final List<String> lines;
 
+  /** Content of source file before any modification. */
+  private final byte[] original;
+
+  /** Last modified time of source file before any modification. */
+  private final FileTime lastModifiedTime;
+
   /** Offset store for recording changes in source code. */
   private final FileOffsetStore offsetStore;
 
+  /** True if the latest write restored the file to the pristine state given to it. */
+  private boolean restored;
+
   public Printer(Path path) {
     this.path = path;
     try {
-      lines = Files.readAllLines(path, Charset.defaultCharset());
+      original = Files.readAllBytes(path);
+      lastModifiedTime = Files.getLastModifiedTime(path);
+      // Decoded strictly, as files which cannot be decoded cannot be written back unchanged.
+      String content =
+          Charset.defaultCharset().newDecoder().decode(ByteBuffer.wrap(original)).toString();
+      try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+        lines = reader.lines().collect(Collectors.toCollection(ArrayList::new));
+      }
     } catch (IOException e) {
       throw new RuntimeException("Happened at path: " + path, e);
     }
@@ -166,19 +192,83 @@ public class Printer {
   }
 
   /**
-   * Writes the updated lines into the source file.
+   * Writes the updated lines into the source file. The file is not rewritten if its content is
+   * unchanged, which keeps its last modified time, so that build tools do not consider it changed.
    *
    * @return offset store corresponding to file changes.
    */
   public FileOffsetStore write() {
+    return write(null, 0);
+  }
+
+  /**
+   * Writes the updated lines into the source file. The file is not rewritten if its content is
+   * unchanged. If the file is restored to the given pristine state and no build happened since, its
+   * last modified time is restored as well, so that build tools checking modification times
+   * consider it unchanged since the pristine state. If a build happened, outputs of the build are
+   * compiled from the modified content and the file must look newer than them.
+   *
+   * @param pristine State of the file before it was first modified, can be {@code null}.
+   * @param buildSequence Number of builds of the file so far.
+   * @return offset store corresponding to file changes.
+   */
+  FileOffsetStore write(@Nullable State pristine, long buildSequence) {
+    StringBuilder builder = new StringBuilder();
+    lines.forEach(line -> builder.append(line).append(System.lineSeparator()));
+    byte[] content = builder.toString().getBytes(Charset.defaultCharset());
+    if (Arrays.equals(content, original)) {
+      return offsetStore;
+    }
     try {
-      Files.write(path, lines, Charset.defaultCharset());
+      // Replaced rather than modified in place, so hard links to the file keep their content.
+      FileUtils.replace(path, content);
+      restored = pristine != null && pristine.hash.equals(Hashing.sha256().hashBytes(content));
+      if (restored && pristine.buildSequence == buildSequence) {
+        Files.setLastModifiedTime(path, pristine.lastModifiedTime);
+      }
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
     return offsetStore;
   }
 
+  /**
+   * Returns the state of the source file before any modification by this printer.
+   *
+   * @return State of the source file.
+   */
+  State getState(long buildSequence) {
+    return new State(Hashing.sha256().hashBytes(original), lastModifiedTime, buildSequence);
+  }
+
+  /**
+   * Checks if the latest write restored the file to the pristine state given to it.
+   *
+   * @return true, if the written content is the content of the pristine state.
+   */
+  boolean isRestored() {
+    return restored;
+  }
+
+  /** State of a source file, used to detect when a file is restored to it. */
+  static final class State {
+
+    /** Hash of the content of the file. */
+    private final HashCode hash;
+
+    /** Last modified time of the file. */
+    private final FileTime lastModifiedTime;
+
+    /** Number of builds of the file when it was in this state. */
+    private final long buildSequence;
+
+    private State(HashCode hash, FileTime lastModifiedTime, long buildSequence) {
+      this.hash = hash;
+      this.lastModifiedTime = lastModifiedTime;
+      this.buildSequence = buildSequence;
+    }
+  }
+
   /**
    * Deserializes a Path instance from a string.
    *
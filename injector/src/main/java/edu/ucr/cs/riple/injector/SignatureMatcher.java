@@ -26,6 +26,7 @@ package edu.ucr.cs.riple.injector;
 
 import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.type.Type;
+import com.google.common.collect.ImmutableList;
 import edu.ucr.cs.riple.injector.util.ASTUtils;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,8 +37,11 @@ public class SignatureMatcher {
   /** Simple name of the callable. */
   private final String callableName;
 
-  /** List of parameters detected from signature in string. */
-  private final List<String> parameterTypes;
+  /**
+   * Normalized signature, consisting of the callable name followed by the simple names of the
+   * parameter types. See {@link #normalizedSignatureOf(CallableDeclaration)}.
+   */
+  private final ImmutableList<String> normalizedSignature;
 
   /**
    * Constructor to make a matcher instance.
@@ -46,7 +50,48 @@ public class SignatureMatcher {
    */
   public SignatureMatcher(String signature) {
     this.callableName = ASTUtils.extractCallableName(signature);
-    this.parameterTypes = extractParameterTypesFromSignature(signature);
+    this.normalizedSignature =
+        normalize(callableName, extractParameterTypesFromSignature(signature));
+  }
+
+  /**
+   * Returns the normalized signature of this matcher. A callable declaration matches this matcher
+   * if and only if its normalized signature is equal to the returned value, therefore it can be
+   * used as a key to look up callable declarations.
+   *
+   * @return Normalized signature.
+   */
+  public ImmutableList<String> getNormalizedSignature() {
+    return normalizedSignature;
+  }
+
+  /**
+   * Returns the normalized signature of the given callable declaration, consisting of the callable
+   * name followed by the simple names of the parameter types.
+   *
+   * @param callableDec callable declaration instance.
+   * @return Normalized signature.
+   */
+  public static ImmutableList<String> normalizedSignatureOf(CallableDeclaration<?> callableDec) {
+    return normalize(
+        callableDec.getName().toString(),
+        extractParameterTypesFromCallableDeclaration(callableDec));
+  }
+
+  /**
+   * Creates the normalized signature from the callable name and parameter types. Two parameter
+   * types match if they are equal or their simple names are equal, which is equivalent to their
+   * simple names being equal.
+   *
+   * @param callableName Simple name of the callable.
+   * @param parameterTypes Parameter types.
+   * @return Normalized signature.
+   */
+  private static ImmutableList<String> normalize(String callableName, List<String> parameterTypes) {
+    ImmutableList.Builder<String> builder = ImmutableList.builder();
+    builder.add(callableName);
+    parameterTypes.forEach(type -> builder.add(ASTUtils.simpleName(type)));
+    return builder.build();
   }
 
   /**
@@ -109,31 +154,10 @@ public class SignatureMatcher {
    * @return true, if signature matches the callable and false otherwise.
    */
   public boolean matchesCallableDeclaration(CallableDeclaration<?> callableDec) {
-    // match callable names.
+    // match callable names before computing parameter types.
     if (!callableDec.getName().toString().equals(callableName)) {
       return false;
     }
-    // match parameter types.
-    List<String> paramTypesFromCallableDeclaration =
-        extractParameterTypesFromCallableDeclaration(callableDec);
-    if (parameterTypes.size() != paramTypesFromCallableDeclaration.size()) {
-      return false;
-    }
-    int size = parameterTypes.size();
-    for (int i = 0; i < size; i++) {
-      String callableType = parameterTypes.get(i);
-      String signatureType = paramTypesFromCallableDeclaration.get(i);
-      if (signatureType.equals(callableType)) {
-        continue;
-      }
-      String simpleCallableType = ASTUtils.simpleName(callableType);
-      String simpleSignatureType = ASTUtils.simpleName(signatureType);
-      if (simpleCallableType.equals(simpleSignatureType)) {
-        continue;
-      }
-      // Param types are different.
-      return false;
-    }
-    return true;
+    return normalizedSignature.equals(normalizedSignatureOf(callableDec));
   }
 }
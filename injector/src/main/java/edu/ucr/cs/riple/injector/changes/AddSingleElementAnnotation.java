@@ -67,6 +67,15 @@ public class AddSingleElementAnnotation extends AnnotationChange implements AddA
     this.repeatable = repeatable;
   }
 
+  /**
+   * Getter for the argument of the annotation.
+   *
+   * @return Argument of the annotation.
+   */
+  public String getArgument() {
+    return argument;
+  }
+
   @Override
   @Nullable
   public <T extends NodeWithAnnotations<?> & NodeWithRange<?>>
@@ -124,8 +133,9 @@ public class AddSingleElementAnnotation extends AnnotationChange implements AddA
     if (annotRange.isEmpty()) {
       return null;
     }
+    // Updated on a copy, trees can be shared with other components and must not be modified.
     SingleMemberAnnotationExpr singleMemberAnnotationExpr =
-        (SingleMemberAnnotationExpr) existingAnnotation;
+        ((SingleMemberAnnotationExpr) existingAnnotation).clone();
     ArrayInitializerExpr updatedMemberValue = new ArrayInitializerExpr();
     NodeList<Expression> nodeList = new NodeList<>();
 
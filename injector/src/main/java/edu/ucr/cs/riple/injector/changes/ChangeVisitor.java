@@ -27,8 +27,10 @@ import static edu.ucr.cs.riple.injector.location.OnClass.isAnonymousClassFlatNam
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.InitializerDeclaration;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
@@ -45,123 +47,92 @@ import edu.ucr.cs.riple.injector.location.OnMethod;
 import edu.ucr.cs.riple.injector.location.OnParameter;
 import edu.ucr.cs.riple.injector.modifications.Modification;
 import edu.ucr.cs.riple.injector.util.ASTUtils;
+import edu.ucr.cs.riple.injector.util.DeclarationIndex;
+import edu.ucr.cs.riple.injector.util.DeclarationIndex.MemberTable;
 import edu.ucr.cs.riple.injector.util.TypeUtils;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 
 /**
  * A visitor for computing the required {@link Modification} to a compilation unit on a specified
  * location for the requested change.
  */
-public class ChangeVisitor
-    implements LocationVisitor<Modification, Pair<NodeList<BodyDeclaration<?>>, ASTChange>> {
+public class ChangeVisitor implements LocationVisitor<Modification, Pair<MemberTable, ASTChange>> {
 
-  /** Compilation unit which the changes will be applied. */
-  private final CompilationUnit cu;
+  /**
+   * Index of declarations in the compilation unit which the changes will be applied, shared by all
+   * visitors of the compilation unit.
+   */
+  private final DeclarationIndex index;
 
   public ChangeVisitor(CompilationUnit cu) {
-    this.cu = cu;
+    this.index = DeclarationIndex.of(cu);
   }
 
   @Override
   @Nullable
-  public Modification visitMethod(
-      OnMethod onMethod, Pair<NodeList<BodyDeclaration<?>>, ASTChange> pair) {
-    final AtomicReference<Modification> ans = new AtomicReference<>();
-    final NodeList<BodyDeclaration<?>> members = pair.a;
+  public Modification visitMethod(OnMethod onMethod, Pair<MemberTable, ASTChange> pair) {
+    final MemberTable table = pair.a;
     final ASTChange change = pair.b;
-    members.forEach(
-        bodyDeclaration ->
-            bodyDeclaration.ifCallableDeclaration(
-                callableDeclaration -> {
-                  if (ans.get() != null) {
-                    // already found the member.
-                    return;
-                  }
-                  if (onMethod.matchesCallableDeclaration(callableDeclaration)) {
-                    ans.set(change.computeTextModificationOn(callableDeclaration));
-                  }
-                }));
-    if (ans.get() == null) {
-      members.forEach(
-          bodyDeclaration ->
-              bodyDeclaration.ifAnnotationMemberDeclaration(
-                  annotationMemberDeclaration -> {
-                    if (annotationMemberDeclaration
-                        .getNameAsString()
-                        .equals(ASTUtils.extractCallableName(onMethod.method))) {
-                      ans.set(change.computeTextModificationOn(annotationMemberDeclaration));
-                    }
-                  }));
+    for (CallableDeclaration<?> callableDeclaration : table.getCallables(onMethod.matcher)) {
+      Modification modification = change.computeTextModificationOn(callableDeclaration);
+      if (modification != null) {
+        return modification;
+      }
+    }
+    AnnotationMemberDeclaration annotationMemberDeclaration =
+        table.getAnnotationMember(ASTUtils.extractCallableName(onMethod.method));
+    if (annotationMemberDeclaration != null) {
+      return change.computeTextModificationOn(annotationMemberDeclaration);
     }
-    return ans.get();
+    return null;
   }
 
   @Override
   @Nullable
-  public Modification visitField(
-      OnField onField, Pair<NodeList<BodyDeclaration<?>>, ASTChange> pair) {
-    final AtomicReference<Modification> ans = new AtomicReference<>();
-    final NodeList<BodyDeclaration<?>> members = pair.a;
+  public Modification visitField(OnField onField, Pair<MemberTable, ASTChange> pair) {
+    final MemberTable table = pair.a;
     final ASTChange change = pair.b;
-    members.forEach(
-        bodyDeclaration ->
-            bodyDeclaration.ifFieldDeclaration(
-                fieldDeclaration -> {
-                  if (ans.get() != null) {
-                    // already found the member.
-                    return;
-                  }
-                  NodeList<VariableDeclarator> vars =
-                      fieldDeclaration.asFieldDeclaration().getVariables();
-                  for (VariableDeclarator v : vars) {
-                    if (onField.variables.contains(v.getName().toString())) {
-                      ans.set(change.computeTextModificationOn(fieldDeclaration));
-                      break;
-                    }
-                  }
-                }));
-    return ans.get();
+    for (FieldDeclaration fieldDeclaration : table.getFields(onField.variables)) {
+      Modification modification = change.computeTextModificationOn(fieldDeclaration);
+      if (modification != null) {
+        return modification;
+      }
+    }
+    return null;
   }
 
   @Override
   @Nullable
-  public Modification visitParameter(
-      OnParameter onParameter, Pair<NodeList<BodyDeclaration<?>>, ASTChange> pair) {
-    final AtomicReference<Modification> ans = new AtomicReference<>();
-    final NodeList<BodyDeclaration<?>> members = pair.a;
+  public Modification visitParameter(OnParameter onParameter, Pair<MemberTable, ASTChange> pair) {
+    final MemberTable table = pair.a;
     final ASTChange change = pair.b;
-    members.forEach(
-        bodyDeclaration ->
-            bodyDeclaration.ifCallableDeclaration(
-                callableDeclaration -> {
-                  if (ans.get() != null) {
-                    // already found the member.
-                    return;
-                  }
-                  if (onParameter.enclosingMethod.matchesCallableDeclaration(callableDeclaration)) {
-                    NodeList<?> params = callableDeclaration.getParameters();
-                    if (onParameter.index < params.size()) {
-                      if (params.get(onParameter.index) != null) {
-                        Node param = params.get(onParameter.index);
-                        if (param instanceof Parameter) {
-                          ans.set(change.computeTextModificationOn((Parameter) param));
-                        }
-                      }
-                    }
-                  }
-                }));
-    return ans.get();
+    // Falls through to a later callable with the same signature, if the parameter is not found
+    // or the change is not applicable on the first one.
+    for (CallableDeclaration<?> callableDeclaration :
+        table.getCallables(onParameter.enclosingMethod.matcher)) {
+      NodeList<?> params = callableDeclaration.getParameters();
+      if (onParameter.index < params.size()) {
+        if (params.get(onParameter.index) != null) {
+          Node param = params.get(onParameter.index);
+          if (param instanceof Parameter) {
+            Modification modification = change.computeTextModificationOn((Parameter) param);
+            if (modification != null) {
+              return modification;
+            }
+          }
+        }
+      }
+    }
+    return null;
   }
 
   @Override
   @Nullable
-  public Modification visitClass(
-      OnClass onClass, Pair<NodeList<BodyDeclaration<?>>, ASTChange> pair) {
-    final NodeList<BodyDeclaration<?>> members = pair.a;
+  public Modification visitClass(OnClass onClass, Pair<MemberTable, ASTChange> pair) {
+    final NodeList<BodyDeclaration<?>> members = pair.a.getMembers();
     final ASTChange change = pair.b;
     if (isAnonymousClassFlatName(change.getLocation().clazz)) {
       return null;
@@ -176,8 +147,8 @@ public class ChangeVisitor
 
   @Override
   public Modification visitLocalVariable(
-      OnLocalVariable onLocalVariable, Pair<NodeList<BodyDeclaration<?>>, ASTChange> pair) {
-    final NodeList<BodyDeclaration<?>> members = pair.a;
+      OnLocalVariable onLocalVariable, Pair<MemberTable, ASTChange> pair) {
+    final NodeList<BodyDeclaration<?>> members = pair.a.getMembers();
     final ASTChange change = pair.b;
     if (onLocalVariable.encMethod == null) {
       // The local variable is inside a static block initializer.
@@ -205,24 +176,22 @@ public class ChangeVisitor
       }
       return null;
     }
-    for (BodyDeclaration<?> member : members) {
-      if (member instanceof CallableDeclaration<?>) {
-        CallableDeclaration<?> callableDeclaration = (CallableDeclaration<?>) member;
-        if (onLocalVariable.encMethod.matchesCallableDeclaration(callableDeclaration)) {
-          // Find variable declaration in the callable declaration with the variable name.
-          VariableDeclarationExpr variableDeclarationExpr =
-              ASTUtils.locateVariableDeclarationExpr(callableDeclaration, onLocalVariable.varName);
-          if (variableDeclarationExpr == null) {
-            return null;
-          }
-          for (VariableDeclarator variableDeclarator : variableDeclarationExpr.getVariables()) {
-            if (variableDeclarator.getName().toString().equals(onLocalVariable.varName)) {
-              onLocalVariable.isOnArray = variableDeclarator.getType().isArrayType();
-              // Located the variable.
-              return change.computeTextModificationOn(variableDeclarationExpr);
-            }
-          }
-        }
+    CallableDeclaration<?> callableDeclaration =
+        pair.a.getCallable(onLocalVariable.encMethod.matcher);
+    if (callableDeclaration == null) {
+      return null;
+    }
+    // Find variable declaration in the callable declaration with the variable name.
+    VariableDeclarationExpr variableDeclarationExpr =
+        ASTUtils.locateVariableDeclarationExpr(callableDeclaration, onLocalVariable.varName);
+    if (variableDeclarationExpr == null) {
+      return null;
+    }
+    for (VariableDeclarator variableDeclarator : variableDeclarationExpr.getVariables()) {
+      if (variableDeclarator.getName().toString().equals(onLocalVariable.varName)) {
+        onLocalVariable.isOnArray = variableDeclarator.getType().isArrayType();
+        // Located the variable.
+        return change.computeTextModificationOn(variableDeclarationExpr);
       }
     }
     return null;
@@ -230,8 +199,8 @@ public class ChangeVisitor
 
   @Override
   public Modification visitClassDeclaration(
-      OnClassDeclaration onClassDeclaration, Pair<NodeList<BodyDeclaration<?>>, ASTChange> pair) {
-    final NodeList<BodyDeclaration<?>> members = pair.a;
+      OnClassDeclaration onClassDeclaration, Pair<MemberTable, ASTChange> pair) {
+    final NodeList<BodyDeclaration<?>> members = pair.a.getMembers();
     final ASTChange change = pair.b;
     // Get the enclosing class of the members
     Optional<Node> optionalClass = members.getParentNode();
@@ -258,13 +227,12 @@ public class ChangeVisitor
    */
   @Nullable
   public Modification computeModification(ASTChange change) {
-    NodeList<BodyDeclaration<?>> members;
     try {
-      members = ASTUtils.getTypeDeclarationMembersByFlatName(cu, change.getLocation().clazz);
-      if (members == null) {
+      MemberTable table = index.getMemberTable(change.getLocation().clazz);
+      if (table == null) {
         return null;
       }
-      return change.getLocation().accept(this, new Pair<>(members, change));
+      return change.getLocation().accept(this, new Pair<>(table, change));
     } catch (TargetClassNotFound notFound) {
       System.err.println(notFound.getMessage());
       return null;
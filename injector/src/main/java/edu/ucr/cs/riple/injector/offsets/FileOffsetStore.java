@@ -24,17 +24,15 @@
 
 package edu.ucr.cs.riple.injector.offsets;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /** Stores list of offset changes for a file. */
 public class FileOffsetStore {
@@ -45,11 +43,32 @@ public class FileOffsetStore {
   /** List of existing offset changes. */
   private SortedSet<OffsetChange> offsetChanges;
 
-  /** Contents of file. */
-  private final ImmutableList<String> lines;
+  /**
+   * For each offset change at index {@code i} in {@link #offsetChanges}, the maximum position of
+   * changes at index {@code 0..i} after applying their preceding changes. An offset is translated
+   * by the changes at index {@code i}, if and only if it is greater than the value at {@code i}.
+   * Built on demand, and {@code null} when offset changes are modified.
+   */
+  @Nullable private int[] thresholds;
+
+  /**
+   * For each offset change at index {@code i} in {@link #offsetChanges}, sum of number of
+   * characters of changes at index {@code 0..i}. Built along {@link #thresholds}.
+   */
+  @Nullable private int[] sums;
+
+  /**
+   * Offset of the first character of each line in the file, the last element is the offset right
+   * after the last line. Shared between copies of the store, and never modified.
+   */
+  private final int[] lineStarts;
 
   public FileOffsetStore(List<String> lines, Path path) {
-    this.lines = ImmutableList.copyOf(lines);
+    this(computeLineStarts(lines), path);
+  }
+
+  private FileOffsetStore(int[] lineStarts, Path path) {
+    this.lineStarts = lineStarts;
     this.path = path;
     this.offsetChanges = new TreeSet<>();
   }
@@ -64,6 +83,7 @@ public class FileOffsetStore {
   public void updateOffsetWithAddition(int line, int column, int numChars) {
     int offset = characterOffsetAtLine(line);
     this.offsetChanges.add(new OffsetChange(offset + column, numChars));
+    invalidateTranslation();
   }
 
   /**
@@ -76,6 +96,7 @@ public class FileOffsetStore {
     int offset = characterOffsetAtLine(line);
     // add one to numChars for new line.
     this.offsetChanges.add(new OffsetChange(offset, numChars + 1));
+    invalidateTranslation();
   }
 
   /**
@@ -88,6 +109,7 @@ public class FileOffsetStore {
   public void updateOffsetWithDeletion(int line, int column, int numChars) {
     int offset = characterOffsetAtLine(line);
     this.offsetChanges.add(new OffsetChange(offset + column, -1 * numChars));
+    invalidateTranslation();
   }
 
   /**
@@ -97,12 +119,40 @@ public class FileOffsetStore {
    * @return Number of characters before reaching a line.
    */
   private int characterOffsetAtLine(int line) {
-    int ans = 0;
-    for (int current = 0; current < line && current < lines.size(); current++) {
-      ans += lines.get(current).length();
-      ans += 1; // for new line.
+    if (line <= 0) {
+      return 0;
+    }
+    return lineStarts[Math.min(line, lineStarts.length - 1)];
+  }
+
+  /**
+   * Computes the offset of the first character of each line.
+   *
+   * @param lines Contents of file.
+   * @return Array of offsets, where the element at index {@code i} is the number of characters
+   *     before line {@code i}, and the last element is the number of characters in all lines.
+   */
+  private static int[] computeLineStarts(List<String> lines) {
+    int[] starts = new int[lines.size() + 1];
+    int index = 0;
+    for (String line : lines) {
+      // add one for new line.
+      starts[index + 1] = starts[index] + line.length() + 1;
+      index++;
     }
-    return ans;
+    return starts;
+  }
+
+  /**
+   * Creates a copy of this store with the same offset changes associated with the given path.
+   *
+   * @param path Path of the file the copy is associated with.
+   * @return A new store instance, changes on the copy are not reflected on this instance.
+   */
+  public FileOffsetStore copy(Path path) {
+    FileOffsetStore copy = new FileOffsetStore(lineStarts, path);
+    copy.offsetChanges.addAll(offsetChanges);
+    return copy;
   }
 
   /**
@@ -123,6 +173,33 @@ public class FileOffsetStore {
     return ImmutableSortedSet.copyOf(this.offsetChanges);
   }
 
+  /**
+   * Computes the original offset of the given offset according to existing offset changes. Results
+   * are identical to {@link OffsetChange#getOriginalOffset(int, SortedSet)}, but computed with a
+   * binary search.
+   *
+   * @param offset Given offset.
+   * @return Original offset.
+   */
+  public int getOriginalOffset(int offset) {
+    if (thresholds == null) {
+      buildTranslation();
+    }
+    // Changes are applied in order while the offset is greater than their position, the number of
+    // applied changes is the number of thresholds less than the offset.
+    int low = 0;
+    int high = thresholds.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (thresholds[mid] < offset) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low == 0 ? offset : offset - sums[low - 1];
+  }
+
   /**
    * Updates existing offset changes with new changes from an operation by {@link
    * edu.ucr.cs.riple.injector.Injector}.
@@ -131,11 +208,14 @@ public class FileOffsetStore {
    */
   public void updateStateWithNewOffsetChanges(ImmutableSortedSet<OffsetChange> changes) {
     // convert offset changes to original offsets according to existing offset changes.
-    this.offsetChanges.addAll(
-        changes.stream()
-            .map(offsetChange -> offsetChange.getOffsetWithoutChanges(offsetChanges))
-            .collect(Collectors.toSet()));
-    this.summarize();
+    SortedSet<OffsetChange> converted = new TreeSet<>();
+    changes.forEach(
+        offsetChange ->
+            converted.add(
+                new OffsetChange(
+                    getOriginalOffset(offsetChange.position), offsetChange.numChars)));
+    this.offsetChanges = merge(offsetChanges, converted);
+    invalidateTranslation();
   }
 
   @Override
@@ -156,25 +236,80 @@ public class FileOffsetStore {
   }
 
   /**
-   * Summarizes offset changes. (e.g. offset change (p1, d1) and (p1, -d1 + e) can be summarized to
-   * (p1, e)). Also during search, we have many consecutive addition and deletion on the same
-   * position, this method can summarize them into a single offset change.
+   * Merges two sets of offset changes and summarizes the result in a single pass. (e.g. offset
+   * change (p1, d1) and (p1, -d1 + e) can be summarized to (p1, e)). Also during search, we have
+   * many consecutive addition and deletion on the same position, this method can summarize them
+   * into a single offset change. Equal changes in both sets are merged as in a set union.
+   *
+   * @param first First sorted set of offset changes.
+   * @param second Second sorted set of offset changes.
+   * @return Summarized union of the given sets.
    */
-  private void summarize() {
-    offsetChanges =
-        offsetChanges.stream()
-            .collect(
-                groupingBy(
-                    offsetChange -> offsetChange.position,
-                    mapping(offsetChange -> offsetChange.numChars, Collectors.toList())))
-            .entrySet()
-            .stream()
-            .map(
-                entry ->
-                    new OffsetChange(
-                        entry.getKey(), entry.getValue().stream().mapToInt(value -> value).sum()))
-            .filter(oc -> oc.numChars != 0)
-            .sorted(OffsetChange::compareTo)
-            .collect(Collectors.toCollection(TreeSet::new));
+  private static SortedSet<OffsetChange> merge(
+      SortedSet<OffsetChange> first, SortedSet<OffsetChange> second) {
+    List<OffsetChange> merged = new ArrayList<>(first.size() + second.size());
+    Iterator<OffsetChange> firstIterator = first.iterator();
+    Iterator<OffsetChange> secondIterator = second.iterator();
+    OffsetChange a = firstIterator.hasNext() ? firstIterator.next() : null;
+    OffsetChange b = secondIterator.hasNext() ? secondIterator.next() : null;
+    int position = 0;
+    int numChars = 0;
+    boolean pending = false;
+    while (a != null || b != null) {
+      OffsetChange next;
+      if (b == null || (a != null && a.compareTo(b) <= 0)) {
+        next = a;
+        if (b != null && a.equals(b)) {
+          b = secondIterator.hasNext() ? secondIterator.next() : null;
+        }
+        a = firstIterator.hasNext() ? firstIterator.next() : null;
+      } else {
+        next = b;
+        b = secondIterator.hasNext() ? secondIterator.next() : null;
+      }
+      if (pending && next.position != position) {
+        if (numChars != 0) {
+          merged.add(new OffsetChange(position, numChars));
+        }
+        numChars = 0;
+      }
+      position = next.position;
+      numChars += next.numChars;
+      pending = true;
+    }
+    if (pending && numChars != 0) {
+      merged.add(new OffsetChange(position, numChars));
+    }
+    // Merged changes are already sorted, which lets both copies be built in linear time.
+    return new TreeSet<>(ImmutableSortedSet.copyOf(merged));
+  }
+
+  /**
+   * Builds {@link #thresholds} and {@link #sums} from existing offset changes. Offset changes are
+   * processed in order as in {@link OffsetChange#getOriginalOffset(int, SortedSet)}: change at
+   * index {@code i} is applied on an offset, if and only if all previous changes are applied and
+   * the offset after applying them is greater than the position of the change.
+   */
+  private void buildTranslation() {
+    int[] thresholds = new int[offsetChanges.size()];
+    int[] sums = new int[offsetChanges.size()];
+    int index = 0;
+    int sum = 0;
+    int max = Integer.MIN_VALUE;
+    for (OffsetChange change : offsetChanges) {
+      max = Math.max(max, change.position + sum);
+      sum += change.numChars;
+      thresholds[index] = max;
+      sums[index] = sum;
+      index++;
+    }
+    this.thresholds = thresholds;
+    this.sums = sums;
+  }
+
+  /** Discards the translation arrays, which are rebuilt on the next translation. */
+  private void invalidateTranslation() {
+    this.thresholds = null;
+    this.sums = null;
   }
 }
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector.util;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import edu.ucr.cs.riple.injector.SignatureMatcher;
+import edu.ucr.cs.riple.injector.exceptions.TargetClassNotFound;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Index of declarations in a compilation unit. Member tables of classes are created on the first
+ * lookup of each class by flat name, and are reused by all following lookups. The index is attached
+ * to the compilation unit, therefore it is created once per parse of a source file and is shared
+ * by all changes applied on the file. Trees must not be modified while they are indexed.
+ */
+public class DeclarationIndex {
+
+  /** Key of the index in the data of the compilation unit. */
+  private static final DataKey<DeclarationIndex> KEY = new DataKey<>() {};
+
+  /** Indexed compilation unit. */
+  private final CompilationUnit cu;
+
+  /** Member tables of classes in the compilation unit by flat name. */
+  private final Map<String, MemberTable> tables;
+
+  private DeclarationIndex(CompilationUnit cu) {
+    this.cu = cu;
+    this.tables = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the index of the given compilation unit, the index is created on the first request.
+   *
+   * @param cu Compilation unit tree instance.
+   * @return Index of the compilation unit.
+   */
+  public static DeclarationIndex of(CompilationUnit cu) {
+    synchronized (cu) {
+      if (cu.containsData(KEY)) {
+        return cu.getData(KEY);
+      }
+      DeclarationIndex index = new DeclarationIndex(cu);
+      cu.setData(KEY, index);
+      return index;
+    }
+  }
+
+  /**
+   * Returns the member table of the Enum/Interface/Class/AnonymousClass/Annotation Declaration with
+   * the given flat name. See {@link ASTUtils#getTypeDeclarationMembersByFlatName(CompilationUnit,
+   * String)}.
+   *
+   * @param flatName Flat name in string.
+   * @return Member table of the declaration, or {@code null} if the declaration has no members.
+   * @throws TargetClassNotFound if the target class is not found.
+   */
+  @Nullable
+  public MemberTable getMemberTable(String flatName) throws TargetClassNotFound {
+    MemberTable table = tables.get(flatName);
+    if (table != null) {
+      return table;
+    }
+    NodeList<BodyDeclaration<?>> members =
+        ASTUtils.getTypeDeclarationMembersByFlatName(cu, flatName);
+    if (members == null) {
+      return null;
+    }
+    table = new MemberTable(members);
+    MemberTable existing = tables.putIfAbsent(flatName, table);
+    return existing == null ? table : existing;
+  }
+
+  /**
+   * Table of members of a declaration, callables are indexed by their normalized signature and
+   * fields by the names of their variables. Lookups return all matching members in order of
+   * declaration, so that callers can fall through to a later match, as a linear scan of the members
+   * does, e.g. when a change cannot be applied on the first match.
+   */
+  public static class MemberTable {
+
+    /** Members of the declaration. */
+    private final NodeList<BodyDeclaration<?>> members;
+
+    /** Callable declarations in members with each normalized signature in order of declaration. */
+    private final ImmutableListMultimap<ImmutableList<String>, CallableDeclaration<?>> callables;
+
+    /** Last annotation member declaration in members with each name. */
+    private final ImmutableMap<String, AnnotationMemberDeclaration> annotationMembers;
+
+    /** Indices in members of field declarations declaring each variable name in ascending order. */
+    private final ImmutableListMultimap<String, Integer> fields;
+
+    private MemberTable(NodeList<BodyDeclaration<?>> members) {
+      this.members = members;
+      ImmutableListMultimap.Builder<ImmutableList<String>, CallableDeclaration<?>> callables =
+          ImmutableListMultimap.builder();
+      Map<String, AnnotationMemberDeclaration> annotationMembers = new HashMap<>();
+      ImmutableListMultimap.Builder<String, Integer> fields = ImmutableListMultimap.builder();
+      for (int i = 0; i < members.size(); i++) {
+        BodyDeclaration<?> member = members.get(i);
+        if (member instanceof CallableDeclaration<?>) {
+          CallableDeclaration<?> callable = (CallableDeclaration<?>) member;
+          callables.put(SignatureMatcher.normalizedSignatureOf(callable), callable);
+        } else if (member instanceof AnnotationMemberDeclaration) {
+          AnnotationMemberDeclaration annotationMember = (AnnotationMemberDeclaration) member;
+          annotationMembers.put(annotationMember.getNameAsString(), annotationMember);
+        } else if (member instanceof FieldDeclaration) {
+          for (VariableDeclarator variable : ((FieldDeclaration) member).getVariables()) {
+            fields.put(variable.getName().toString(), i);
+          }
+        }
+      }
+      this.callables = callables.build();
+      this.annotationMembers = ImmutableMap.copyOf(annotationMembers);
+      this.fields = fields.build();
+    }
+
+    /**
+     * Returns all members of the declaration.
+     *
+     * @return Members of the declaration.
+     */
+    public NodeList<BodyDeclaration<?>> getMembers() {
+      return members;
+    }
+
+    /**
+     * Returns the first callable declaration which matches the given matcher.
+     *
+     * @param matcher Matcher of the callable signature.
+     * @return The matching callable declaration, or {@code null} if no callable matches.
+     */
+    @Nullable
+    public CallableDeclaration<?> getCallable(SignatureMatcher matcher) {
+      ImmutableList<CallableDeclaration<?>> matches = getCallables(matcher);
+      return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Returns all callable declarations which match the given matcher in order of declaration.
+     * Callables with identical normalized signatures can be declared in a class, e.g. overloads
+     * with parameter types of the same simple name from different packages.
+     *
+     * @param matcher Matcher of the callable signature.
+     * @return The matching callable declarations, empty if no callable matches.
+     */
+    public ImmutableList<CallableDeclaration<?>> getCallables(SignatureMatcher matcher) {
+      return callables.get(matcher.getNormalizedSignature());
+    }
+
+    /**
+     * Returns the annotation member declaration with the given name.
+     *
+     * @param name Name of the annotation member.
+     * @return The annotation member declaration, or {@code null} if it is not found.
+     */
+    @Nullable
+    public AnnotationMemberDeclaration getAnnotationMember(String name) {
+      return annotationMembers.get(name);
+    }
+
+    /**
+     * Returns all field declarations which declare any of the given variable names in order of
+     * declaration.
+     *
+     * @param names Names of the variables.
+     * @return The field declarations, empty if no field declares any of the names.
+     */
+    public ImmutableList<FieldDeclaration> getFields(Set<String> names) {
+      SortedSet<Integer> indices = new TreeSet<>();
+      for (String name : names) {
+        indices.addAll(fields.get(name));
+      }
+      return indices.stream()
+          .map(index -> members.get(index).asFieldDeclaration())
+          .collect(ImmutableList.toImmutableList());
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import edu.ucr.cs.riple.injector.modifications.Insertion;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.function.UnaryOperator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CompilationUnitCacheTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final String CONTENT =
+      String.join(
+          System.lineSeparator(),
+          "package test;",
+          "public class Foo {",
+          "   Object f;",
+          "   Object test() {",
+          "       return f;",
+          "   }",
+          "}",
+          "");
+
+  private Path path;
+  private CompilationUnitCache cache;
+
+  @Before
+  public void setup() throws IOException {
+    path = temporaryFolder.getRoot().toPath().resolve("Foo.java");
+    Files.writeString(path, CONTENT, Charset.defaultCharset());
+    cache = new CompilationUnitCache(1 << 20);
+  }
+
+  @Test
+  public void hitOnUnchangedContentTest() {
+    CompilationUnit tree = cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11);
+    assertSame(tree, cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11));
+    assertSame(tree, cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11));
+    assertEquals(1, cache.getParses());
+    assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  public void missAfterPrinterWriteTest() throws IOException {
+    CompilationUnit tree = cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11);
+    FieldDeclaration field = tree.findFirst(FieldDeclaration.class).orElseThrow();
+    Printer printer = new Printer(path);
+    printer.applyModifications(
+        Collections.singleton(new Insertion("@Nullable", field.getRange().orElseThrow().begin)));
+    printer.write();
+    CompilationUnit modified = cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11);
+    assertNotSame(tree, modified);
+    assertTrue(modified.toString().contains("@Nullable"));
+    assertEquals(2, cache.getParses());
+    // Tree of the previous content is reused once the file is restored.
+    Files.writeString(path, CONTENT, Charset.defaultCharset());
+    assertSame(tree, cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11));
+    assertEquals(2, cache.getParses());
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void independentTreesPerLanguageLevelTest() {
+    CompilationUnit java11 = cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11);
+    CompilationUnit java17 = cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_17);
+    assertNotSame(java11, java17);
+    assertSame(java11, cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11));
+    assertSame(java17, cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_17));
+    assertEquals(2, cache.getParses());
+    assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  public void sharedWithInjectorTest() throws IOException {
+    CompilationUnit tree = cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11);
+    Injector injector =
+        new Injector(ParserConfiguration.LanguageLevel.JAVA_11, UnaryOperator.identity(), cache);
+    injector.start(
+        Collections.singleton(
+            new AddMarkerAnnotation(
+                new OnField(path.toString(), "test.Foo", Collections.singleton("f")),
+                "javax.annotation.Nullable")));
+    // The injector reuses the tree of the unchanged file.
+    assertEquals(1, cache.getParses());
+    assertEquals(1, cache.getHits());
+    assertTrue(Files.readString(path, Charset.defaultCharset()).contains("@Nullable Object f"));
+    assertNotSame(tree, cache.parse(path, ParserConfiguration.LanguageLevel.JAVA_11));
+    assertEquals(2, cache.getParses());
+  }
+
+  @Test
+  public void zeroCapacityTest() {
+    CompilationUnitCache disabled = new CompilationUnitCache(0);
+    CompilationUnit tree = disabled.parse(path, ParserConfiguration.LanguageLevel.JAVA_11);
+    assertNotSame(tree, disabled.parse(path, ParserConfiguration.LanguageLevel.JAVA_11));
+    assertEquals(2, disabled.getParses());
+    assertEquals(0, disabled.getHits());
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector;
+
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.changes.RemoveMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import edu.ucr.cs.riple.injector.location.OnMethod;
+import edu.ucr.cs.riple.injector.location.OnParameter;
+import java.util.Collections;
+import org.junit.Test;
+
+/** Tests applying changes on multiple files, which are modified concurrently by the injector. */
+public class ConcurrentInjectionTest extends BaseInjectorTest {
+
+  @Test
+  public void injectOnMultipleFilesTest() {
+    for (int i = 0; i < 16; i++) {
+      String name = "Foo" + i;
+      String path = "test/" + name + ".java";
+      injectorTestHelper
+          .addInput(
+              path,
+              "package test;",
+              "public class " + name + " {",
+              "   Object f;",
+              "   Object test(Object o) {",
+              "       return o;",
+              "   }",
+              "}")
+          .expectOutput(
+              "package test;",
+              "import javax.annotation.Nullable;",
+              "public class " + name + " {",
+              "   @Nullable Object f;",
+              "   @Nullable Object test(@Nullable Object o) {",
+              "       return o;",
+              "   }",
+              "}")
+          .addChanges(
+              new AddMarkerAnnotation(
+                  new OnField(path, "test." + name, Collections.singleton("f")),
+                  "javax.annotation.Nullable"),
+              new AddMarkerAnnotation(
+                  new OnMethod(path, "test." + name, "test(java.lang.Object)"),
+                  "javax.annotation.Nullable"),
+              new AddMarkerAnnotation(
+                  new OnParameter(path, "test." + name, "test(java.lang.Object)", 0),
+                  "javax.annotation.Nullable"));
+    }
+    injectorTestHelper.start();
+  }
+
+  @Test
+  public void addAndRemoveOnMultipleFilesTest() {
+    injectorTestHelper
+        .addInput(
+            "test/Foo.java",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "   @Nullable Object f;",
+            "   @Nullable Object test(@Nullable Object o) {",
+            "       return o;",
+            "   }",
+            "}")
+        .expectOutput(
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "   Object f;",
+            "   Object test(@Nullable Object o) {",
+            "       return o;",
+            "   }",
+            "}")
+        .addInput(
+            "test/Bar.java",
+            "package test;",
+            "public class Bar {",
+            "   Object f;",
+            "   Object test(Object o) {",
+            "       return o;",
+            "   }",
+            "}")
+        .expectOutput(
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Bar {",
+            "   Object f;",
+            "   Object test(@Nullable Object o) {",
+            "       return o;",
+            "   }",
+            "}")
+        .addInput("test/Baz.java", "package test;", "public class Baz {", "   Object f;", "}")
+        .expectOutput("package test;", "public class Baz {", "   Object f;", "}")
+        .addChanges(
+            new RemoveMarkerAnnotation(
+                new OnField("test/Foo.java", "test.Foo", Collections.singleton("f")),
+                "javax.annotation.Nullable"),
+            new RemoveMarkerAnnotation(
+                new OnMethod("test/Foo.java", "test.Foo", "test(java.lang.Object)"),
+                "javax.annotation.Nullable"),
+            new AddMarkerAnnotation(
+                new OnParameter("test/Bar.java", "test.Bar", "test(java.lang.Object)", 0),
+                "javax.annotation.Nullable"))
+        .start();
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.google.common.collect.ImmutableList;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.exceptions.TargetClassNotFound;
+import edu.ucr.cs.riple.injector.location.OnField;
+import edu.ucr.cs.riple.injector.location.OnMethod;
+import edu.ucr.cs.riple.injector.location.OnParameter;
+import edu.ucr.cs.riple.injector.util.DeclarationIndex;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Test;
+
+public class DeclarationIndexTest extends BaseInjectorTest {
+
+  @Test
+  public void overloadsTest() throws TargetClassNotFound {
+    DeclarationIndex.MemberTable table =
+        tableOf(
+            "test.Foo",
+            "package test;",
+            "public class Foo {",
+            "   Foo() { }",
+            "   Foo(Object o) { }",
+            "   void run() { }",
+            "   void run(Object o) { }",
+            "   void run(String s) { }",
+            "   void run(Object o, String s) { }",
+            "}");
+    assertEquals(0, callableOf(table, "Foo()").getParameters().size());
+    assertEquals(
+        "Object", callableOf(table, "Foo(java.lang.Object)").getParameter(0).getTypeAsString());
+    assertEquals(0, callableOf(table, "run()").getParameters().size());
+    assertEquals(
+        "Object", callableOf(table, "run(java.lang.Object)").getParameter(0).getTypeAsString());
+    assertEquals(
+        "String", callableOf(table, "run(java.lang.String)").getParameter(0).getTypeAsString());
+    assertEquals(
+        2, callableOf(table, "run(java.lang.Object,java.lang.String)").getParameters().size());
+    assertNull(table.getCallable(matcher("run(java.lang.Integer)")));
+    assertTrue(table.getCallables(matcher("run(java.lang.Integer)")).isEmpty());
+  }
+
+  @Test
+  public void duplicateSignaturesTest() throws TargetClassNotFound {
+    DeclarationIndex.MemberTable table =
+        tableOf(
+            "test.Foo",
+            "package test;",
+            "public class Foo {",
+            "   void run(a.Bar b) { }",
+            "   void run(b.Bar b) { }",
+            "   void run(Bar b, Bar c) { }",
+            "}");
+    ImmutableList<CallableDeclaration<?>> callables =
+        table.getCallables(matcher("run(a.Bar)"));
+    assertEquals(2, callables.size());
+    assertEquals("a.Bar", callables.get(0).getParameter(0).getTypeAsString());
+    assertEquals("b.Bar", callables.get(1).getParameter(0).getTypeAsString());
+    assertSame(callables.get(0), table.getCallable(matcher("run(b.Bar)")));
+  }
+
+  @Test
+  public void annotationMembersTest() throws TargetClassNotFound {
+    DeclarationIndex.MemberTable table =
+        tableOf(
+            "test.Foo",
+            "package test;",
+            "public @interface Foo {",
+            "   String value();",
+            "   int count() default 0;",
+            "}");
+    assertEquals("value", table.getAnnotationMember("value").getNameAsString());
+    assertEquals("count", table.getAnnotationMember("count").getNameAsString());
+    assertNull(table.getAnnotationMember("other"));
+    assertNull(table.getCallable(matcher("value()")));
+  }
+
+  @Test
+  public void fieldsTest() throws TargetClassNotFound {
+    DeclarationIndex.MemberTable table =
+        tableOf(
+            "test.Foo",
+            "package test;",
+            "public class Foo {",
+            "   Object a, b;",
+            "   void run() { }",
+            "   Object c;",
+            "}");
+    ImmutableList<FieldDeclaration> fields = table.getFields(Set.of("c", "b", "a"));
+    assertEquals(2, fields.size());
+    assertEquals("a", fields.get(0).getVariable(0).getNameAsString());
+    assertEquals("c", fields.get(1).getVariable(0).getNameAsString());
+    assertTrue(table.getFields(Set.of("d")).isEmpty());
+  }
+
+  @Test
+  public void innerClassTableTest() throws TargetClassNotFound {
+    CompilationUnit cu =
+        parse(
+            "package test;",
+            "public class Foo {",
+            "   void run() { }",
+            "   class Inner {",
+            "      void run(Object o) { }",
+            "   }",
+            "}");
+    DeclarationIndex index = DeclarationIndex.of(cu);
+    assertSame(index, DeclarationIndex.of(cu));
+    assertSame(index.getMemberTable("test.Foo"), index.getMemberTable("test.Foo"));
+    assertNotNull(index.getMemberTable("test.Foo$Inner").getCallable(matcher("run(Object)")));
+    assertNull(index.getMemberTable("test.Foo$Inner").getCallable(matcher("run()")));
+  }
+
+  @Test
+  public void annotationMemberInjectionTest() {
+    injectorTestHelper
+        .addInput(
+            "Foo.java",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public @interface Foo {",
+            "   String value();",
+            "}")
+        .expectOutput(
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public @interface Foo {",
+            "   @Nullable String value();",
+            "}")
+        .addChanges(
+            new AddMarkerAnnotation(
+                new OnMethod("Foo.java", "test.Foo", "value()"), "javax.annotation.Nullable"))
+        .start();
+  }
+
+  @Test
+  public void duplicateSignaturesInjectionTest() {
+    // Changes fall through to the next callable with the same signature if they are already
+    // applied on the first one, as the linear scan of members did.
+    injectorTestHelper
+        .addInput(
+            "Foo.java",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "   @Nullable Object run(@Nullable a.Bar b) { }",
+            "   Object run(b.Bar b) { }",
+            "   @Nullable Object f;",
+            "   Object f;",
+            "}")
+        .expectOutput(
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class Foo {",
+            "   @Nullable Object run(@Nullable a.Bar b) { }",
+            "   @Nullable Object run(@Nullable b.Bar b) { }",
+            "   @Nullable Object f;",
+            "   @Nullable Object f;",
+            "}")
+        .addChanges(
+            new AddMarkerAnnotation(
+                new OnMethod("Foo.java", "test.Foo", "run(b.Bar)"), "javax.annotation.Nullable"),
+            new AddMarkerAnnotation(
+                new OnParameter("Foo.java", "test.Foo", "run(b.Bar)", 0),
+                "javax.annotation.Nullable"),
+            new AddMarkerAnnotation(
+                new OnField("Foo.java", "test.Foo", Collections.singleton("f")),
+                "javax.annotation.Nullable"))
+        .start();
+  }
+
+  /**
+   * Returns the member table of the class with the given flat name in the given source.
+   *
+   * @param flatName Flat name of the class.
+   * @param lines Lines of the source.
+   * @return Member table of the class.
+   */
+  private static DeclarationIndex.MemberTable tableOf(String flatName, String... lines)
+      throws TargetClassNotFound {
+    return DeclarationIndex.of(parse(lines)).getMemberTable(flatName);
+  }
+
+  /**
+   * Returns the callable of the given member table matching the given signature.
+   *
+   * @param table Member table.
+   * @param signature Signature of the callable.
+   * @return Matching callable, must exist.
+   */
+  private static CallableDeclaration<?> callableOf(
+      DeclarationIndex.MemberTable table, String signature) {
+    CallableDeclaration<?> callable = table.getCallable(matcher(signature));
+    assertNotNull(callable);
+    return callable;
+  }
+
+  /**
+   * Creates a matcher of the given signature.
+   *
+   * @param signature Signature of the callable.
+   * @return Matcher of the signature.
+   */
+  private static SignatureMatcher matcher(String signature) {
+    return new SignatureMatcher(signature);
+  }
+
+  /**
+   * Parses the given lines of a source file.
+   *
+   * @param lines Lines of the source.
+   * @return Compilation unit tree of the source.
+   */
+  private static CompilationUnit parse(String... lines) {
+    JavaParser parser =
+        new JavaParser(
+            Injector.createParserConfiguration(ParserConfiguration.LanguageLevel.JAVA_17));
+    return parser.parse(String.join("\n", lines)).getResult().orElseThrow();
+  }
+}
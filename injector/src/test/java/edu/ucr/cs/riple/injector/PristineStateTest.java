@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.github.javaparser.ParserConfiguration;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.changes.RemoveMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests restoring the last modified time of files restored to their pristine content, which is
+ * only done if no build happened while the files were modified.
+ */
+@RunWith(JUnit4.class)
+public class PristineStateTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final String CONTENT =
+      String.join(
+          System.lineSeparator(),
+          "package test;",
+          "import javax.annotation.Nullable;",
+          "public class Foo {",
+          "   Object f;",
+          "}",
+          "");
+
+  private static final FileTime TIME = FileTime.fromMillis(1_000_000_000L);
+
+  private Path path;
+  private AtomicLong builds;
+  private Injector injector;
+
+  @Before
+  public void setup() throws IOException {
+    path = temporaryFolder.getRoot().toPath().resolve("Foo.java");
+    Files.writeString(path, CONTENT, Charset.defaultCharset());
+    Files.setLastModifiedTime(path, TIME);
+    builds = new AtomicLong();
+    injector =
+        new Injector(
+            ParserConfiguration.LanguageLevel.JAVA_11,
+            UnaryOperator.identity(),
+            new CompilationUnitCache(0),
+            builds::get);
+  }
+
+  @Test
+  public void restoreWithoutBuildTest() throws IOException {
+    add();
+    assertNotEquals(CONTENT, Files.readString(path, Charset.defaultCharset()));
+    remove();
+    assertEquals(CONTENT, Files.readString(path, Charset.defaultCharset()));
+    assertEquals(TIME, Files.getLastModifiedTime(path));
+  }
+
+  @Test
+  public void restoreAfterBuildTest() throws IOException {
+    add();
+    builds.incrementAndGet();
+    remove();
+    assertEquals(CONTENT, Files.readString(path, Charset.defaultCharset()));
+    // Outputs of the build are compiled from the modified content.
+    assertNotEquals(TIME, Files.getLastModifiedTime(path));
+  }
+
+  @Test
+  public void pristineStateIsRecordedAgainAfterRestoreTest() throws IOException {
+    add();
+    builds.incrementAndGet();
+    remove();
+    FileTime restored = FileTime.fromMillis(2_000_000_000L);
+    Files.setLastModifiedTime(path, restored);
+    // The file is pristine again, a new modification without a build restores the new time.
+    add();
+    remove();
+    assertEquals(restored, Files.getLastModifiedTime(path));
+  }
+
+  private void add() {
+    injector.addAnnotations(
+        Collections.singleton(new AddMarkerAnnotation(onField(), "javax.annotation.Nullable")));
+  }
+
+  private void remove() {
+    injector.removeAnnotations(
+        Collections.singleton(new RemoveMarkerAnnotation(onField(), "javax.annotation.Nullable")));
+  }
+
+  private OnField onField() {
+    return new OnField(path, "test.Foo", Collections.singleton("f"));
+  }
+}
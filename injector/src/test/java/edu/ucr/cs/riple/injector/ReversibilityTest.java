@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Nima Karimipour
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package edu.ucr.cs.riple.injector;
+
+import static org.junit.Assert.assertEquals;
+
+import edu.ucr.cs.riple.injector.changes.AddAnnotation;
+import edu.ucr.cs.riple.injector.changes.AddMarkerAnnotation;
+import edu.ucr.cs.riple.injector.location.OnField;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests collecting files where removing the injected annotations would not restore the file
+ * exactly.
+ */
+@RunWith(JUnit4.class)
+public class ReversibilityTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void irreversibleFilesTest() throws IOException {
+    Path reversible =
+        write("A", "package test;", "import javax.annotation.Nullable;", "public class A {", "}");
+    // Injection adds an import declaration, which is kept on removal.
+    Path addedImport = write("B", "package test;", "public class B {", "}");
+    // Annotation already exists, removal would delete it.
+    Path existing =
+        write(
+            "C",
+            "package test;",
+            "import javax.annotation.Nullable;",
+            "public class C {",
+            "   @Nullable Object g;",
+            "}");
+    Set<AddAnnotation> changes = new HashSet<>();
+    changes.add(onField(reversible, "A", "f"));
+    changes.add(onField(addedImport, "B", "f"));
+    changes.add(onField(existing, "C", "f"));
+    changes.add(onField(existing, "C", "g"));
+    Set<Path> irreversibleFiles = new HashSet<>();
+    new Injector().addAnnotations(changes, irreversibleFiles);
+    assertEquals(Set.of(addedImport, existing), irreversibleFiles);
+  }
+
+  /**
+   * Writes a class with a field {@code f} and the given lines, the last line closes the class.
+   *
+   * @param name Name of the class.
+   * @param lines Lines of the class.
+   * @return Path to the written file.
+   */
+  private Path write(String name, String... lines) throws IOException {
+    Path path = temporaryFolder.getRoot().toPath().resolve(name + ".java");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < lines.length; i++) {
+      if (i == lines.length - 1) {
+        content.append("   Object f;").append(System.lineSeparator());
+      }
+      content.append(lines[i]).append(System.lineSeparator());
+    }
+    Files.writeString(path, content.toString(), Charset.defaultCharset());
+    return path;
+  }
+
+  private static AddAnnotation onField(Path path, String clazz, String field) {
+    return new AddMarkerAnnotation(
+        new OnField(path, "test." + clazz, Collections.singleton(field)),
+        "javax.annotation.Nullable");
+  }
+}